@@ -0,0 +1,54 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Compares backends of BulkBitwiseFactory on same buffers
+ * vector backend is skipped (benchmark fails in setup) unless benchmark VM is started with --add-modules jdk.incubator.vector
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class BackendBenchmark {
+    private static final int CONSTANT = 0x5F;
+
+    @Param({"SCALAR", "UNSAFE", "VECTOR"})
+    public BulkBitwiseFactory.Backend backend;
+
+    private BulkBitwiseI executor;
+    private Consumer<ByteBuffer> not;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = BulkBitwiseFactory.create(backend, Lane.BYTE, CONSTANT);
+        not = BulkBitwiseFactory.NOT(backend, Lane.BYTE);
+    }
+
+    @Benchmark
+    public ByteBuffer AND(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        executor.AND(toProcess);
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer XOR(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        executor.XOR(toProcess);
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer NOT(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        not.accept(toProcess);
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+}
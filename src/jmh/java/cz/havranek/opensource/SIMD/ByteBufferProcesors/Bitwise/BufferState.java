@@ -0,0 +1,94 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shared state of benchmarks, buffer of given kind and size filled with random data
+ * misalignment moves position forward and limit backward so odd positions and limits are measured too
+ */
+@State(Scope.Thread)
+public class BufferState {
+    public enum Kind {HEAP, DIRECT, MAPPED}
+
+    @Param({"HEAP", "DIRECT", "MAPPED"})
+    public Kind kind;
+
+    @Param({"64", "4096", "1048576", "104857600", "1073741824"})
+    public int size;
+
+    @Param({"0", "3"})
+    public int misalignment;
+
+    private ByteBuffer buffer;
+    private FileChannel channel;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void allocate() throws IOException {
+        switch (kind) {
+            case HEAP:
+                buffer = ByteBuffer.allocate(size);
+                break;
+            case DIRECT:
+                buffer = ByteBuffer.allocateDirect(size);
+                break;
+            case MAPPED:
+                file = Files.createTempFile("bulkBitwise", ".bin");
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size).load();
+                break;
+        }
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (buffer.remaining() >= 8)
+            buffer.putLong(random.nextLong());
+        while (buffer.hasRemaining())
+            buffer.put((byte) random.nextInt());
+    }
+
+    @TearDown(Level.Trial)
+    public void release() throws IOException {
+        buffer = null;
+        if (channel != null) {
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * @return buffer with position and limit set for next invocation
+     */
+    public ByteBuffer buffer() {
+        buffer.limit(size - misalignment);
+        buffer.position(misalignment);
+        return buffer;
+    }
+
+    /**
+     * @return count of bytes processed by one invocation
+     */
+    public int length() {
+        return size - 2 * misalignment;
+    }
+
+    /**
+     * Counts processed bytes, with benchmark time unit in ns it is reported directly as GB/s
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            bytes = 0;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ByteBulkBitwise with common implementation processing every byte separately
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ByteBulkBitwiseBenchmark {
+    private static final int CONSTANT = 0b01011111;
+    private final ByteBulkBitwise executor = new ByteBulkBitwise(CONSTANT);
+
+    @Benchmark
+    public ByteBuffer AND(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        executor.AND(toProcess);
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer rangeAND(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        executor.AND(toProcess, toProcess.position(), toProcess.limit());
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer OR(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        executor.OR(toProcess);
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer XOR(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        executor.XOR(toProcess);
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer NOT(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        ByteBulkBitwise.NOT(toProcess);
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer commonAND(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        for (int i = toProcess.position(); i < toProcess.limit(); i++)
+            toProcess.put(i, (byte) (toProcess.get(i) & CONSTANT));
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer commonOR(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        for (int i = toProcess.position(); i < toProcess.limit(); i++)
+            toProcess.put(i, (byte) (toProcess.get(i) | CONSTANT));
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer commonXOR(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        for (int i = toProcess.position(); i < toProcess.limit(); i++)
+            toProcess.put(i, (byte) (toProcess.get(i) ^ CONSTANT));
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer commonNOT(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        for (int i = toProcess.position(); i < toProcess.limit(); i++)
+            toProcess.put(i, (byte) ~toProcess.get(i));
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+}
@@ -0,0 +1,42 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares chain of three processors (three passes over buffer) with fused pipeline of same steps (one pass)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class PipelineBenchmark {
+    private final IntBulkBitwise key = new IntBulkBitwise(0x5A5AF00F);
+    private final ByteBulkBitwise mask = new ByteBulkBitwise(0b11011011);
+    private final ShortBulkBitwise flags = new ShortBulkBitwise(0x0101);
+    private final BulkBitwisePipeline pipeline = BulkBitwisePipeline.builder()
+            .XOR(Lane.INT, 0x5A5AF00F)
+            .AND(Lane.BYTE, 0b11011011)
+            .OR(Lane.SHORT, 0x0101)
+            .build();
+
+    @Benchmark
+    public ByteBuffer chained(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        final int position = toProcess.position();
+        key.XOR(toProcess);
+        mask.AND((ByteBuffer) toProcess.position(position));
+        flags.OR((ByteBuffer) toProcess.position(position));
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer fused(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        pipeline.apply(toProcess);
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+}
@@ -0,0 +1,93 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ShortBulkBitwise with common implementation processing every short separately
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ShortBulkBitwiseBenchmark {
+    private static final int CONSTANT = 0b0101111101011111;
+    private final ShortBulkBitwise executor = new ShortBulkBitwise(CONSTANT);
+
+    @Benchmark
+    public ByteBuffer AND(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        executor.AND(toProcess);
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer rangeAND(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        executor.AND(toProcess, toProcess.position(), toProcess.limit());
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer OR(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        executor.OR(toProcess);
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer XOR(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        executor.XOR(toProcess);
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer NOT(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        ShortBulkBitwise.NOT(toProcess);
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer commonAND(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        for (int i = toProcess.position(); i < toProcess.limit() - 1; i += 2)
+            toProcess.putShort(i, (short) (toProcess.getShort(i) & CONSTANT));
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer commonOR(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        for (int i = toProcess.position(); i < toProcess.limit() - 1; i += 2)
+            toProcess.putShort(i, (short) (toProcess.getShort(i) | CONSTANT));
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer commonXOR(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        for (int i = toProcess.position(); i < toProcess.limit() - 1; i += 2)
+            toProcess.putShort(i, (short) (toProcess.getShort(i) ^ CONSTANT));
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+
+    @Benchmark
+    public ByteBuffer commonNOT(BufferState state, BufferState.Throughput throughput) {
+        final ByteBuffer toProcess = state.buffer();
+        for (int i = toProcess.position(); i < toProcess.limit() - 1; i += 2)
+            toProcess.putShort(i, (short) ~toProcess.getShort(i));
+        throughput.bytes += state.length();
+        return toProcess;
+    }
+}
@@ -0,0 +1,40 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares copy followed by in place operation (two passes over memory) with out of place operation (one pass)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class TransferBenchmark {
+    private final IntBulkBitwise executor = new IntBulkBitwise(0x5A5AF00F);
+    private ByteBuffer target;
+
+    @Setup(Level.Trial)
+    public void allocate(BufferState state) {
+        target = ByteBuffer.allocateDirect(state.size);
+    }
+
+    @Benchmark
+    public ByteBuffer copyThenXOR(BufferState state, BufferState.Throughput throughput) {
+        target.clear();
+        target.put(state.buffer());
+        target.flip();
+        executor.XOR(target);
+        throughput.bytes += state.length();
+        return target;
+    }
+
+    @Benchmark
+    public ByteBuffer outOfPlaceXOR(BufferState state, BufferState.Throughput throughput) {
+        target.clear();
+        executor.XOR(state.buffer(), target);
+        throughput.bytes += state.length();
+        return target;
+    }
+}
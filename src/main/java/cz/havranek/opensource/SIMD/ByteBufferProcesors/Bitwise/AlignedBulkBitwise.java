@@ -0,0 +1,271 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.function.BiConsumer;
+
+/**
+ * Decorator which makes main long loop of any processor run on aligned memory
+ * when fromIndex is not aligned to boundary (8 bytes or cache line of 64 bytes) in memory, every long of main loop is misaligned
+ * (slow on some cpus and longs on end of cache lines are split), so range is split to prologue up to next boundary
+ * and rest starting at boundary, both are processed by delegate (prologue is shorter than boundary, rest ends with usual tail of delegate)
+ * <p>
+ * alignment is taken from address of direct buffers, heap buffers are aligned at most to 8 bytes (objects can be moved by GC),
+ * range is processed unsplit if alignment can't be determined (Unsafe is not accessible)
+ * or if prologue would split element of lane (address of fromIndex is not multiple of lane)
+ * or longs of LongBulkBitwise (its whole pattern, as pattern starts again at fromIndex of every call)
+ * is thread save if delegate is
+ */
+final public class AlignedBulkBitwise implements BulkBitwiseI {
+    /**
+     * alignment of long
+     */
+    public static final int LONG_BOUNDARY = 8;
+    /**
+     * alignment of cache line (of most cpus)
+     */
+    public static final int CACHE_LINE_BOUNDARY = 64;
+
+    private final BulkBitwiseI delegate;
+    /**
+     * prologue has to be multiple of it
+     */
+    private final int granularity;
+    private final int boundary;
+
+    /**
+     * Construct decorator aligning to long
+     *
+     * @param delegate processor to execute operations
+     * @param lane     width of elements of delegate
+     */
+    public AlignedBulkBitwise(final BulkBitwiseI delegate, final Lane lane) {
+        this(delegate, lane, LONG_BOUNDARY);
+    }
+
+    /**
+     * Construct decorator
+     *
+     * @param delegate processor to execute operations
+     * @param lane     width of elements of delegate
+     * @param boundary power of 2 at least 8 (LONG_BOUNDARY or CACHE_LINE_BOUNDARY)
+     * @throws IllegalArgumentException if boundary is not power of 2 at least 8
+     */
+    public AlignedBulkBitwise(final BulkBitwiseI delegate, final Lane lane, final int boundary) {
+        validateBoundary(boundary);
+        this.delegate = delegate;
+        this.granularity = Math.max(lane.bytes(), granularity(delegate));
+        this.boundary = boundary;
+    }
+
+    /**
+     * @return count of bytes delegate processes as one unit regardless of lane
+     */
+    private static int granularity(final BulkBitwiseI delegate) {
+        return delegate instanceof LongBulkBitwise ? ((LongBulkBitwise) delegate).granularity() : 1;
+    }
+
+    /**
+     * @param toProcess non null instance
+     * @param index     absolute index in buffer
+     * @param boundary  power of 2
+     * @return count of bytes from index to next boundary in memory (0 if index is aligned) or -1 if it can't be determined
+     */
+    public static int prologueLength(final ByteBuffer toProcess, final int index, final int boundary) {
+        final int offset = UnsafeAccess.alignmentOffset(toProcess, index, boundary);
+        if (offset <= 0)
+            return offset;
+        //heap buffers are aligned to at most 8, so offset is counted to smaller boundary
+        final int effectiveBoundary = toProcess.isDirect() ? boundary : Math.min(boundary, 8);
+        return effectiveBoundary - offset;
+    }
+
+    /**
+     * Execute bitwise AND operation of delegate from current position of buffer to it's limit
+     * position is moved to limit
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void AND(final ByteBuffer toProcess) {
+        AND(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise AND operation of delegate from fromIndex to toIndex
+     * position and limit are untouched
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void AND(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        execute(delegate::AND, toProcess, fromIndex, toIndex, granularity, boundary);
+    }
+
+    /**
+     * Execute bitwise OR operation of delegate from current position of buffer to it's limit
+     * position is moved to limit
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void OR(final ByteBuffer toProcess) {
+        OR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise OR operation of delegate from fromIndex to toIndex
+     * position and limit are untouched
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void OR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        execute(delegate::OR, toProcess, fromIndex, toIndex, granularity, boundary);
+    }
+
+    /**
+     * Execute bitwise XOR operation of delegate from current position of buffer to it's limit
+     * position is moved to limit
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void XOR(final ByteBuffer toProcess) {
+        XOR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise XOR operation of delegate from fromIndex to toIndex
+     * position and limit are untouched
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void XOR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        execute(delegate::XOR, toProcess, fromIndex, toIndex, granularity, boundary);
+    }
+
+    /**
+     * Execute bitwise AND operation of delegate on source and store result to target (prologue is counted from address of target)
+     * positions of both buffers are moved by count of bytes of source
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void AND(final ByteBuffer source, final ByteBuffer target) {
+        transfer(delegate::AND, source, target, granularity, boundary);
+    }
+
+    /**
+     * Execute bitwise OR operation of delegate on source and store result to target (prologue is counted from address of target)
+     * positions of both buffers are moved by count of bytes of source
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void OR(final ByteBuffer source, final ByteBuffer target) {
+        transfer(delegate::OR, source, target, granularity, boundary);
+    }
+
+    /**
+     * Execute bitwise XOR operation of delegate on source and store result to target (prologue is counted from address of target)
+     * positions of both buffers are moved by count of bytes of source
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void XOR(final ByteBuffer source, final ByteBuffer target) {
+        transfer(delegate::XOR, source, target, granularity, boundary);
+    }
+
+    /**
+     * Execute any operation working on range (for example ShortBulkBitwise::NOT) from fromIndex to toIndex split at boundary
+     * position and limit are untouched
+     *
+     * @param operation operation to execute
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @param lane      width of elements of operation
+     * @param boundary  power of 2 at least 8 (LONG_BOUNDARY or CACHE_LINE_BOUNDARY)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     * @throws IllegalArgumentException  if boundary is not power of 2 at least 8
+     */
+    public static void execute(final BulkRangeOperation operation, final ByteBuffer toProcess, final int fromIndex, final int toIndex,
+                               final Lane lane, final int boundary) {
+        validateBoundary(boundary);
+        execute(operation, toProcess, fromIndex, toIndex, lane.bytes(), boundary);
+    }
+
+    private static void execute(final BulkRangeOperation operation, final ByteBuffer toProcess, final int fromIndex, final int toIndex,
+                                final int granularity, final int boundary) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int prologue = prologueLength(toProcess, fromIndex, boundary);
+        if (prologue <= 0 || prologue % granularity != 0 || prologue >= toIndex - fromIndex) {
+            operation.apply(toProcess, fromIndex, toIndex);
+            return;
+        }
+        final int alignedIndex = fromIndex + prologue;
+        operation.apply(toProcess, fromIndex, alignedIndex);
+        operation.apply(toProcess, alignedIndex, toIndex);
+    }
+
+    /**
+     * Execute any out of place operation (for example ShortBulkBitwise::NOT) split at boundary of target
+     * positions of both buffers are moved by count of bytes of source
+     *
+     * @param operation operation to execute
+     * @param source    non null instance (may be read only)
+     * @param target    writable non null instance not sharing memory with source
+     * @param lane      width of elements of operation
+     * @param boundary  power of 2 at least 8 (LONG_BOUNDARY or CACHE_LINE_BOUNDARY)
+     * @throws BufferOverflowException  if target has less bytes remaining than source
+     * @throws IllegalArgumentException if boundary is not power of 2 at least 8
+     */
+    public static void execute(final BiConsumer<ByteBuffer, ByteBuffer> operation, final ByteBuffer source, final ByteBuffer target,
+                               final Lane lane, final int boundary) {
+        validateBoundary(boundary);
+        transfer(operation, source, target, lane.bytes(), boundary);
+    }
+
+    private static void transfer(final BiConsumer<ByteBuffer, ByteBuffer> operation, final ByteBuffer source, final ByteBuffer target,
+                                 final int granularity, final int boundary) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int prologue = prologueLength(target, target.position(), boundary);
+        if (prologue <= 0 || prologue % granularity != 0 || prologue >= length) {
+            operation.accept(source, target);
+            return;
+        }
+        //prologue is passed to operation by shortened view, source may be shared so its limit is never changed
+        final int start = source.position();
+        final ByteBuffer head = source.duplicate().order(source.order());
+        head.limit(start + prologue);
+        operation.accept(head, target);
+        source.position(start + prologue);
+        operation.accept(source, target);
+    }
+
+    private static void validateBoundary(final int boundary) {
+        if (boundary < 8 || Integer.bitCount(boundary) != 1)
+            throw new IllegalArgumentException("Boundary (" + boundary + ") must be power of 2 at least 8");
+    }
+}
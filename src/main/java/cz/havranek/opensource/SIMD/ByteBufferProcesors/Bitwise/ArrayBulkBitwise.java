@@ -0,0 +1,597 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import static cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise.UnsafeAccess.BYTE_ARRAY_BASE;
+import static cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise.UnsafeAccess.INT_ARRAY_BASE;
+import static cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise.UnsafeAccess.SHORT_ARRAY_BASE;
+import static cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise.UnsafeAccess.UNSAFE;
+
+/**
+ * Bitwise operations on portions of primitive arrays without wrapping them in ByteBuffer (no allocation)
+ * byte[], short[] and int[] are processed by whole longs (8 byte packed access through sun.misc.Unsafe, arrays are in native order
+ * and constant is replicated to every element of long so no byte swapping is needed), rest of portion element by element
+ * long[] and VMs without sun.misc.Unsafe are processed element by element
+ * <p>
+ * portion is given by offset and length (in elements), array to array operations store result in first array,
+ * overlapping portions of one array give undefined result
+ * is thread save if nothing else is modifying(reading data) of portion of array
+ */
+final public class ArrayBulkBitwise {
+    private ArrayBulkBitwise() {
+    }
+
+    /**
+     * Execute bitwise AND operation with constant on elements of byte array from offset to offset + length
+     *
+     * @param array    non null instance
+     * @param offset   index of first element
+     * @param length   count of elements to process
+     * @param constant constant to use
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void AND(final byte[] array, final int offset, final int length, final byte constant) {
+        validatePortion(array.length, offset, length);
+        int index = offset + (int) rawAND(array, BYTE_ARRAY_BASE + offset, length, Lane.BYTE.packedFilter(constant & 0xFF));
+        final int end = offset + length;
+        for (; index < end; index++)
+            array[index] &= constant;
+    }
+
+    /**
+     * Execute bitwise OR operation with constant on elements of byte array from offset to offset + length
+     *
+     * @param array    non null instance
+     * @param offset   index of first element
+     * @param length   count of elements to process
+     * @param constant constant to use
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void OR(final byte[] array, final int offset, final int length, final byte constant) {
+        validatePortion(array.length, offset, length);
+        int index = offset + (int) rawOR(array, BYTE_ARRAY_BASE + offset, length, Lane.BYTE.packedFilter(constant & 0xFF));
+        final int end = offset + length;
+        for (; index < end; index++)
+            array[index] |= constant;
+    }
+
+    /**
+     * Execute bitwise XOR operation with constant on elements of byte array from offset to offset + length
+     *
+     * @param array    non null instance
+     * @param offset   index of first element
+     * @param length   count of elements to process
+     * @param constant constant to use
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void XOR(final byte[] array, final int offset, final int length, final byte constant) {
+        validatePortion(array.length, offset, length);
+        int index = offset + (int) rawXOR(array, BYTE_ARRAY_BASE + offset, length, Lane.BYTE.packedFilter(constant & 0xFF));
+        final int end = offset + length;
+        for (; index < end; index++)
+            array[index] ^= constant;
+    }
+
+    /**
+     * Execute bitwise AND operation of elements of two byte arrays, result is stored in first array
+     *
+     * @param array         non null instance (result)
+     * @param offset        index of first element of array
+     * @param operand       non null instance
+     * @param operandOffset index of first element of operand
+     * @param length        count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of any array
+     */
+    public static void AND(final byte[] array, final int offset, final byte[] operand, final int operandOffset, final int length) {
+        validatePortion(array.length, offset, length);
+        validatePortion(operand.length, operandOffset, length);
+        final int processed = (int) rawAND(array, BYTE_ARRAY_BASE + offset, operand, BYTE_ARRAY_BASE + operandOffset, length);
+        for (int i = processed; i < length; i++)
+            array[offset + i] &= operand[operandOffset + i];
+    }
+
+    /**
+     * Execute bitwise OR operation of elements of two byte arrays, result is stored in first array
+     *
+     * @param array         non null instance (result)
+     * @param offset        index of first element of array
+     * @param operand       non null instance
+     * @param operandOffset index of first element of operand
+     * @param length        count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of any array
+     */
+    public static void OR(final byte[] array, final int offset, final byte[] operand, final int operandOffset, final int length) {
+        validatePortion(array.length, offset, length);
+        validatePortion(operand.length, operandOffset, length);
+        final int processed = (int) rawOR(array, BYTE_ARRAY_BASE + offset, operand, BYTE_ARRAY_BASE + operandOffset, length);
+        for (int i = processed; i < length; i++)
+            array[offset + i] |= operand[operandOffset + i];
+    }
+
+    /**
+     * Execute bitwise XOR operation of elements of two byte arrays, result is stored in first array
+     *
+     * @param array         non null instance (result)
+     * @param offset        index of first element of array
+     * @param operand       non null instance
+     * @param operandOffset index of first element of operand
+     * @param length        count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of any array
+     */
+    public static void XOR(final byte[] array, final int offset, final byte[] operand, final int operandOffset, final int length) {
+        validatePortion(array.length, offset, length);
+        validatePortion(operand.length, operandOffset, length);
+        final int processed = (int) rawXOR(array, BYTE_ARRAY_BASE + offset, operand, BYTE_ARRAY_BASE + operandOffset, length);
+        for (int i = processed; i < length; i++)
+            array[offset + i] ^= operand[operandOffset + i];
+    }
+
+    /**
+     * Execute bitwise NOT operation on elements of byte array from offset to offset + length
+     *
+     * @param array  non null instance
+     * @param offset index of first element
+     * @param length count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void NOT(final byte[] array, final int offset, final int length) {
+        validatePortion(array.length, offset, length);
+        int index = offset + (int) rawNOT(array, BYTE_ARRAY_BASE + offset, length);
+        final int end = offset + length;
+        for (; index < end; index++)
+            array[index] = (byte) ~array[index];
+    }
+
+    /**
+     * Execute bitwise AND operation with constant on elements of short array from offset to offset + length
+     *
+     * @param array    non null instance
+     * @param offset   index of first element
+     * @param length   count of elements to process
+     * @param constant constant to use
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void AND(final short[] array, final int offset, final int length, final short constant) {
+        validatePortion(array.length, offset, length);
+        int index = offset + (int) (rawAND(array, SHORT_ARRAY_BASE + ((long) offset << 1), (long) length << 1, Lane.SHORT.packedFilter(constant & 0xFFFF)) >>> 1);
+        final int end = offset + length;
+        for (; index < end; index++)
+            array[index] &= constant;
+    }
+
+    /**
+     * Execute bitwise OR operation with constant on elements of short array from offset to offset + length
+     *
+     * @param array    non null instance
+     * @param offset   index of first element
+     * @param length   count of elements to process
+     * @param constant constant to use
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void OR(final short[] array, final int offset, final int length, final short constant) {
+        validatePortion(array.length, offset, length);
+        int index = offset + (int) (rawOR(array, SHORT_ARRAY_BASE + ((long) offset << 1), (long) length << 1, Lane.SHORT.packedFilter(constant & 0xFFFF)) >>> 1);
+        final int end = offset + length;
+        for (; index < end; index++)
+            array[index] |= constant;
+    }
+
+    /**
+     * Execute bitwise XOR operation with constant on elements of short array from offset to offset + length
+     *
+     * @param array    non null instance
+     * @param offset   index of first element
+     * @param length   count of elements to process
+     * @param constant constant to use
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void XOR(final short[] array, final int offset, final int length, final short constant) {
+        validatePortion(array.length, offset, length);
+        int index = offset + (int) (rawXOR(array, SHORT_ARRAY_BASE + ((long) offset << 1), (long) length << 1, Lane.SHORT.packedFilter(constant & 0xFFFF)) >>> 1);
+        final int end = offset + length;
+        for (; index < end; index++)
+            array[index] ^= constant;
+    }
+
+    /**
+     * Execute bitwise AND operation of elements of two short arrays, result is stored in first array
+     *
+     * @param array         non null instance (result)
+     * @param offset        index of first element of array
+     * @param operand       non null instance
+     * @param operandOffset index of first element of operand
+     * @param length        count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of any array
+     */
+    public static void AND(final short[] array, final int offset, final short[] operand, final int operandOffset, final int length) {
+        validatePortion(array.length, offset, length);
+        validatePortion(operand.length, operandOffset, length);
+        final int processed = (int) (rawAND(array, SHORT_ARRAY_BASE + ((long) offset << 1), operand, SHORT_ARRAY_BASE + ((long) operandOffset << 1), (long) length << 1) >>> 1);
+        for (int i = processed; i < length; i++)
+            array[offset + i] &= operand[operandOffset + i];
+    }
+
+    /**
+     * Execute bitwise OR operation of elements of two short arrays, result is stored in first array
+     *
+     * @param array         non null instance (result)
+     * @param offset        index of first element of array
+     * @param operand       non null instance
+     * @param operandOffset index of first element of operand
+     * @param length        count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of any array
+     */
+    public static void OR(final short[] array, final int offset, final short[] operand, final int operandOffset, final int length) {
+        validatePortion(array.length, offset, length);
+        validatePortion(operand.length, operandOffset, length);
+        final int processed = (int) (rawOR(array, SHORT_ARRAY_BASE + ((long) offset << 1), operand, SHORT_ARRAY_BASE + ((long) operandOffset << 1), (long) length << 1) >>> 1);
+        for (int i = processed; i < length; i++)
+            array[offset + i] |= operand[operandOffset + i];
+    }
+
+    /**
+     * Execute bitwise XOR operation of elements of two short arrays, result is stored in first array
+     *
+     * @param array         non null instance (result)
+     * @param offset        index of first element of array
+     * @param operand       non null instance
+     * @param operandOffset index of first element of operand
+     * @param length        count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of any array
+     */
+    public static void XOR(final short[] array, final int offset, final short[] operand, final int operandOffset, final int length) {
+        validatePortion(array.length, offset, length);
+        validatePortion(operand.length, operandOffset, length);
+        final int processed = (int) (rawXOR(array, SHORT_ARRAY_BASE + ((long) offset << 1), operand, SHORT_ARRAY_BASE + ((long) operandOffset << 1), (long) length << 1) >>> 1);
+        for (int i = processed; i < length; i++)
+            array[offset + i] ^= operand[operandOffset + i];
+    }
+
+    /**
+     * Execute bitwise NOT operation on elements of short array from offset to offset + length
+     *
+     * @param array  non null instance
+     * @param offset index of first element
+     * @param length count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void NOT(final short[] array, final int offset, final int length) {
+        validatePortion(array.length, offset, length);
+        int index = offset + (int) (rawNOT(array, SHORT_ARRAY_BASE + ((long) offset << 1), (long) length << 1) >>> 1);
+        final int end = offset + length;
+        for (; index < end; index++)
+            array[index] = (short) ~array[index];
+    }
+
+    /**
+     * Execute bitwise AND operation with constant on elements of int array from offset to offset + length
+     *
+     * @param array    non null instance
+     * @param offset   index of first element
+     * @param length   count of elements to process
+     * @param constant constant to use
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void AND(final int[] array, final int offset, final int length, final int constant) {
+        validatePortion(array.length, offset, length);
+        int index = offset + (int) (rawAND(array, INT_ARRAY_BASE + ((long) offset << 2), (long) length << 2, Lane.INT.packedFilter(constant)) >>> 2);
+        final int end = offset + length;
+        for (; index < end; index++)
+            array[index] &= constant;
+    }
+
+    /**
+     * Execute bitwise OR operation with constant on elements of int array from offset to offset + length
+     *
+     * @param array    non null instance
+     * @param offset   index of first element
+     * @param length   count of elements to process
+     * @param constant constant to use
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void OR(final int[] array, final int offset, final int length, final int constant) {
+        validatePortion(array.length, offset, length);
+        int index = offset + (int) (rawOR(array, INT_ARRAY_BASE + ((long) offset << 2), (long) length << 2, Lane.INT.packedFilter(constant)) >>> 2);
+        final int end = offset + length;
+        for (; index < end; index++)
+            array[index] |= constant;
+    }
+
+    /**
+     * Execute bitwise XOR operation with constant on elements of int array from offset to offset + length
+     *
+     * @param array    non null instance
+     * @param offset   index of first element
+     * @param length   count of elements to process
+     * @param constant constant to use
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void XOR(final int[] array, final int offset, final int length, final int constant) {
+        validatePortion(array.length, offset, length);
+        int index = offset + (int) (rawXOR(array, INT_ARRAY_BASE + ((long) offset << 2), (long) length << 2, Lane.INT.packedFilter(constant)) >>> 2);
+        final int end = offset + length;
+        for (; index < end; index++)
+            array[index] ^= constant;
+    }
+
+    /**
+     * Execute bitwise AND operation of elements of two int arrays, result is stored in first array
+     *
+     * @param array         non null instance (result)
+     * @param offset        index of first element of array
+     * @param operand       non null instance
+     * @param operandOffset index of first element of operand
+     * @param length        count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of any array
+     */
+    public static void AND(final int[] array, final int offset, final int[] operand, final int operandOffset, final int length) {
+        validatePortion(array.length, offset, length);
+        validatePortion(operand.length, operandOffset, length);
+        final int processed = (int) (rawAND(array, INT_ARRAY_BASE + ((long) offset << 2), operand, INT_ARRAY_BASE + ((long) operandOffset << 2), (long) length << 2) >>> 2);
+        for (int i = processed; i < length; i++)
+            array[offset + i] &= operand[operandOffset + i];
+    }
+
+    /**
+     * Execute bitwise OR operation of elements of two int arrays, result is stored in first array
+     *
+     * @param array         non null instance (result)
+     * @param offset        index of first element of array
+     * @param operand       non null instance
+     * @param operandOffset index of first element of operand
+     * @param length        count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of any array
+     */
+    public static void OR(final int[] array, final int offset, final int[] operand, final int operandOffset, final int length) {
+        validatePortion(array.length, offset, length);
+        validatePortion(operand.length, operandOffset, length);
+        final int processed = (int) (rawOR(array, INT_ARRAY_BASE + ((long) offset << 2), operand, INT_ARRAY_BASE + ((long) operandOffset << 2), (long) length << 2) >>> 2);
+        for (int i = processed; i < length; i++)
+            array[offset + i] |= operand[operandOffset + i];
+    }
+
+    /**
+     * Execute bitwise XOR operation of elements of two int arrays, result is stored in first array
+     *
+     * @param array         non null instance (result)
+     * @param offset        index of first element of array
+     * @param operand       non null instance
+     * @param operandOffset index of first element of operand
+     * @param length        count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of any array
+     */
+    public static void XOR(final int[] array, final int offset, final int[] operand, final int operandOffset, final int length) {
+        validatePortion(array.length, offset, length);
+        validatePortion(operand.length, operandOffset, length);
+        final int processed = (int) (rawXOR(array, INT_ARRAY_BASE + ((long) offset << 2), operand, INT_ARRAY_BASE + ((long) operandOffset << 2), (long) length << 2) >>> 2);
+        for (int i = processed; i < length; i++)
+            array[offset + i] ^= operand[operandOffset + i];
+    }
+
+    /**
+     * Execute bitwise NOT operation on elements of int array from offset to offset + length
+     *
+     * @param array  non null instance
+     * @param offset index of first element
+     * @param length count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void NOT(final int[] array, final int offset, final int length) {
+        validatePortion(array.length, offset, length);
+        int index = offset + (int) (rawNOT(array, INT_ARRAY_BASE + ((long) offset << 2), (long) length << 2) >>> 2);
+        final int end = offset + length;
+        for (; index < end; index++)
+            array[index] = ~array[index];
+    }
+
+    /**
+     * Execute bitwise AND operation with constant on elements of long array from offset to offset + length
+     *
+     * @param array    non null instance
+     * @param offset   index of first element
+     * @param length   count of elements to process
+     * @param constant constant to use
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void AND(final long[] array, final int offset, final int length, final long constant) {
+        validatePortion(array.length, offset, length);
+        final int end = offset + length;
+        for (int index = offset; index < end; index++)
+            array[index] &= constant;
+    }
+
+    /**
+     * Execute bitwise OR operation with constant on elements of long array from offset to offset + length
+     *
+     * @param array    non null instance
+     * @param offset   index of first element
+     * @param length   count of elements to process
+     * @param constant constant to use
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void OR(final long[] array, final int offset, final int length, final long constant) {
+        validatePortion(array.length, offset, length);
+        final int end = offset + length;
+        for (int index = offset; index < end; index++)
+            array[index] |= constant;
+    }
+
+    /**
+     * Execute bitwise XOR operation with constant on elements of long array from offset to offset + length
+     *
+     * @param array    non null instance
+     * @param offset   index of first element
+     * @param length   count of elements to process
+     * @param constant constant to use
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void XOR(final long[] array, final int offset, final int length, final long constant) {
+        validatePortion(array.length, offset, length);
+        final int end = offset + length;
+        for (int index = offset; index < end; index++)
+            array[index] ^= constant;
+    }
+
+    /**
+     * Execute bitwise AND operation of elements of two long arrays, result is stored in first array
+     *
+     * @param array         non null instance (result)
+     * @param offset        index of first element of array
+     * @param operand       non null instance
+     * @param operandOffset index of first element of operand
+     * @param length        count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of any array
+     */
+    public static void AND(final long[] array, final int offset, final long[] operand, final int operandOffset, final int length) {
+        validatePortion(array.length, offset, length);
+        validatePortion(operand.length, operandOffset, length);
+        for (int i = 0; i < length; i++)
+            array[offset + i] &= operand[operandOffset + i];
+    }
+
+    /**
+     * Execute bitwise OR operation of elements of two long arrays, result is stored in first array
+     *
+     * @param array         non null instance (result)
+     * @param offset        index of first element of array
+     * @param operand       non null instance
+     * @param operandOffset index of first element of operand
+     * @param length        count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of any array
+     */
+    public static void OR(final long[] array, final int offset, final long[] operand, final int operandOffset, final int length) {
+        validatePortion(array.length, offset, length);
+        validatePortion(operand.length, operandOffset, length);
+        for (int i = 0; i < length; i++)
+            array[offset + i] |= operand[operandOffset + i];
+    }
+
+    /**
+     * Execute bitwise XOR operation of elements of two long arrays, result is stored in first array
+     *
+     * @param array         non null instance (result)
+     * @param offset        index of first element of array
+     * @param operand       non null instance
+     * @param operandOffset index of first element of operand
+     * @param length        count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of any array
+     */
+    public static void XOR(final long[] array, final int offset, final long[] operand, final int operandOffset, final int length) {
+        validatePortion(array.length, offset, length);
+        validatePortion(operand.length, operandOffset, length);
+        for (int i = 0; i < length; i++)
+            array[offset + i] ^= operand[operandOffset + i];
+    }
+
+    /**
+     * Execute bitwise NOT operation on elements of long array from offset to offset + length
+     *
+     * @param array  non null instance
+     * @param offset index of first element
+     * @param length count of elements to process
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    public static void NOT(final long[] array, final int offset, final int length) {
+        validatePortion(array.length, offset, length);
+        final int end = offset + length;
+        for (int index = offset; index < end; index++)
+            array[index] = ~array[index];
+    }
+
+    /**
+     * @param arrayLength length of array
+     * @param offset      index of first element
+     * @param length      count of elements
+     * @throws IndexOutOfBoundsException if portion is out of array
+     */
+    private static void validatePortion(final int arrayLength, final int offset, final int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length)
+            throw new IndexOutOfBoundsException("Portion (offset " + offset + ", length " + length + ") is out of array of length " + arrayLength);
+    }
+
+    /**
+     * @return count of processed bytes (multiple of 8), 0 if Unsafe is not accessible
+     */
+    private static long rawAND(final Object array, final long address, final long bytes, final long filter) {
+        if (UNSAFE == null)
+            return 0;
+        final long lastLongAddress = address + bytes - 8;
+        long current = address;
+        for (; current <= lastLongAddress; current += 8)
+            UNSAFE.putLong(array, current, UNSAFE.getLong(array, current) & filter);
+        return current - address;
+    }
+
+    /**
+     * @return count of processed bytes (multiple of 8), 0 if Unsafe is not accessible
+     */
+    private static long rawOR(final Object array, final long address, final long bytes, final long filter) {
+        if (UNSAFE == null)
+            return 0;
+        final long lastLongAddress = address + bytes - 8;
+        long current = address;
+        for (; current <= lastLongAddress; current += 8)
+            UNSAFE.putLong(array, current, UNSAFE.getLong(array, current) | filter);
+        return current - address;
+    }
+
+    /**
+     * @return count of processed bytes (multiple of 8), 0 if Unsafe is not accessible
+     */
+    private static long rawXOR(final Object array, final long address, final long bytes, final long filter) {
+        if (UNSAFE == null)
+            return 0;
+        final long lastLongAddress = address + bytes - 8;
+        long current = address;
+        for (; current <= lastLongAddress; current += 8)
+            UNSAFE.putLong(array, current, UNSAFE.getLong(array, current) ^ filter);
+        return current - address;
+    }
+
+    /**
+     * @return count of processed bytes (multiple of 8), 0 if Unsafe is not accessible
+     */
+    private static long rawAND(final Object array, final long address, final Object operand, final long operandAddress, final long bytes) {
+        if (UNSAFE == null)
+            return 0;
+        long processed = 0;
+        for (; processed <= bytes - 8; processed += 8)
+            UNSAFE.putLong(array, address + processed, UNSAFE.getLong(array, address + processed) & UNSAFE.getLong(operand, operandAddress + processed));
+        return processed;
+    }
+
+    /**
+     * @return count of processed bytes (multiple of 8), 0 if Unsafe is not accessible
+     */
+    private static long rawOR(final Object array, final long address, final Object operand, final long operandAddress, final long bytes) {
+        if (UNSAFE == null)
+            return 0;
+        long processed = 0;
+        for (; processed <= bytes - 8; processed += 8)
+            UNSAFE.putLong(array, address + processed, UNSAFE.getLong(array, address + processed) | UNSAFE.getLong(operand, operandAddress + processed));
+        return processed;
+    }
+
+    /**
+     * @return count of processed bytes (multiple of 8), 0 if Unsafe is not accessible
+     */
+    private static long rawXOR(final Object array, final long address, final Object operand, final long operandAddress, final long bytes) {
+        if (UNSAFE == null)
+            return 0;
+        long processed = 0;
+        for (; processed <= bytes - 8; processed += 8)
+            UNSAFE.putLong(array, address + processed, UNSAFE.getLong(array, address + processed) ^ UNSAFE.getLong(operand, operandAddress + processed));
+        return processed;
+    }
+
+    /**
+     * @return count of processed bytes (multiple of 8), 0 if Unsafe is not accessible
+     */
+    private static long rawNOT(final Object array, final long address, final long bytes) {
+        if (UNSAFE == null)
+            return 0;
+        final long lastLongAddress = address + bytes - 8;
+        long current = address;
+        for (; current <= lastLongAddress; current += 8)
+            UNSAFE.putLong(array, current, ~UNSAFE.getLong(array, current));
+        return current - address;
+    }
+}
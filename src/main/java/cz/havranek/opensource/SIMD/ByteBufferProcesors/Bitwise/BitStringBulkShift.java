@@ -0,0 +1,127 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Shifts of range of buffer as one long bit string (for sliding window bitmaps)
+ * bits are numbered as in java.util.BitSet.valueOf(ByteBuffer): bit k is bit (k % 8) of byte k / 8 of range
+ * so SHL moves bits to higher indexes and SHR to lower ones, bits shifted out of range are lost and vacated bits are zero
+ * main loop works on whole long taken as little endian (longs of big endian buffer are byte swapped, byte order of buffer is never changed),
+ * bytes which can't be processed as long are processed one by one
+ */
+final public class BitStringBulkShift {
+    private BitStringBulkShift() {
+    }
+
+    /**
+     * Shift bits from current position of buffer to it's limit to higher indexes
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param distance  count of bits to shift by (non negative), range is cleared if it is longer than range
+     * @throws IllegalArgumentException if distance is negative
+     */
+    public static void SHL(final ByteBuffer toProcess, final long distance) {
+        SHL(toProcess, toProcess.position(), toProcess.limit(), distance);
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Shift bits from fromIndex to toIndex to higher indexes
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @param distance  count of bits to shift by (non negative), range is cleared if it is longer than range
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     * @throws IllegalArgumentException  if distance is negative
+     */
+    public static void SHL(final ByteBuffer toProcess, final int fromIndex, final int toIndex, final long distance) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        if (distance < 0)
+            throw new IllegalArgumentException("Distance (" + distance + ") must not be negative");
+        if (distance >= (toIndex - fromIndex) * 8L) {
+            clear(toProcess, fromIndex, toIndex);
+            return;
+        }
+        final int byteShift = (int) (distance >>> 3);
+        final int bitShift = (int) (distance & 7);
+        final boolean bigEndian = toProcess.order() == ByteOrder.BIG_ENDIAN;
+        //from top to bottom so source is not overwritten before it is read
+        int index = toIndex - 8;
+        for (; index - byteShift - 1 >= fromIndex; index -= 8)
+            ByteBuffTools.putLong(toProcess, index, (ByteBuffTools.getLong(toProcess, index - byteShift, bigEndian) << bitShift)
+                    | ((toProcess.get(index - byteShift - 1) & 0xFF) >>> (8 - bitShift)), bigEndian);
+
+        for (int byteIndex = Math.min(index + 7, toIndex - 1); byteIndex >= fromIndex; byteIndex--) {
+            final int source = byteIndex - byteShift;
+            final int high = source >= fromIndex ? toProcess.get(source) & 0xFF : 0;
+            final int low = source - 1 >= fromIndex ? toProcess.get(source - 1) & 0xFF : 0;
+            toProcess.put(byteIndex, (byte) ((high << bitShift) | (low >>> (8 - bitShift))));
+        }
+    }
+
+    /**
+     * Shift bits from current position of buffer to it's limit to lower indexes
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param distance  count of bits to shift by (non negative), range is cleared if it is longer than range
+     * @throws IllegalArgumentException if distance is negative
+     */
+    public static void SHR(final ByteBuffer toProcess, final long distance) {
+        SHR(toProcess, toProcess.position(), toProcess.limit(), distance);
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Shift bits from fromIndex to toIndex to lower indexes
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @param distance  count of bits to shift by (non negative), range is cleared if it is longer than range
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     * @throws IllegalArgumentException  if distance is negative
+     */
+    public static void SHR(final ByteBuffer toProcess, final int fromIndex, final int toIndex, final long distance) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        if (distance < 0)
+            throw new IllegalArgumentException("Distance (" + distance + ") must not be negative");
+        if (distance >= (toIndex - fromIndex) * 8L) {
+            clear(toProcess, fromIndex, toIndex);
+            return;
+        }
+        final int byteShift = (int) (distance >>> 3);
+        final int bitShift = (int) (distance & 7);
+        final boolean bigEndian = toProcess.order() == ByteOrder.BIG_ENDIAN;
+        //from bottom to top so source is not overwritten before it is read
+        int index = fromIndex;
+        for (; index + byteShift + 9 <= toIndex; index += 8)
+            //shift by 1 and (63 - bitShift) as shift by 64 is not shift at all
+            ByteBuffTools.putLong(toProcess, index, (ByteBuffTools.getLong(toProcess, index + byteShift, bigEndian) >>> bitShift)
+                    | (((long) (toProcess.get(index + byteShift + 8) & 0xFF) << 1) << (63 - bitShift)), bigEndian);
+
+        for (; index < toIndex; index++) {
+            final int source = index + byteShift;
+            final int low = source < toIndex ? toProcess.get(source) & 0xFF : 0;
+            final int high = source + 1 < toIndex ? toProcess.get(source + 1) & 0xFF : 0;
+            toProcess.put(index, (byte) ((low >>> bitShift) | (high << (8 - bitShift))));
+        }
+    }
+
+    private static void clear(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        int index = fromIndex;
+        for (; index < toIndex - 7; index += 8)
+            toProcess.putLong(index, 0);
+        for (; index < toIndex; index++)
+            toProcess.put(index, (byte) 0);
+    }
+}
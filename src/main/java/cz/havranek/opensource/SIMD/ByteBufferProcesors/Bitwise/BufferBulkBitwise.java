@@ -0,0 +1,336 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Performance focused Bitwise operation provider combining two (or three) ByteBuffers of same length byte by byte
+ * it cuts time by checking condition of while (and executing bitwise operation) 1/8 of time compared to common implementation
+ * no memory is allocated during execution
+ * <p>
+ * operands are processed from their current position, it is expected they have same count of remaining bytes
+ * all buffers are read by absolute indexes in their own byte order (longs of operand in other order than processed buffer
+ * are byte swapped), so nothing but positions of buffers is changed and positions are moved only after processing
+ */
+final public class BufferBulkBitwise {
+    private BufferBulkBitwise() {
+    }
+
+    /**
+     * Execute bitwise AND of toProcess and operand and stores result to toProcess
+     * positions of both buffers are moved after processed bytes
+     *
+     * @param toProcess writable non null instance
+     * @param operand   non null instance with same count of remaining bytes as toProcess (different instance than toProcess)
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    public static void AND(ByteBuffer toProcess, ByteBuffer operand) {
+        ByteBuffTools.validateSameRemaining(toProcess, operand);
+        final boolean swap = operand.order() != toProcess.order();
+        final int length = toProcess.remaining();
+        final int index = toProcess.position();
+        final int operandIndex = operand.position();
+        int offset = 0;
+
+        for (; offset < length - 7; offset += 8)
+            toProcess.putLong(index + offset, toProcess.getLong(index + offset) & ByteBuffTools.getLong(operand, operandIndex + offset, swap));
+
+        for (; offset < length; offset++)
+            toProcess.put(index + offset, (byte) (toProcess.get(index + offset) & operand.get(operandIndex + offset)));
+        ByteBuffTools.advance(operand, toProcess, length);
+    }
+
+    /**
+     * Execute bitwise OR of toProcess and operand and stores result to toProcess
+     * positions of both buffers are moved after processed bytes
+     *
+     * @param toProcess writable non null instance
+     * @param operand   non null instance with same count of remaining bytes as toProcess (different instance than toProcess)
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    public static void OR(ByteBuffer toProcess, ByteBuffer operand) {
+        ByteBuffTools.validateSameRemaining(toProcess, operand);
+        final boolean swap = operand.order() != toProcess.order();
+        final int length = toProcess.remaining();
+        final int index = toProcess.position();
+        final int operandIndex = operand.position();
+        int offset = 0;
+
+        for (; offset < length - 7; offset += 8)
+            toProcess.putLong(index + offset, toProcess.getLong(index + offset) | ByteBuffTools.getLong(operand, operandIndex + offset, swap));
+
+        for (; offset < length; offset++)
+            toProcess.put(index + offset, (byte) (toProcess.get(index + offset) | operand.get(operandIndex + offset)));
+        ByteBuffTools.advance(operand, toProcess, length);
+    }
+
+    /**
+     * Execute bitwise XOR of toProcess and operand and stores result to toProcess
+     * positions of both buffers are moved after processed bytes
+     *
+     * @param toProcess writable non null instance
+     * @param operand   non null instance with same count of remaining bytes as toProcess (different instance than toProcess)
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    public static void XOR(ByteBuffer toProcess, ByteBuffer operand) {
+        ByteBuffTools.validateSameRemaining(toProcess, operand);
+        final boolean swap = operand.order() != toProcess.order();
+        final int length = toProcess.remaining();
+        final int index = toProcess.position();
+        final int operandIndex = operand.position();
+        int offset = 0;
+
+        for (; offset < length - 7; offset += 8)
+            toProcess.putLong(index + offset, toProcess.getLong(index + offset) ^ ByteBuffTools.getLong(operand, operandIndex + offset, swap));
+
+        for (; offset < length; offset++)
+            toProcess.put(index + offset, (byte) (toProcess.get(index + offset) ^ operand.get(operandIndex + offset)));
+        ByteBuffTools.advance(operand, toProcess, length);
+    }
+
+    /**
+     * Execute bitwise AND of first and second and stores result to result
+     * positions of all buffers are moved after processed bytes
+     *
+     * @param result writable non null instance
+     * @param first  non null instance with same count of remaining bytes as result (different instance than result)
+     * @param second non null instance with same count of remaining bytes as result (different instance than result, may be first)
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    public static void AND(ByteBuffer result, ByteBuffer first, ByteBuffer second) {
+        ByteBuffTools.validateSameRemaining(result, first);
+        ByteBuffTools.validateSameRemaining(result, second);
+        final boolean swapFirst = first.order() != result.order();
+        final boolean swapSecond = second.order() != result.order();
+        final int length = result.remaining();
+        final int index = result.position();
+        final int firstIndex = first.position();
+        final int secondIndex = second.position();
+        int offset = 0;
+
+        for (; offset < length - 7; offset += 8)
+            result.putLong(index + offset, ByteBuffTools.getLong(first, firstIndex + offset, swapFirst) & ByteBuffTools.getLong(second, secondIndex + offset, swapSecond));
+
+        for (; offset < length; offset++)
+            result.put(index + offset, (byte) (first.get(firstIndex + offset) & second.get(secondIndex + offset)));
+        result.position(index + length);
+        //same instance may be passed as first and second, so positions are set (not moved twice)
+        first.position(firstIndex + length);
+        second.position(secondIndex + length);
+    }
+
+    /**
+     * Execute bitwise OR of first and second and stores result to result
+     * positions of all buffers are moved after processed bytes
+     *
+     * @param result writable non null instance
+     * @param first  non null instance with same count of remaining bytes as result (different instance than result)
+     * @param second non null instance with same count of remaining bytes as result (different instance than result, may be first)
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    public static void OR(ByteBuffer result, ByteBuffer first, ByteBuffer second) {
+        ByteBuffTools.validateSameRemaining(result, first);
+        ByteBuffTools.validateSameRemaining(result, second);
+        final boolean swapFirst = first.order() != result.order();
+        final boolean swapSecond = second.order() != result.order();
+        final int length = result.remaining();
+        final int index = result.position();
+        final int firstIndex = first.position();
+        final int secondIndex = second.position();
+        int offset = 0;
+
+        for (; offset < length - 7; offset += 8)
+            result.putLong(index + offset, ByteBuffTools.getLong(first, firstIndex + offset, swapFirst) | ByteBuffTools.getLong(second, secondIndex + offset, swapSecond));
+
+        for (; offset < length; offset++)
+            result.put(index + offset, (byte) (first.get(firstIndex + offset) | second.get(secondIndex + offset)));
+        result.position(index + length);
+        //same instance may be passed as first and second, so positions are set (not moved twice)
+        first.position(firstIndex + length);
+        second.position(secondIndex + length);
+    }
+
+    /**
+     * Execute bitwise XOR of first and second and stores result to result
+     * positions of all buffers are moved after processed bytes
+     *
+     * @param result writable non null instance
+     * @param first  non null instance with same count of remaining bytes as result (different instance than result)
+     * @param second non null instance with same count of remaining bytes as result (different instance than result, may be first)
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    public static void XOR(ByteBuffer result, ByteBuffer first, ByteBuffer second) {
+        ByteBuffTools.validateSameRemaining(result, first);
+        ByteBuffTools.validateSameRemaining(result, second);
+        final boolean swapFirst = first.order() != result.order();
+        final boolean swapSecond = second.order() != result.order();
+        final int length = result.remaining();
+        final int index = result.position();
+        final int firstIndex = first.position();
+        final int secondIndex = second.position();
+        int offset = 0;
+
+        for (; offset < length - 7; offset += 8)
+            result.putLong(index + offset, ByteBuffTools.getLong(first, firstIndex + offset, swapFirst) ^ ByteBuffTools.getLong(second, secondIndex + offset, swapSecond));
+
+        for (; offset < length; offset++)
+            result.put(index + offset, (byte) (first.get(firstIndex + offset) ^ second.get(secondIndex + offset)));
+        result.position(index + length);
+        //same instance may be passed as first and second, so positions are set (not moved twice)
+        first.position(firstIndex + length);
+        second.position(secondIndex + length);
+    }
+
+    /**
+     * Execute bitwise AND of toProcess and negated operand (toProcess & ~operand) and stores result to toProcess in one pass
+     * positions of both buffers are moved after processed bytes
+     *
+     * @param toProcess writable non null instance
+     * @param operand   non null instance with same count of remaining bytes as toProcess (different instance than toProcess)
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    public static void ANDNOT(ByteBuffer toProcess, ByteBuffer operand) {
+        ByteBuffTools.validateSameRemaining(toProcess, operand);
+        final boolean swap = operand.order() != toProcess.order();
+        final int length = toProcess.remaining();
+        final int index = toProcess.position();
+        final int operandIndex = operand.position();
+        int offset = 0;
+
+        for (; offset < length - 7; offset += 8)
+            toProcess.putLong(index + offset, toProcess.getLong(index + offset) & ~ByteBuffTools.getLong(operand, operandIndex + offset, swap));
+
+        for (; offset < length; offset++)
+            toProcess.put(index + offset, (byte) (toProcess.get(index + offset) & ~operand.get(operandIndex + offset)));
+        ByteBuffTools.advance(operand, toProcess, length);
+    }
+
+    /**
+     * Execute bitwise OR of toProcess and negated operand (toProcess | ~operand) and stores result to toProcess in one pass
+     * positions of both buffers are moved after processed bytes
+     *
+     * @param toProcess writable non null instance
+     * @param operand   non null instance with same count of remaining bytes as toProcess (different instance than toProcess)
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    public static void ORNOT(ByteBuffer toProcess, ByteBuffer operand) {
+        ByteBuffTools.validateSameRemaining(toProcess, operand);
+        final boolean swap = operand.order() != toProcess.order();
+        final int length = toProcess.remaining();
+        final int index = toProcess.position();
+        final int operandIndex = operand.position();
+        int offset = 0;
+
+        for (; offset < length - 7; offset += 8)
+            toProcess.putLong(index + offset, toProcess.getLong(index + offset) | ~ByteBuffTools.getLong(operand, operandIndex + offset, swap));
+
+        for (; offset < length; offset++)
+            toProcess.put(index + offset, (byte) (toProcess.get(index + offset) | ~operand.get(operandIndex + offset)));
+        ByteBuffTools.advance(operand, toProcess, length);
+    }
+
+    /**
+     * Execute bitwise NAND of toProcess and operand and stores result to toProcess in one pass
+     * positions of both buffers are moved after processed bytes
+     *
+     * @param toProcess writable non null instance
+     * @param operand   non null instance with same count of remaining bytes as toProcess (different instance than toProcess)
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    public static void NAND(ByteBuffer toProcess, ByteBuffer operand) {
+        ByteBuffTools.validateSameRemaining(toProcess, operand);
+        final boolean swap = operand.order() != toProcess.order();
+        final int length = toProcess.remaining();
+        final int index = toProcess.position();
+        final int operandIndex = operand.position();
+        int offset = 0;
+
+        for (; offset < length - 7; offset += 8)
+            toProcess.putLong(index + offset, ~(toProcess.getLong(index + offset) & ByteBuffTools.getLong(operand, operandIndex + offset, swap)));
+
+        for (; offset < length; offset++)
+            toProcess.put(index + offset, (byte) ~(toProcess.get(index + offset) & operand.get(operandIndex + offset)));
+        ByteBuffTools.advance(operand, toProcess, length);
+    }
+
+    /**
+     * Execute bitwise NOR of toProcess and operand and stores result to toProcess in one pass
+     * positions of both buffers are moved after processed bytes
+     *
+     * @param toProcess writable non null instance
+     * @param operand   non null instance with same count of remaining bytes as toProcess (different instance than toProcess)
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    public static void NOR(ByteBuffer toProcess, ByteBuffer operand) {
+        ByteBuffTools.validateSameRemaining(toProcess, operand);
+        final boolean swap = operand.order() != toProcess.order();
+        final int length = toProcess.remaining();
+        final int index = toProcess.position();
+        final int operandIndex = operand.position();
+        int offset = 0;
+
+        for (; offset < length - 7; offset += 8)
+            toProcess.putLong(index + offset, ~(toProcess.getLong(index + offset) | ByteBuffTools.getLong(operand, operandIndex + offset, swap)));
+
+        for (; offset < length; offset++)
+            toProcess.put(index + offset, (byte) ~(toProcess.get(index + offset) | operand.get(operandIndex + offset)));
+        ByteBuffTools.advance(operand, toProcess, length);
+    }
+
+    /**
+     * Execute bitwise XNOR of toProcess and operand and stores result to toProcess in one pass
+     * positions of both buffers are moved after processed bytes
+     *
+     * @param toProcess writable non null instance
+     * @param operand   non null instance with same count of remaining bytes as toProcess (different instance than toProcess)
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    public static void XNOR(ByteBuffer toProcess, ByteBuffer operand) {
+        ByteBuffTools.validateSameRemaining(toProcess, operand);
+        final boolean swap = operand.order() != toProcess.order();
+        final int length = toProcess.remaining();
+        final int index = toProcess.position();
+        final int operandIndex = operand.position();
+        int offset = 0;
+
+        for (; offset < length - 7; offset += 8)
+            toProcess.putLong(index + offset, ~(toProcess.getLong(index + offset) ^ ByteBuffTools.getLong(operand, operandIndex + offset, swap)));
+
+        for (; offset < length; offset++)
+            toProcess.put(index + offset, (byte) ~(toProcess.get(index + offset) ^ operand.get(operandIndex + offset)));
+        ByteBuffTools.advance(operand, toProcess, length);
+    }
+
+    /**
+     * Replaces bits of toProcess selected by mask with bits of operand ((toProcess & ~mask) | (operand & mask)) in one pass
+     * positions of all buffers are moved after processed bytes
+     *
+     * @param toProcess writable non null instance
+     * @param operand   non null instance with same count of remaining bytes as toProcess (different instance than toProcess)
+     * @param mask      non null instance with same count of remaining bytes as toProcess (bit 1 selects operand)
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    public static void BLEND(ByteBuffer toProcess, ByteBuffer operand, ByteBuffer mask) {
+        ByteBuffTools.validateSameRemaining(toProcess, operand);
+        ByteBuffTools.validateSameRemaining(toProcess, mask);
+        final boolean swapOperand = operand.order() != toProcess.order();
+        final boolean swapMask = mask.order() != toProcess.order();
+        final int length = toProcess.remaining();
+        final int index = toProcess.position();
+        final int operandIndex = operand.position();
+        final int maskIndex = mask.position();
+        int offset = 0;
+
+        for (; offset < length - 7; offset += 8) {
+            final long selected = ByteBuffTools.getLong(mask, maskIndex + offset, swapMask);
+            toProcess.putLong(index + offset, (toProcess.getLong(index + offset) & ~selected) | (ByteBuffTools.getLong(operand, operandIndex + offset, swapOperand) & selected));
+        }
+
+        for (; offset < length; offset++) {
+            final byte selected = mask.get(maskIndex + offset);
+            toProcess.put(index + offset, (byte) ((toProcess.get(index + offset) & ~selected) | (operand.get(operandIndex + offset) & selected)));
+        }
+        toProcess.position(index + length);
+        operand.position(operandIndex + length);
+        mask.position(maskIndex + length);
+    }
+}
@@ -0,0 +1,271 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reductions over range of buffer (count of set bits, parity and searching of set bits)
+ * processed by whole longs with Long.bitCount, Long.numberOfTrailingZeros and Long.numberOfLeadingZeros,
+ * bytes which can't be processed as long are processed one by one
+ * <p>
+ * bits are numbered as in java.util.BitSet.valueOf(ByteBuffer): bit k is bit (k % 8) of byte k / 8 of buffer (index 0 of buffer, not position),
+ * searching methods take longs as little endian (longs of big endian buffer are byte swapped), byte order of buffer is never changed
+ * <p>
+ * fused variants (andPopcount...) count bits of result of operation without writing it back so only one pass over memory is done
+ * nothing is written to buffers, position and limit are untouched
+ * is thread save if nothing else is modifying(reading data) of buffer
+ */
+final public class BulkBitReductions {
+    private BulkBitReductions() {
+    }
+
+    /**
+     * @param toProcess non null instance
+     * @return count of set bits from position to limit
+     */
+    public static long popcount(final ByteBuffer toProcess) {
+        return popcount(toProcess, toProcess.position(), toProcess.limit());
+    }
+
+    /**
+     * @param toProcess non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @return count of set bits of range
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public static long popcount(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        int index = fromIndex;
+        long count = 0;
+
+        for (; index < lastLongIndex; index += 8)
+            count += Long.bitCount(toProcess.getLong(index));
+
+        for (; index < toIndex; index++)
+            count += Integer.bitCount(toProcess.get(index) & 0xFF);
+        return count;
+    }
+
+    /**
+     * @param toProcess non null instance
+     * @return true if count of set bits from position to limit is odd
+     */
+    public static boolean parity(final ByteBuffer toProcess) {
+        return parity(toProcess, toProcess.position(), toProcess.limit());
+    }
+
+    /**
+     * @param toProcess non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @return true if count of set bits of range is odd
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public static boolean parity(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        int index = fromIndex;
+        //parity of xor of all words is parity of whole range
+        long folded = 0;
+
+        for (; index < lastLongIndex; index += 8)
+            folded ^= toProcess.getLong(index);
+
+        for (; index < toIndex; index++)
+            folded ^= toProcess.get(index) & 0xFF;
+        return (Long.bitCount(folded) & 1) == 1;
+    }
+
+    /**
+     * @param toProcess non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @return index of lowest set bit of range (counted from index 0 of buffer) or -1 if there is none
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public static long firstSetBit(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final boolean bigEndian = toProcess.order() == ByteOrder.BIG_ENDIAN;
+        final int lastLongIndex = toIndex - 7;
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8) {
+            final long word = ByteBuffTools.getLong(toProcess, index, bigEndian);
+            if (word != 0)
+                return index * 8L + Long.numberOfTrailingZeros(word);
+        }
+
+        for (; index < toIndex; index++) {
+            final int value = toProcess.get(index) & 0xFF;
+            if (value != 0)
+                return index * 8L + Integer.numberOfTrailingZeros(value);
+        }
+        return -1;
+    }
+
+    /**
+     * @param toProcess non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @return index of highest set bit of range (counted from index 0 of buffer) or -1 if there is none
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public static long lastSetBit(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final boolean bigEndian = toProcess.order() == ByteOrder.BIG_ENDIAN;
+        int index = toIndex - 8;
+
+        for (; index >= fromIndex; index -= 8) {
+            final long word = ByteBuffTools.getLong(toProcess, index, bigEndian);
+            if (word != 0)
+                return index * 8L + 63 - Long.numberOfLeadingZeros(word);
+        }
+
+        for (index += 7; index >= fromIndex; index--) {
+            final int value = toProcess.get(index) & 0xFF;
+            if (value != 0)
+                return index * 8L + 31 - Integer.numberOfLeadingZeros(value);
+        }
+        return -1;
+    }
+
+    /**
+     * @param toProcess non null instance
+     * @param fromBit   index of first bit to check (counted from index 0 of buffer)
+     * @return index of lowest set bit from fromBit to limit or -1 if there is none
+     * @throws IndexOutOfBoundsException if fromBit is negative
+     */
+    public static long nextSetBit(final ByteBuffer toProcess, final long fromBit) {
+        if (fromBit < 0)
+            throw new IndexOutOfBoundsException("fromBit (" + fromBit + ") is negative");
+        final int limit = toProcess.limit();
+        if (fromBit >= limit * 8L)
+            return -1;
+        final int fromIndex = (int) (fromBit >>> 3);
+        //bits under fromBit in its byte are masked out
+        final int first = (toProcess.get(fromIndex) & 0xFF) >>> (fromBit & 7);
+        if (first != 0)
+            return fromBit + Integer.numberOfTrailingZeros(first);
+        return firstSetBit(toProcess, fromIndex + 1, limit);
+    }
+
+    /**
+     * Counts set bits of first AND second from positions to limits of both buffers
+     *
+     * @param first  non null instance
+     * @param second non null instance
+     * @return count of set bits of result
+     * @throws IllegalBufferLengthException if buffers have different count of remaining bytes
+     */
+    public static long andPopcount(final ByteBuffer first, final ByteBuffer second) {
+        ByteBuffTools.validateSameRemaining(first, second);
+        final int length = first.remaining();
+        final int firstOffset = first.position();
+        final int secondOffset = second.position();
+        int index = 0;
+        long count = 0;
+
+        for (; index < length - 7; index += 8)
+            count += Long.bitCount(first.getLong(firstOffset + index) & second.getLong(secondOffset + index));
+
+        for (; index < length; index++)
+            count += Integer.bitCount((first.get(firstOffset + index) & second.get(secondOffset + index)) & 0xFF);
+        return count;
+    }
+
+    /**
+     * Counts set bits of first OR second from positions to limits of both buffers
+     *
+     * @param first  non null instance
+     * @param second non null instance
+     * @return count of set bits of result
+     * @throws IllegalBufferLengthException if buffers have different count of remaining bytes
+     */
+    public static long orPopcount(final ByteBuffer first, final ByteBuffer second) {
+        ByteBuffTools.validateSameRemaining(first, second);
+        final int length = first.remaining();
+        final int firstOffset = first.position();
+        final int secondOffset = second.position();
+        int index = 0;
+        long count = 0;
+
+        for (; index < length - 7; index += 8)
+            count += Long.bitCount(first.getLong(firstOffset + index) | second.getLong(secondOffset + index));
+
+        for (; index < length; index++)
+            count += Integer.bitCount((first.get(firstOffset + index) | second.get(secondOffset + index)) & 0xFF);
+        return count;
+    }
+
+    /**
+     * Counts set bits of first XOR second (hamming distance) from positions to limits of both buffers
+     *
+     * @param first  non null instance
+     * @param second non null instance
+     * @return count of set bits of result
+     * @throws IllegalBufferLengthException if buffers have different count of remaining bytes
+     */
+    public static long xorPopcount(final ByteBuffer first, final ByteBuffer second) {
+        ByteBuffTools.validateSameRemaining(first, second);
+        final int length = first.remaining();
+        final int firstOffset = first.position();
+        final int secondOffset = second.position();
+        int index = 0;
+        long count = 0;
+
+        for (; index < length - 7; index += 8)
+            count += Long.bitCount(first.getLong(firstOffset + index) ^ second.getLong(secondOffset + index));
+
+        for (; index < length; index++)
+            count += Integer.bitCount((first.get(firstOffset + index) ^ second.get(secondOffset + index)) & 0xFF);
+        return count;
+    }
+
+    /**
+     * Counts set bits of elements AND constant from position to limit
+     * bytes of incomplete element at end are not counted
+     *
+     * @param toProcess non null instance
+     * @param lane      width of elements
+     * @param constant  constant to use... it is highly recommended to input it in 0b101010 form
+     * @return count of set bits of result
+     * @throws IllegalArgumentException if argument can't be mapped to lane
+     */
+    public static long andPopcount(final ByteBuffer toProcess, final Lane lane, final int constant) {
+        return andPopcount(toProcess, toProcess.position(), toProcess.limit(), lane, constant);
+    }
+
+    /**
+     * Counts set bits of elements AND constant from fromIndex to toIndex
+     * bytes of incomplete element at end are not counted
+     *
+     * @param toProcess non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @param lane      width of elements
+     * @param constant  constant to use... it is highly recommended to input it in 0b101010 form
+     * @return count of set bits of result
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     * @throws IllegalArgumentException  if argument can't be mapped to lane
+     */
+    public static long andPopcount(final ByteBuffer toProcess, final int fromIndex, final int toIndex, final Lane lane, final int constant) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final long filter = lane.packedFilter(constant);
+        final int end = toIndex - (toIndex - fromIndex) % lane.bytes();
+        final int lastLongIndex = end - 7;
+        int index = fromIndex;
+        long count = 0;
+
+        //elements are aligned to long (counted from fromIndex) and filter has same bits in every element, so byte order does not matter
+        for (; index < lastLongIndex; index += 8)
+            count += Long.bitCount(toProcess.getLong(index) & filter);
+
+        //rest is less than long, so bytes of filter are taken in byte order of buffer
+        final boolean bigEndian = toProcess.order() == ByteOrder.BIG_ENDIAN;
+        for (int shift = bigEndian ? 56 : 0; index < end; index++, shift += bigEndian ? -8 : 8)
+            count += Integer.bitCount((int) (toProcess.get(index) & (filter >>> shift) & 0xFF));
+        return count;
+    }
+}
@@ -0,0 +1,269 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Provides processors of the best backend available in running VM
+ * vector backend (jdk.incubator.vector) is used when VM is started with --add-modules jdk.incubator.vector
+ * and its vector API still has ByteBuffer access (java 16 to 19)
+ * on other VMs (java 8 included) scalar processors (ByteBulkBitwise, ShortBulkBitwise, IntBulkBitwise, LongBulkBitwise) are used
+ * off-heap backend (UnsafeBulkBitwise) is never default, it has to be requested explicitly
+ */
+final public class BulkBitwiseFactory {
+    public enum Backend {
+        /**
+         * long main loop of ByteBulkBitwise, ShortBulkBitwise, IntBulkBitwise and LongBulkBitwise
+         */
+        SCALAR,
+        /**
+         * VectorBulkBitwise processing whole preferred vector species in one iteration
+         */
+        VECTOR,
+        /**
+         * UnsafeBulkBitwise processing direct and mapped buffers by raw loads and stores (other buffers are processed by scalar processors)
+         */
+        UNSAFE
+    }
+
+    private static final String VECTOR_CLASS = "cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise.VectorBulkBitwise";
+    private static final Constructor<?> VECTOR_CONSTRUCTOR;
+    private static final Method VECTOR_NOT;
+    private static final Method VECTOR_RANGE_NOT;
+    private static final Method VECTOR_TRANSFER_NOT;
+
+    static {
+        Constructor<?> constructor = null;
+        Method not = null;
+        Method rangeNot = null;
+        Method transferNot = null;
+        try {
+            final Class<?> byteVector = Class.forName("jdk.incubator.vector.ByteVector");
+            //buffer access of vector backend was removed from vector API in java 20, vector backend can't run without it
+            byteVector.getMethod("fromByteBuffer", Class.forName("jdk.incubator.vector.VectorSpecies"), ByteBuffer.class, int.class, ByteOrder.class);
+            byteVector.getMethod("intoByteBuffer", ByteBuffer.class, int.class, ByteOrder.class);
+            final Class<?> vectorClass = Class.forName(VECTOR_CLASS);
+            constructor = vectorClass.getConstructor(Lane.class, int.class);
+            not = vectorClass.getMethod("NOT", Lane.class);
+            rangeNot = vectorClass.getMethod("rangeNOT", Lane.class);
+            transferNot = vectorClass.getMethod("transferNOT", Lane.class);
+        } catch (ClassNotFoundException | NoSuchMethodException | LinkageError ignored) {
+            //vector API or vector backend is not present, scalar backend is used
+            constructor = null;
+            not = null;
+            rangeNot = null;
+            transferNot = null;
+        }
+        VECTOR_CONSTRUCTOR = constructor;
+        VECTOR_NOT = not;
+        VECTOR_RANGE_NOT = rangeNot;
+        VECTOR_TRANSFER_NOT = transferNot;
+    }
+
+    private BulkBitwiseFactory() {
+    }
+
+    /**
+     * @param backend non null instance
+     * @return true if backend can be used in running VM
+     */
+    public static boolean isAvailable(final Backend backend) {
+        switch (backend) {
+            case VECTOR:
+                return VECTOR_CONSTRUCTOR != null;
+            case UNSAFE:
+                return UnsafeAccess.isAvailable();
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * @return vector backend if available, scalar otherwise
+     */
+    public static Backend defaultBackend() {
+        return isAvailable(Backend.VECTOR) ? Backend.VECTOR : Backend.SCALAR;
+    }
+
+    /**
+     * Construct processor of default backend
+     *
+     * @param lane     width of elements to process
+     * @param constant constant to use... it is highly recommended to input it in 0b101010 form
+     * @return processor
+     * @throws IllegalArgumentException if argument can't be mapped to lane
+     */
+    public static BulkBitwiseI create(final Lane lane, final int constant) {
+        return create(defaultBackend(), lane, constant);
+    }
+
+    /**
+     * Construct processor of given backend
+     *
+     * @param backend  backend to use
+     * @param lane     width of elements to process
+     * @param constant constant to use... it is highly recommended to input it in 0b101010 form
+     * @return processor
+     * @throws IllegalArgumentException      if argument can't be mapped to lane
+     * @throws UnsupportedOperationException if backend is not available
+     */
+    public static BulkBitwiseI create(final Backend backend, final Lane lane, final int constant) {
+        if (backend == Backend.VECTOR)
+            return (BulkBitwiseI) invokeVector(VECTOR_CONSTRUCTOR, lane, constant);
+        if (backend == Backend.UNSAFE)
+            return new UnsafeBulkBitwise(checkUnsafe(lane), constant);
+        switch (lane) {
+            case BYTE:
+                return new ByteBulkBitwise(constant);
+            case SHORT:
+                return new ShortBulkBitwise(constant);
+            case INT:
+                return new IntBulkBitwise(constant);
+            default:
+                return new LongBulkBitwise(lane.packedFilter(constant));
+        }
+    }
+
+    /**
+     * Provides NOT operation of default backend
+     *
+     * @param lane width of elements to process
+     * @return NOT operation
+     */
+    public static Consumer<ByteBuffer> NOT(final Lane lane) {
+        return NOT(defaultBackend(), lane);
+    }
+
+    /**
+     * Provides NOT operation of given backend
+     *
+     * @param backend backend to use
+     * @param lane    width of elements to process
+     * @return NOT operation
+     * @throws UnsupportedOperationException if backend is not available
+     */
+    @SuppressWarnings("unchecked")
+    public static Consumer<ByteBuffer> NOT(final Backend backend, final Lane lane) {
+        if (backend == Backend.VECTOR)
+            return (Consumer<ByteBuffer>) invokeVector(VECTOR_NOT, lane);
+        if (backend == Backend.UNSAFE) {
+            final Lane unsafeLane = checkUnsafe(lane);
+            return toProcess -> {
+                UnsafeBulkBitwise.NOT(toProcess, toProcess.position(), toProcess.limit(), unsafeLane);
+                toProcess.position(toProcess.limit());
+            };
+        }
+        switch (lane) {
+            case BYTE:
+                return ByteBulkBitwise::NOT;
+            case SHORT:
+                return ShortBulkBitwise::NOT;
+            case INT:
+                return IntBulkBitwise::NOT;
+            default:
+                return LongBulkBitwise::NOT;
+        }
+    }
+
+    /**
+     * Provides NOT operation working on range of default backend
+     *
+     * @param lane width of elements to process
+     * @return NOT operation
+     */
+    public static BulkRangeOperation rangeNOT(final Lane lane) {
+        return rangeNOT(defaultBackend(), lane);
+    }
+
+    /**
+     * Provides NOT operation working on range of given backend
+     *
+     * @param backend backend to use
+     * @param lane    width of elements to process
+     * @return NOT operation
+     * @throws UnsupportedOperationException if backend is not available
+     */
+    public static BulkRangeOperation rangeNOT(final Backend backend, final Lane lane) {
+        if (backend == Backend.VECTOR)
+            return (BulkRangeOperation) invokeVector(VECTOR_RANGE_NOT, lane);
+        if (backend == Backend.UNSAFE) {
+            final Lane unsafeLane = checkUnsafe(lane);
+            return (toProcess, fromIndex, toIndex) -> UnsafeBulkBitwise.NOT(toProcess, fromIndex, toIndex, unsafeLane);
+        }
+        switch (lane) {
+            case BYTE:
+                return ByteBulkBitwise::NOT;
+            case SHORT:
+                return ShortBulkBitwise::NOT;
+            case INT:
+                return IntBulkBitwise::NOT;
+            default:
+                return LongBulkBitwise::NOT;
+        }
+    }
+
+    /**
+     * Provides out of place NOT operation (source to target) of default backend
+     *
+     * @param lane width of elements to process
+     * @return NOT operation
+     */
+    public static BiConsumer<ByteBuffer, ByteBuffer> transferNOT(final Lane lane) {
+        return transferNOT(defaultBackend(), lane);
+    }
+
+    /**
+     * Provides out of place NOT operation (source to target) of given backend
+     *
+     * @param backend backend to use
+     * @param lane    width of elements to process
+     * @return NOT operation
+     * @throws UnsupportedOperationException if backend is not available
+     */
+    @SuppressWarnings("unchecked")
+    public static BiConsumer<ByteBuffer, ByteBuffer> transferNOT(final Backend backend, final Lane lane) {
+        if (backend == Backend.VECTOR)
+            return (BiConsumer<ByteBuffer, ByteBuffer>) invokeVector(VECTOR_TRANSFER_NOT, lane);
+        if (backend == Backend.UNSAFE) {
+            final Lane unsafeLane = checkUnsafe(lane);
+            return (source, target) -> UnsafeBulkBitwise.NOT(source, target, unsafeLane);
+        }
+        switch (lane) {
+            case BYTE:
+                return ByteBulkBitwise::NOT;
+            case SHORT:
+                return ShortBulkBitwise::NOT;
+            case INT:
+                return IntBulkBitwise::NOT;
+            default:
+                return LongBulkBitwise::NOT;
+        }
+    }
+
+    private static Lane checkUnsafe(final Lane lane) {
+        if (!UnsafeAccess.isAvailable())
+            throw new UnsupportedOperationException("Unsafe backend is not available, sun.misc.Unsafe is not accessible");
+        return lane;
+    }
+
+    private static Object invokeVector(final Object constructorOrMethod, final Object... args) {
+        if (constructorOrMethod == null)
+            throw new UnsupportedOperationException("Vector backend is not available, start VM with --add-modules jdk.incubator.vector");
+        try {
+            if (constructorOrMethod instanceof Constructor)
+                return ((Constructor<?>) constructorOrMethod).newInstance(args);
+            return ((Method) constructorOrMethod).invoke(null, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -6,11 +6,45 @@ import java.nio.ByteBuffer;
  * Defines interface for classes implementing in-sito fast bulk binary transformation of ByteBuffers of arbitrary (sometimes nonzero) length
  * aims at classes that speeds up binary translation of ByteBuffers by means of SIMD operations and it limits casting
  * it cuts  time by checking condition of while less time than common implementations (and limit casting where possible
+ * <p>
+ * methods with fromIndex and toIndex use only absolute indexes, position and limit of buffer are untouched
+ * <p>
+ * methods with source and target are out of place variants, they read source from position to limit and write result to target from its position
+ * in one pass (instead of target.put(source) followed by operation on target), positions of both buffers are moved by count of bytes of source,
+ * bytes of incomplete element at end are copied untouched, elements are processed in byte order of target,
+ * source may be read only and heap and direct buffers can be mixed, buffers must not share memory
  */
 public interface BulkBitwiseI {
-    //all classes are expected to have static NOT
+    //all classes are expected to have static NOT (and NOT with fromIndex and toIndex, and NOT with source and target)
 
     void AND(final ByteBuffer toProcess);
     void OR(final ByteBuffer toProcess);
     void XOR(final ByteBuffer toProcess);
+
+    //range and out of place variants fall back to relative operations on duplicate (out of place ones copy source first, so they make two passes),
+    //processors of this package override them
+    default void AND(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        AND(ByteBuffTools.rangeView(toProcess, fromIndex, toIndex));
+    }
+
+    default void OR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        OR(ByteBuffTools.rangeView(toProcess, fromIndex, toIndex));
+    }
+
+    default void XOR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        XOR(ByteBuffTools.rangeView(toProcess, fromIndex, toIndex));
+    }
+
+    //out of place variants throw BufferOverflowException if target has less bytes remaining than source
+    default void AND(final ByteBuffer source, final ByteBuffer target) {
+        AND(ByteBuffTools.copiedView(source, target));
+    }
+
+    default void OR(final ByteBuffer source, final ByteBuffer target) {
+        OR(ByteBuffTools.copiedView(source, target));
+    }
+
+    default void XOR(final ByteBuffer source, final ByteBuffer target) {
+        XOR(ByteBuffTools.copiedView(source, target));
+    }
 }
@@ -0,0 +1,165 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of calls, processed bytes and latency of operations recorded by InstrumentedBulkBitwise
+ * counters are LongAdders so concurrent callers don't contend, latency is kept in histogram of powers of 2 nanoseconds
+ * (bucket i counts calls which took from 2^i to 2^(i+1) - 1 ns, bucket 0 also counts calls shorter than 1 ns)
+ * <p>
+ * values are read by {@link #statistics(Operation)} (plain snapshot) or over JMX after {@link #register(String)}
+ * snapshot is not atomic, counters of concurrently recorded call may be seen partially
+ */
+final public class BulkBitwiseMetrics implements BulkBitwiseMetricsMXBean {
+    public enum Operation {
+        AND, OR, XOR, NOT
+    }
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] calls = new LongAdder[Operation.values().length];
+    private final LongAdder[] bytes = new LongAdder[Operation.values().length];
+    private final LongAdder[] nanos = new LongAdder[Operation.values().length];
+    private final LongAdder[][] histograms = new LongAdder[Operation.values().length][BUCKETS];
+
+    public BulkBitwiseMetrics() {
+        for (int operation = 0; operation < calls.length; operation++) {
+            calls[operation] = new LongAdder();
+            bytes[operation] = new LongAdder();
+            nanos[operation] = new LongAdder();
+            for (int bucket = 0; bucket < BUCKETS; bucket++)
+                histograms[operation][bucket] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one finished call
+     *
+     * @param operation      executed operation
+     * @param processedBytes count of bytes of processed range
+     * @param elapsedNanos   duration of call
+     */
+    void record(final Operation operation, final long processedBytes, final long elapsedNanos) {
+        final int index = operation.ordinal();
+        calls[index].increment();
+        bytes[index].add(processedBytes);
+        nanos[index].add(elapsedNanos);
+        histograms[index][elapsedNanos <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(elapsedNanos)].increment();
+    }
+
+    /**
+     * @param operation operation to read counters of
+     * @return snapshot of counters of operation
+     */
+    public Statistics statistics(final Operation operation) {
+        final int index = operation.ordinal();
+        final long[] histogram = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+            histogram[bucket] = histograms[index][bucket].sum();
+        return new Statistics(calls[index].sum(), bytes[index].sum(), nanos[index].sum(), histogram);
+    }
+
+    @Override
+    public Statistics getAND() {
+        return statistics(Operation.AND);
+    }
+
+    @Override
+    public Statistics getOR() {
+        return statistics(Operation.OR);
+    }
+
+    @Override
+    public Statistics getXOR() {
+        return statistics(Operation.XOR);
+    }
+
+    @Override
+    public Statistics getNOT() {
+        return statistics(Operation.NOT);
+    }
+
+    @Override
+    public void reset() {
+        for (int operation = 0; operation < calls.length; operation++) {
+            calls[operation].reset();
+            bytes[operation].reset();
+            nanos[operation].reset();
+            for (final LongAdder bucket : histograms[operation])
+                bucket.reset();
+        }
+    }
+
+    /**
+     * Registers metrics to platform MBean server
+     *
+     * @param name value of name key of object name
+     * @return object name metrics are registered under (use it to unregister them)
+     * @throws JMException if name is invalid or already registered
+     */
+    public ObjectName register(final String name) throws JMException {
+        final ObjectName objectName = new ObjectName("cz.havranek.opensource.SIMD:type=BulkBitwiseMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Immutable snapshot of counters of one operation
+     */
+    public static final class Statistics {
+        private final long calls;
+        private final long bytes;
+        private final long nanos;
+        private final long[] latencyHistogram;
+
+        Statistics(final long calls, final long bytes, final long nanos, final long[] latencyHistogram) {
+            this.calls = calls;
+            this.bytes = bytes;
+            this.nanos = nanos;
+            this.latencyHistogram = latencyHistogram;
+        }
+
+        /**
+         * @return count of finished calls
+         */
+        public long getCalls() {
+            return calls;
+        }
+
+        /**
+         * @return count of processed bytes
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return total time spent in calls in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * @return processed bytes per nanosecond (GB/s), 0 if nothing was measured
+         */
+        public double getThroughput() {
+            return nanos == 0 ? 0 : (double) bytes / nanos;
+        }
+
+        /**
+         * @return count of calls in every bucket (index i counts calls which took from 2^i to 2^(i+1) - 1 ns)
+         */
+        public long[] getLatencyHistogram() {
+            return latencyHistogram.clone();
+        }
+
+        @Override
+        public String toString() {
+            return "calls=" + calls + ", bytes=" + bytes + ", nanos=" + nanos + ", throughput=" + getThroughput() + " GB/s";
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+/**
+ * JMX view of BulkBitwiseMetrics, statistics are exposed as composite data of every operation
+ */
+public interface BulkBitwiseMetricsMXBean {
+    BulkBitwiseMetrics.Statistics getAND();
+
+    BulkBitwiseMetrics.Statistics getOR();
+
+    BulkBitwiseMetrics.Statistics getXOR();
+
+    BulkBitwiseMetrics.Statistics getNOT();
+
+    /**
+     * sets all counters to zero
+     */
+    void reset();
+}
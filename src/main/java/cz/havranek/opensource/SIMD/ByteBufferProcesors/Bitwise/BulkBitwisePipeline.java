@@ -0,0 +1,252 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Sequence of bitwise steps fused to one pass over memory, every long is loaded once, all steps are applied to it and it is stored once
+ * (chain of n separate processors streams buffer through memory n times)
+ * <p>
+ * steps are AND, OR, XOR with constant of lane (replicated same way as LONG_FILTER of processors), NOT and AND, OR, XOR with operand buffer
+ * operand buffer is combined at same indexes as processed buffer (byte i of processed range with byte i of operand) in byte order of processed buffer
+ * range is processed in whole elements of widest lane of constant steps, bytes of incomplete element at end are untouched
+ * <p>
+ * pipeline is immutable and can be executed in parallel (for example by ParallelBulkBitwise.execute) on disjoint ranges
+ * use {@link #builder()} to construct it
+ */
+final public class BulkBitwisePipeline implements BulkRangeOperation {
+    private static final int AND_CONSTANT = 0;
+    private static final int OR_CONSTANT = 1;
+    private static final int XOR_CONSTANT = 2;
+    private static final int NOT = 3;
+    private static final int AND_BUFFER = 4;
+    private static final int OR_BUFFER = 5;
+    private static final int XOR_BUFFER = 6;
+
+    private final int[] opcodes;
+    private final long[] filters;
+    private final ByteBuffer[] bigEndianOperands;
+    private final ByteBuffer[] littleEndianOperands;
+    private final int granularity;
+
+    private BulkBitwisePipeline(final Builder builder) {
+        opcodes = Arrays.copyOf(builder.opcodes, builder.steps);
+        filters = Arrays.copyOf(builder.filters, builder.steps);
+        bigEndianOperands = new ByteBuffer[builder.steps];
+        littleEndianOperands = new ByteBuffer[builder.steps];
+        for (int step = 0; step < builder.steps; step++) {
+            final ByteBuffer operand = builder.operands[step];
+            if (operand != null) {
+                //views of both orders so operands are never reordered during execution
+                bigEndianOperands[step] = operand.duplicate().order(ByteOrder.BIG_ENDIAN);
+                littleEndianOperands[step] = operand.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        granularity = builder.granularity;
+    }
+
+    /**
+     * @return new empty builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Execute all steps on All elements from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     * @throws IndexOutOfBoundsException if operand buffer does not cover range
+     */
+    public void apply(final ByteBuffer toProcess) {
+        apply(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute all steps on All elements from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer or operand buffer does not cover range
+     */
+    @Override
+    public void apply(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final boolean bigEndian = toProcess.order() == ByteOrder.BIG_ENDIAN;
+        final ByteBuffer[] operands = bigEndian ? bigEndianOperands : littleEndianOperands;
+        for (final ByteBuffer operand : operands)
+            if (operand != null)
+                ByteBuffTools.validateRange(operand, fromIndex, toIndex);
+        final int end = toIndex - (toIndex - fromIndex) % granularity;
+        final int lastLongIndex = end - 7;
+        final int steps = opcodes.length;
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8) {
+            long word = toProcess.getLong(index);
+            for (int step = 0; step < steps; step++) {
+                switch (opcodes[step]) {
+                    case AND_CONSTANT:
+                        word &= filters[step];
+                        break;
+                    case OR_CONSTANT:
+                        word |= filters[step];
+                        break;
+                    case XOR_CONSTANT:
+                        word ^= filters[step];
+                        break;
+                    case NOT:
+                        word = ~word;
+                        break;
+                    case AND_BUFFER:
+                        word &= operands[step].getLong(index);
+                        break;
+                    case OR_BUFFER:
+                        word |= operands[step].getLong(index);
+                        break;
+                    default:
+                        word ^= operands[step].getLong(index);
+                }
+            }
+            toProcess.putLong(index, word);
+        }
+
+        //rest is less than long, so bytes of filters are taken in byte order of buffer
+        for (int shift = bigEndian ? 56 : 0; index < end; index++, shift += bigEndian ? -8 : 8) {
+            int value = toProcess.get(index);
+            for (int step = 0; step < steps; step++) {
+                switch (opcodes[step]) {
+                    case AND_CONSTANT:
+                        value &= (int) (filters[step] >>> shift);
+                        break;
+                    case OR_CONSTANT:
+                        value |= (int) (filters[step] >>> shift);
+                        break;
+                    case XOR_CONSTANT:
+                        value ^= (int) (filters[step] >>> shift);
+                        break;
+                    case NOT:
+                        value = ~value;
+                        break;
+                    case AND_BUFFER:
+                        value &= operands[step].get(index);
+                        break;
+                    case OR_BUFFER:
+                        value |= operands[step].get(index);
+                        break;
+                    default:
+                        value ^= operands[step].get(index);
+                }
+            }
+            toProcess.put(index, (byte) value);
+        }
+    }
+
+    /**
+     * Collects steps of pipeline in order of execution, not thread save
+     */
+    public static final class Builder {
+        private int[] opcodes = new int[4];
+        private long[] filters = new long[4];
+        private ByteBuffer[] operands = new ByteBuffer[4];
+        private int steps;
+        private int granularity = 1;
+
+        private Builder() {
+        }
+
+        private Builder add(final int opcode, final long filter, final ByteBuffer operand) {
+            if (steps == opcodes.length) {
+                opcodes = Arrays.copyOf(opcodes, steps * 2);
+                filters = Arrays.copyOf(filters, steps * 2);
+                operands = Arrays.copyOf(operands, steps * 2);
+            }
+            opcodes[steps] = opcode;
+            filters[steps] = filter;
+            operands[steps] = operand;
+            steps++;
+            return this;
+        }
+
+        private Builder addConstant(final int opcode, final Lane lane, final int constant) {
+            final long filter = lane.packedFilter(constant);
+            granularity = Math.max(granularity, lane.bytes());
+            return add(opcode, filter, null);
+        }
+
+        /**
+         * @param lane     width of elements
+         * @param constant constant to use... it is highly recommended to input it in 0b101010 form
+         * @return this builder
+         * @throws IllegalArgumentException if argument can't be mapped to lane
+         */
+        public Builder AND(final Lane lane, final int constant) {
+            return addConstant(AND_CONSTANT, lane, constant);
+        }
+
+        /**
+         * @param lane     width of elements
+         * @param constant constant to use... it is highly recommended to input it in 0b101010 form
+         * @return this builder
+         * @throws IllegalArgumentException if argument can't be mapped to lane
+         */
+        public Builder OR(final Lane lane, final int constant) {
+            return addConstant(OR_CONSTANT, lane, constant);
+        }
+
+        /**
+         * @param lane     width of elements
+         * @param constant constant to use... it is highly recommended to input it in 0b101010 form
+         * @return this builder
+         * @throws IllegalArgumentException if argument can't be mapped to lane
+         */
+        public Builder XOR(final Lane lane, final int constant) {
+            return addConstant(XOR_CONSTANT, lane, constant);
+        }
+
+        /**
+         * @return this builder
+         */
+        public Builder NOT() {
+            return add(NOT, 0, null);
+        }
+
+        /**
+         * @param operand non null instance, combined at same indexes as processed buffer (its position and order are ignored)
+         * @return this builder
+         */
+        public Builder AND(final ByteBuffer operand) {
+            return add(AND_BUFFER, 0, operand);
+        }
+
+        /**
+         * @param operand non null instance, combined at same indexes as processed buffer (its position and order are ignored)
+         * @return this builder
+         */
+        public Builder OR(final ByteBuffer operand) {
+            return add(OR_BUFFER, 0, operand);
+        }
+
+        /**
+         * @param operand non null instance, combined at same indexes as processed buffer (its position and order are ignored)
+         * @return this builder
+         */
+        public Builder XOR(final ByteBuffer operand) {
+            return add(XOR_BUFFER, 0, operand);
+        }
+
+        /**
+         * @return pipeline of all steps added so far (builder can be used further)
+         */
+        public BulkBitwisePipeline build() {
+            return new BulkBitwisePipeline(this);
+        }
+    }
+}
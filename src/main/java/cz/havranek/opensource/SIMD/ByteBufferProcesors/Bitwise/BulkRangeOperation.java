@@ -0,0 +1,17 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Operation processing range of buffer by absolute indexes, position and limit of buffer are untouched
+ * all operations of processors (including static NOT) fit it, for example ByteBulkBitwise::NOT or processor::AND
+ */
+@FunctionalInterface
+public interface BulkRangeOperation {
+    /**
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     */
+    void apply(ByteBuffer toProcess, int fromIndex, int toIndex);
+}
@@ -1,5 +1,6 @@
 package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.function.Consumer;
 
@@ -93,6 +94,125 @@ final public class ByteBuffTools {
         return toCheck.limit() % 4 == 0;
     }
 
+    /**
+     * validates if both buffers have same count of bytes from position to limit
+     *
+     * @param first  non null instance
+     * @param second non null instance
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    static void validateSameRemaining(ByteBuffer first, ByteBuffer second) throws IllegalBufferLengthException {
+        if (first.remaining() != second.remaining())
+            throw new IllegalBufferLengthException("ByteBuffers differ in length (" + first.remaining() + " and " + second.remaining() + " bytes remaining)");
+    }
+
+    /**
+     * validates range of absolute indexes once so loops can process it without further checks
+     *
+     * @param toCheck   non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range
+     * @throws IndexOutOfBoundsException if range is not within 0 and limit
+     */
+    static void validateRange(ByteBuffer toCheck, int fromIndex, int toIndex) throws IndexOutOfBoundsException {
+        if (fromIndex < 0 || fromIndex > toIndex || toIndex > toCheck.limit())
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") is out of buffer with limit " + toCheck.limit());
+    }
+
+    /**
+     * validates that whole source fits to target (as ByteBuffer.put does)
+     *
+     * @param source non null instance
+     * @param target non null instance
+     * @return count of bytes from position to limit of source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    static int validateTransfer(ByteBuffer source, ByteBuffer target) throws BufferOverflowException {
+        final int length = source.remaining();
+        if (target.remaining() < length)
+            throw new BufferOverflowException();
+        return length;
+    }
+
+    /**
+     * copies bytes one by one by absolute indexes (for tails shorter than long)
+     *
+     * @param source      non null instance
+     * @param sourceIndex index of first byte to copy
+     * @param target      writable non null instance
+     * @param targetIndex index of first byte to write
+     * @param length      count of bytes
+     */
+    static void copy(ByteBuffer source, int sourceIndex, ByteBuffer target, int targetIndex, int length) {
+        for (int index = 0; index < length; index++)
+            target.put(targetIndex + index, source.get(sourceIndex + index));
+    }
+
+    /**
+     * moves positions of both buffers after transfer of length bytes
+     *
+     * @param source non null instance
+     * @param target non null instance
+     * @param length count of transferred bytes
+     */
+    static void advance(ByteBuffer source, ByteBuffer target, int length) {
+        source.position(source.position() + length);
+        target.position(target.position() + length);
+    }
+
+    /**
+     * view for relative operation of range (used by default methods of BulkBitwiseI)
+     *
+     * @param buffer    non null instance, its position and limit are untouched
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @return duplicate in same byte order from fromIndex to toIndex
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    static ByteBuffer rangeView(ByteBuffer buffer, int fromIndex, int toIndex) {
+        validateRange(buffer, fromIndex, toIndex);
+        final ByteBuffer view = buffer.duplicate().order(buffer.order());
+        view.limit(toIndex).position(fromIndex);
+        return view;
+    }
+
+    /**
+     * copies source to target for relative operation of copied bytes (used by default methods of BulkBitwiseI)
+     * positions of both buffers are moved by count of bytes of source
+     *
+     * @param source non null instance
+     * @param target writable non null instance
+     * @return duplicate of target in its byte order with copied bytes from position to limit
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    static ByteBuffer copiedView(ByteBuffer source, ByteBuffer target) {
+        final int length = validateTransfer(source, target);
+        final int start = target.position();
+        target.put(source);
+        return rangeView(target, start, start + length);
+    }
+
+    /**
+     * @param buffer non null instance
+     * @param index  absolute index of long
+     * @param swap   true if buffer is in other byte order than processed buffer
+     * @return long at index with bytes in order of processed buffer
+     */
+    static long getLong(ByteBuffer buffer, int index, boolean swap) {
+        final long value = buffer.getLong(index);
+        return swap ? Long.reverseBytes(value) : value;
+    }
+
+    /**
+     * @param buffer writable non null instance
+     * @param index  absolute index of long
+     * @param value  long with bytes in order of processed buffer
+     * @param swap   true if buffer is in other byte order than processed buffer
+     */
+    static void putLong(ByteBuffer buffer, int index, long value, boolean swap) {
+        buffer.putLong(index, swap ? Long.reverseBytes(value) : value);
+    }
+
     /**
      * for non null save consumer execute if instance is not null
      * @param in any byteBuffer
@@ -1,6 +1,7 @@
 package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
 
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.function.Consumer;
 
@@ -11,7 +12,7 @@ import java.util.function.Consumer;
  * during execution of methods there is at most 3 ints and one long worth of data occupied
  * class itself occupies 20 bytes by means of constant variables
  * <p>
- * nonzero length mentioned in methods documentation means from curent position to limit there must be at least one byte
+ * zero length (position equal to limit) is valid, nothing is processed
  */
 final public class ByteBulkBitwise implements BulkBitwiseI {
     private final int BYTE_FILTER;
@@ -39,106 +40,244 @@ final public class ByteBulkBitwise implements BulkBitwiseI {
 
     /**
      * Execute bitwise AND operation on All bytes with constant specified in constructor from current position of buffer to it's limit
-     * position is affected during execution
+     * position is moved to limit
      * is thread save if nothing else is modifying(reading data) of buffer
      *
-     * @param toProcess nonzero length, writable non null instance
+     * @param toProcess writable non null instance
      */
 
     @Override
     final public void AND(ByteBuffer toProcess) {
-        final int bufferSize = toProcess.limit();
-        final int lastValidIndex = bufferSize - 1;
-        final int lastLongIndex = bufferSize - 7;
+        AND(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
 
-        while (toProcess.position() < lastLongIndex)
-            toProcess.putLong(toProcess.getLong(toProcess.position()) & LONG_FILTER);
+    /**
+     * Execute bitwise AND operation on All bytes with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    final public void AND(ByteBuffer toProcess, int fromIndex, int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        int index = fromIndex;
 
-        //take care of odd bit
-        toProcess.put(lastValidIndex, (byte) (toProcess.get(lastValidIndex) & BYTE_FILTER));
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, toProcess.getLong(index) & LONG_FILTER);
 
+        index = CommonShortByte.AND(toProcess, index, toIndex, INT_FILTER, SHORT_FILTER);
 
-        CommonShortByte.AND(toProcess, lastValidIndex, INT_FILTER, SHORT_FILTER, bufferSize);
+        //take care of odd byte
+        if (index < toIndex)
+            toProcess.put(index, (byte) (toProcess.get(index) & BYTE_FILTER));
     }
 
     /**
      * Executes bitwise OR operation on All bytes with constant specified in constructor from current position of buffer to it's limit
-     * position is affected during execution
+     * position is moved to limit
      * is thread save if nothing else is modifying(reading data) of buffer
      *
-     * @param toProcess nonzero length, writable non null instance
+     * @param toProcess writable non null instance
      */
 
     @Override
     final public void OR(ByteBuffer toProcess) {
-        final int bufferSize = toProcess.limit();
-        final int lastValidIndex = bufferSize - 1;
-        final int lastLongIndex = bufferSize - 7;
-
-        while (toProcess.position() < lastLongIndex)
-            toProcess.putLong(toProcess.getLong(toProcess.position()) | LONG_FILTER);
+        OR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
 
-        //take care of odd bit
-        toProcess.put(lastValidIndex, (byte) (toProcess.get(lastValidIndex) | BYTE_FILTER));
+    /**
+     * Executes bitwise OR operation on All bytes with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    final public void OR(ByteBuffer toProcess, int fromIndex, int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        int index = fromIndex;
 
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, toProcess.getLong(index) | LONG_FILTER);
 
-        CommonShortByte.OR(toProcess, bufferSize, lastValidIndex, INT_FILTER, SHORT_FILTER);
+        index = CommonShortByte.OR(toProcess, index, toIndex, INT_FILTER, SHORT_FILTER);
 
+        //take care of odd byte
+        if (index < toIndex)
+            toProcess.put(index, (byte) (toProcess.get(index) | BYTE_FILTER));
     }
 
     /**
      * Execute bitwise Xor operation on All bytes with constant specified in constructor from current position of buffer to it's limit
-     * position is affected during execution
+     * position is moved to limit
      * is thread save if nothing else is modifying(reading data) of buffer
      *
-     * @param toProcess nonzero length, writable non null instance
+     * @param toProcess writable non null instance
      */
 
     @Override
     final public void XOR(ByteBuffer toProcess) {
-        final int bufferSize = toProcess.limit();
-        final int lastValidIndex = bufferSize - 1;
-        final int lastLongIndex = bufferSize - 7;
+        XOR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise Xor operation on All bytes with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    final public void XOR(ByteBuffer toProcess, int fromIndex, int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, toProcess.getLong(index) ^ LONG_FILTER);
 
-        while (toProcess.position() < lastLongIndex)
-            toProcess.putLong(toProcess.getLong(toProcess.position()) ^ LONG_FILTER);
+        index = CommonShortByte.XOR(toProcess, index, toIndex, INT_FILTER, SHORT_FILTER);
 
-        //take care of odd bit
-        if (toProcess.limit() % 2 == 1)
-            toProcess.put(lastValidIndex, (byte) (toProcess.get(lastValidIndex) ^ BYTE_FILTER));
+        //take care of odd byte
+        if (index < toIndex)
+            toProcess.put(index, (byte) (toProcess.get(index) ^ BYTE_FILTER));
+    }
 
 
-        CommonShortByte.XOR(toProcess, bufferSize, lastValidIndex, INT_FILTER, SHORT_FILTER);
+    /**
+     * Execute bitwise AND operation on All bytes of source with constant specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    final public void AND(ByteBuffer source, ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final boolean swap = source.order() != target.order();
+        final int longs = length - length % 8;
+        int index = 0;
+
+        for (; index < longs; index += 8)
+            target.putLong(targetIndex + index, ByteBuffTools.getLong(source, sourceIndex + index, swap) & LONG_FILTER);
+
+        ByteBuffTools.copy(source, sourceIndex + index, target, targetIndex + index, length - index);
+        AND(target, targetIndex + index, targetIndex + length);
+        ByteBuffTools.advance(source, target, length);
+    }
 
+    /**
+     * Execute bitwise OR operation on All bytes of source with constant specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    final public void OR(ByteBuffer source, ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final boolean swap = source.order() != target.order();
+        final int longs = length - length % 8;
+        int index = 0;
+
+        for (; index < longs; index += 8)
+            target.putLong(targetIndex + index, ByteBuffTools.getLong(source, sourceIndex + index, swap) | LONG_FILTER);
+
+        ByteBuffTools.copy(source, sourceIndex + index, target, targetIndex + index, length - index);
+        OR(target, targetIndex + index, targetIndex + length);
+        ByteBuffTools.advance(source, target, length);
     }
 
+    /**
+     * Execute bitwise Xor operation on All bytes of source with constant specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    final public void XOR(ByteBuffer source, ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final boolean swap = source.order() != target.order();
+        final int longs = length - length % 8;
+        int index = 0;
+
+        for (; index < longs; index += 8)
+            target.putLong(targetIndex + index, ByteBuffTools.getLong(source, sourceIndex + index, swap) ^ LONG_FILTER);
+
+        ByteBuffTools.copy(source, sourceIndex + index, target, targetIndex + index, length - index);
+        XOR(target, targetIndex + index, targetIndex + length);
+        ByteBuffTools.advance(source, target, length);
+    }
 
     /**
      * Execute bitwise NOT operation on All bytes from current position of buffer to it's limit
-     * position is affected during execution
+     * position is moved to limit
      * is thread save if nothing else is modifying(reading data) of buffer
      *
-     * @param toProcess nonzero length, writable non null instance
+     * @param toProcess writable non null instance
      */
     public static void NOT(ByteBuffer toProcess) {
-        final int bufferSize = toProcess.limit();
-        final int lastValidIndex = bufferSize - 1;
-        final int lastLongIndex = bufferSize - 7;
+        NOT(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
 
-        while (toProcess.position() < lastLongIndex)
-            toProcess.putLong(~toProcess.getLong(toProcess.position()));
+    /**
+     * Execute bitwise NOT operation on All bytes from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public static void NOT(ByteBuffer toProcess, int fromIndex, int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        int index = fromIndex;
 
-        //take care of odd bit
-        if (toProcess.limit() % 2 == 1)
-            toProcess.put(lastValidIndex, (byte) ~toProcess.get(lastValidIndex));
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, ~toProcess.getLong(index));
 
+        index = CommonShortByte.NOT(toProcess, index, toIndex);
 
-        CommonShortByte.NOT(toProcess, bufferSize, lastValidIndex);
+        //take care of odd byte
+        if (index < toIndex)
+            toProcess.put(index, (byte) ~toProcess.get(index));
     }
 
 
     /**
      * Convenience method for executing on portion of array
+     * wraps array on every call, ArrayBulkBitwise processes arrays without allocation
      *
      * @param operation operation to execute upon array
      * @param array     the array
@@ -162,4 +301,29 @@ final public class ByteBulkBitwise implements BulkBitwiseI {
         if (in.limit() > in.position())
             zeroLengthUnsafeTrans.accept(in);
     }
+
+    /**
+     * Execute bitwise NOT operation on All bytes of source and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    public static void NOT(ByteBuffer source, ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final boolean swap = source.order() != target.order();
+        final int longs = length - length % 8;
+        int index = 0;
+
+        for (; index < longs; index += 8)
+            target.putLong(targetIndex + index, ~ByteBuffTools.getLong(source, sourceIndex + index, swap));
+
+        ByteBuffTools.copy(source, sourceIndex + index, target, targetIndex + index, length - index);
+        NOT(target, targetIndex + index, targetIndex + length);
+        ByteBuffTools.advance(source, target, length);
+    }
 }
@@ -0,0 +1,248 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Streams data from ReadableByteChannel to WritableByteChannel (pipes, sockets...) and executes operation of any processor on them
+ * (for example processor::AND or IntBulkBitwise::NOT)
+ * <p>
+ * data are read to two direct buffers (acquired from DirectBufferPool for every transformation), while one is written (on writer executor) the other one is read and processed,
+ * operation gets only whole units of granularity (elements of lane by default), bytes of incomplete unit at end of chunk are carried to start of next chunk,
+ * so elements are never split between chunks whatever reads of input return (last chunk of stream gets whole elements, bytes of incomplete element are written untouched)
+ * operations with state depending on offset (LongBulkBitwise with pattern restarted by every call) need granularity of their whole pattern
+ * <p>
+ * channels are expected to be blocking, they are not closed
+ * is thread save if operation is (every transformation has its own buffers)
+ */
+final public class ChannelBulkBitwise {
+    /**
+     * default size of one chunk (1 MB)
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    /**
+     * shared executor of writes, threads are created on demand (writes are blocking) and they are daemons
+     */
+    private static final ExecutorService DEFAULT_WRITER = Executors.newCachedThreadPool(task -> {
+        final Thread thread = new Thread(task, "ChannelBulkBitwise-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int laneBytes;
+    private final int granularity;
+    private final Consumer<ByteBuffer> operation;
+    private final int chunkSize;
+    private final ByteOrder order;
+    private final Executor writer;
+    private final DirectBufferPool pool;
+
+    /**
+     * Construct transformer with default chunk size, big endian order (as ByteBuffer.allocate) and shared writer
+     *
+     * @param lane      width of elements operation works with
+     * @param operation operation to execute on every chunk
+     */
+    public ChannelBulkBitwise(final Lane lane, final Consumer<ByteBuffer> operation) {
+        this(lane, operation, DEFAULT_CHUNK_SIZE, ByteOrder.BIG_ENDIAN, DEFAULT_WRITER);
+    }
+
+    /**
+     * Construct transformer with buffers of shared pool
+     *
+     * @param lane      width of elements operation works with
+     * @param operation operation to execute on every chunk
+     * @param chunkSize size of one of two direct buffers, positive multiple of 8
+     * @param order     byte order of chunks passed to operation
+     * @param writer    executor of writes
+     * @throws IllegalArgumentException if chunk size is not positive multiple of 8
+     */
+    public ChannelBulkBitwise(final Lane lane, final Consumer<ByteBuffer> operation, final int chunkSize, final ByteOrder order, final Executor writer) {
+        this(lane, operation, chunkSize, order, writer, DirectBufferPool.shared());
+    }
+
+    /**
+     * Construct transformer
+     *
+     * @param lane      width of elements operation works with
+     * @param operation operation to execute on every chunk
+     * @param chunkSize size of one of two direct buffers, positive multiple of 8 (at most DirectBufferPool.MAX_CLASS_SIZE)
+     * @param order     byte order of chunks passed to operation
+     * @param writer    executor of writes
+     * @param pool      pool buffers are acquired from
+     * @throws IllegalArgumentException if chunk size is not positive multiple of 8
+     */
+    public ChannelBulkBitwise(final Lane lane, final Consumer<ByteBuffer> operation, final int chunkSize, final ByteOrder order,
+                              final Executor writer, final DirectBufferPool pool) {
+        this(lane, lane.bytes(), operation, chunkSize, order, writer, pool);
+    }
+
+    /**
+     * Construct transformer for operation which must get chunks of multiple of granularity
+     * (for example LongBulkBitwise with pattern of more longs needs its granularity())
+     *
+     * @param lane        width of elements operation works with
+     * @param granularity count of bytes every chunk but last is multiple of, positive multiple of lane width dividing chunk size
+     * @param operation   operation to execute on every chunk
+     * @param chunkSize   size of one of two direct buffers, positive multiple of 8 (at most DirectBufferPool.MAX_CLASS_SIZE)
+     * @param order       byte order of chunks passed to operation
+     * @param writer      executor of writes
+     * @param pool        pool buffers are acquired from
+     * @throws IllegalArgumentException if chunk size is not positive multiple of 8 or granularity is not multiple of lane width dividing it
+     */
+    public ChannelBulkBitwise(final Lane lane, final int granularity, final Consumer<ByteBuffer> operation, final int chunkSize,
+                              final ByteOrder order, final Executor writer, final DirectBufferPool pool) {
+        if (chunkSize <= 0 || chunkSize % 8 != 0 || chunkSize > DirectBufferPool.MAX_CLASS_SIZE)
+            throw new IllegalArgumentException("Chunk size (" + chunkSize + ") must be positive multiple of 8");
+        if (granularity <= 0 || granularity % lane.bytes() != 0 || chunkSize % granularity != 0)
+            throw new IllegalArgumentException("Granularity (" + granularity + ") must be multiple of " + lane + " dividing chunk size (" + chunkSize + ")");
+        this.laneBytes = lane.bytes();
+        this.granularity = granularity;
+        this.operation = operation;
+        this.chunkSize = chunkSize;
+        this.order = order;
+        this.writer = writer;
+        this.pool = pool;
+    }
+
+    /**
+     * Read whole input, execute operation on it and write it to output
+     *
+     * @param input  blocking channel to read from
+     * @param output blocking channel to write to
+     * @return count of transferred bytes
+     * @throws IOException if reading or writing fails
+     */
+    public long transform(final ReadableByteChannel input, final WritableByteChannel output) throws IOException {
+        final ByteBuffer[] buffers = {pool.acquire(chunkSize).order(order), pool.acquire(chunkSize).order(order)};
+        final PendingWrite[] writes = {new PendingWrite(buffers[0], output), new PendingWrite(buffers[1], output)};
+        long transferred = 0;
+        int current = 0;
+        try {
+            boolean end = false;
+            while (!end) {
+                //buffer may already start with bytes carried from previous chunk
+                final ByteBuffer buffer = buffers[current];
+                end = input.read(buffer) < 0;
+                final int filled = buffer.position();
+                //rest of stream can't be carried, so last chunk gets all whole elements
+                final int wholeElements = filled - filled % (end ? laneBytes : granularity);
+                buffer.limit(wholeElements).position(0);
+                operation.accept(buffer);
+
+                final int next = current ^ 1;
+                writes[next].await();
+                final ByteBuffer nextBuffer = buffers[next];
+                nextBuffer.clear();
+                nextBuffer.limit(chunkSize);
+                final int written = end ? filled : wholeElements;
+                buffer.limit(filled);
+                for (int index = written; index < filled; index++)
+                    nextBuffer.put(buffer.get(index));
+
+                buffer.limit(written).position(0);
+                transferred += written;
+                writes[current].start(writer);
+                current = next;
+            }
+        } finally {
+            //buffers must not be reused while they are written
+            for (final PendingWrite write : writes)
+                write.awaitEnd();
+            pool.release(buffers[0]);
+            pool.release(buffers[1]);
+        }
+        writes[0].await();
+        writes[1].await();
+        return transferred;
+    }
+
+    /**
+     * write of one of two buffers, it is reused for every chunk of its buffer so no object is created per chunk
+     */
+    private static final class PendingWrite implements Runnable {
+        private final ByteBuffer buffer;
+        private final WritableByteChannel output;
+        private boolean pending;
+        private Throwable failure;
+
+        PendingWrite(final ByteBuffer buffer, final WritableByteChannel output) {
+            this.buffer = buffer;
+            this.output = output;
+        }
+
+        /**
+         * starts write of buffer from position to limit on writer
+         */
+        void start(final Executor writer) {
+            synchronized (this) {
+                pending = true;
+            }
+            try {
+                writer.execute(this);
+            } catch (RuntimeException e) {
+                //write was not started, so there is nothing to wait for
+                finish(null);
+                throw e;
+            }
+        }
+
+        @Override
+        public void run() {
+            Throwable result = null;
+            try {
+                while (buffer.hasRemaining())
+                    output.write(buffer);
+            } catch (Throwable e) {
+                result = e;
+            }
+            finish(result);
+        }
+
+        private synchronized void finish(final Throwable result) {
+            failure = result;
+            pending = false;
+            notifyAll();
+        }
+
+        /**
+         * waits until write is finished (buffer can be reused after it), failure of write is ignored
+         */
+        synchronized void awaitEnd() {
+            boolean interrupted = false;
+            while (pending) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+
+        /**
+         * waits until write is finished
+         *
+         * @throws IOException if write failed
+         */
+        synchronized void await() throws IOException {
+            awaitEnd();
+            final Throwable cause = failure;
+            failure = null;
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+        }
+    }
+}
@@ -4,46 +4,51 @@ import java.nio.ByteBuffer;
 
 /**
  * Helper class containing static tail calls of short and byte implementations does not inherit bulk bitwise sice this is not ment to be used by users
+ * tails of processors with constant use absolute indexes and return index after last processed short
  */
 class CommonShortByte {
-    static void AND(ByteBuffer toProcess, int lastValidIndex, int int_filter, int short_filter, int bufferSize) {
-        if (toProcess.position() < lastValidIndex) {
-            if (toProcess.position() < bufferSize - 3) {
-                toProcess.putInt(toProcess.getInt(toProcess.position()) & int_filter);
-                if (toProcess.position() >= lastValidIndex)
-                    return;
-            }
-            toProcess.putShort((short) (toProcess.getShort(toProcess.position()) & short_filter));
+    static int AND(ByteBuffer toProcess, int index, int toIndex, int int_filter, int short_filter) {
+        if (index < toIndex - 3) {
+            toProcess.putInt(index, toProcess.getInt(index) & int_filter);
+            index += 4;
         }
+        if (index < toIndex - 1) {
+            toProcess.putShort(index, (short) (toProcess.getShort(index) & short_filter));
+            index += 2;
+        }
+        return index;
     }
-    static void OR(ByteBuffer toProcess, int bufferSize, int lastValidIndex, int int_filter, int short_filter) {
-        if (toProcess.position() < lastValidIndex) {
-            if (toProcess.position() < bufferSize - 3) {
-                toProcess.putInt(toProcess.getInt(toProcess.position()) | int_filter);
-                if (toProcess.position() >= lastValidIndex)
-                    return;
-            }
-            toProcess.putShort((short) (toProcess.getShort(toProcess.position()) | short_filter));
+    static int OR(ByteBuffer toProcess, int index, int toIndex, int int_filter, int short_filter) {
+        if (index < toIndex - 3) {
+            toProcess.putInt(index, toProcess.getInt(index) | int_filter);
+            index += 4;
+        }
+        if (index < toIndex - 1) {
+            toProcess.putShort(index, (short) (toProcess.getShort(index) | short_filter));
+            index += 2;
         }
+        return index;
     }
-    static void XOR(ByteBuffer toProcess, int bufferSize, int lastValidIndex, int int_filter, int short_filter) {
-        if (toProcess.position() < lastValidIndex) {
-            if (toProcess.position() < bufferSize - 3) {
-                toProcess.putInt(toProcess.getInt(toProcess.position()) ^ int_filter);
-                if (toProcess.position() >= lastValidIndex)
-                    return;
-            }
-            toProcess.putShort((short) (toProcess.getShort(toProcess.position()) ^ short_filter));
+    static int XOR(ByteBuffer toProcess, int index, int toIndex, int int_filter, int short_filter) {
+        if (index < toIndex - 3) {
+            toProcess.putInt(index, toProcess.getInt(index) ^ int_filter);
+            index += 4;
         }
+        if (index < toIndex - 1) {
+            toProcess.putShort(index, (short) (toProcess.getShort(index) ^ short_filter));
+            index += 2;
+        }
+        return index;
     }
-    static void NOT(ByteBuffer toProcess, int bufferSize, int lastValidIndex) {
-        if (toProcess.position() < lastValidIndex) {
-            if (toProcess.position() < bufferSize - 3) {
-                toProcess.putInt(~toProcess.getInt(toProcess.position()));
-                if (toProcess.position() >= lastValidIndex)
-                    return;
-            }
-            toProcess.putShort((short) ~toProcess.getShort(toProcess.position()));
+    static int NOT(ByteBuffer toProcess, int index, int toIndex) {
+        if (index < toIndex - 3) {
+            toProcess.putInt(index, ~toProcess.getInt(index));
+            index += 4;
+        }
+        if (index < toIndex - 1) {
+            toProcess.putShort(index, (short) ~toProcess.getShort(index));
+            index += 2;
         }
+        return index;
     }
 }
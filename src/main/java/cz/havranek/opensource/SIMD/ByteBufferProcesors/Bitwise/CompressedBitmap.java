@@ -0,0 +1,859 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Compressed bitmap of unsigned int values (as Roaring bitmap) for sparse masks, values are split to chunks of 65536 values
+ * by their high 16 bits and every chunk is stored in container of smallest size:
+ * ARRAY (sorted low 16 bits, at most 4096 values), BITMAP (8 kB of bits) or RUN (start and length - 1 of every run of consecutive values)
+ * <p>
+ * bitmap lives in one direct little endian buffer which is also its serialized form, so buffer() can be written to file as is
+ * and file can be memory mapped back by wrap, operations read mapped buffer directly without deserializing
+ * format is int magic, int count of containers, directory of containers sorted by key (short key, short type, int cardinality,
+ * int offset and int length of payload in bytes, offsets are from start of bitmap) and payloads (BITMAP payloads are aligned to 8 bytes)
+ * <p>
+ * AND, OR, XOR and ANDNOT merge containers by keys, container of only one operand is copied as is (or skipped),
+ * pairs of ARRAY containers are merged value by value, ARRAY is probed value by value where result is subset of it,
+ * other pairs are combined by long loops of BufferBulkBitwise (BITMAP payloads are used in place, other containers are expanded
+ * to 8 kB scratch buffers from DirectBufferPool) and result of every container is stored in its smallest form again
+ * bits of dense buffers are numbered as in java.util.BitSet.valueOf(ByteBuffer): value k is bit (k % 8) of byte k / 8 from position
+ * <p>
+ * instance is immutable and is thread save if nothing else is modifying(reading data) of wrapped buffer
+ */
+final public class CompressedBitmap {
+    /**
+     * first int of serialized bitmap ("RBM1" in little endian)
+     */
+    public static final int MAGIC = 0x314D4252;
+    /**
+     * max count of values of ARRAY container
+     */
+    public static final int MAX_ARRAY_CARDINALITY = 4096;
+    static final int ARRAY = 0;
+    static final int BITMAP = 1;
+    static final int RUN = 2;
+
+    private static final int CHUNK_BITS = 1 << 16;
+    private static final int BITMAP_BYTES = CHUNK_BITS / 8;
+    private static final int HEADER_BYTES = 8;
+    private static final int ENTRY_BYTES = 16;
+    private static final int MAX_DENSE_BYTES = 1 << 29;
+
+    private static final int AND = 0;
+    private static final int OR = 1;
+    private static final int XOR = 2;
+    private static final int ANDNOT = 3;
+
+    private final ByteBuffer buffer;
+    private final int containers;
+
+    private CompressedBitmap(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        containers = buffer.getInt(4);
+    }
+
+    /**
+     * Wraps serialized bitmap (for example memory mapped file written from buffer()) without copying it
+     *
+     * @param serialized non null instance with bitmap from position to limit (position and limit are untouched)
+     * @return bitmap reading serialized buffer
+     * @throws IllegalArgumentException if buffer does not contain bitmap
+     */
+    public static CompressedBitmap wrap(final ByteBuffer serialized) {
+        final ByteBuffer buffer = serialized.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC)
+            throw new IllegalArgumentException("Buffer does not contain compressed bitmap");
+        final int containers = buffer.getInt(4);
+        if (containers < 0 || containers > (buffer.limit() - HEADER_BYTES) / ENTRY_BYTES)
+            throw new IllegalArgumentException("Directory of " + containers + " containers is out of buffer");
+        final CompressedBitmap bitmap = new CompressedBitmap(buffer);
+        for (int container = 0; container < containers; container++) {
+            final int offset = bitmap.offset(container);
+            final int length = bitmap.length(container);
+            if (offset < 0 || length < 0 || (long) offset + length > buffer.limit())
+                throw new IllegalArgumentException("Container " + container + " is out of buffer");
+            //find relies on binary search of keys
+            if (container > 0 && bitmap.key(container) <= bitmap.key(container - 1))
+                throw new IllegalArgumentException("Key of container " + container + " is not greater than key of previous one");
+            if (!validPayload(bitmap.type(container), bitmap.cardinality(container), length))
+                throw new IllegalArgumentException("Container " + container + " (type " + bitmap.type(container) + ", cardinality "
+                        + bitmap.cardinality(container) + ", " + length + " bytes) is corrupted");
+        }
+        return bitmap;
+    }
+
+    /**
+     * @return true if type is known and length of payload matches it (containers are never empty)
+     */
+    private static boolean validPayload(final int type, final int cardinality, final int length) {
+        if (cardinality <= 0 || cardinality > CHUNK_BITS)
+            return false;
+        switch (type) {
+            case ARRAY:
+                return cardinality <= MAX_ARRAY_CARDINALITY && length == cardinality << 1;
+            case BITMAP:
+                return length == BITMAP_BYTES;
+            case RUN:
+                //every run holds at least one value
+                return length > 0 && length % 4 == 0 && length >>> 2 <= cardinality;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @param values unsigned values in any order (duplicates are allowed)
+     * @return bitmap of values
+     */
+    public static CompressedBitmap of(final int... values) {
+        final int[] sorted = values.clone();
+        for (int index = 0; index < sorted.length; index++)
+            sorted[index] ^= Integer.MIN_VALUE;
+        Arrays.sort(sorted);
+        final Writer writer = new Writer();
+        final int[] chunk = new int[CHUNK_BITS];
+        final DirectBufferPool pool = DirectBufferPool.shared();
+        final ByteBuffer scratch = scratch(pool);
+        try {
+            int index = 0;
+            while (index < sorted.length) {
+                final int key = (sorted[index] ^ Integer.MIN_VALUE) >>> 16;
+                int count = 0;
+                for (; index < sorted.length && (sorted[index] ^ Integer.MIN_VALUE) >>> 16 == key; index++) {
+                    final int low = sorted[index] & 0xFFFF;
+                    if (count == 0 || chunk[count - 1] != low)
+                        chunk[count++] = low;
+                }
+                writer.sorted(key, chunk, count, scratch);
+            }
+        } finally {
+            pool.release(scratch);
+        }
+        return writer.build();
+    }
+
+    /**
+     * Compresses dense bits from position to limit, chunks without any set bit are skipped by one popcount, position is moved to limit
+     *
+     * @param dense non null instance with at most 2^29 bytes remaining
+     * @return bitmap of set bits
+     * @throws IllegalArgumentException if dense has more bits than unsigned int values
+     */
+    public static CompressedBitmap fromDense(final ByteBuffer dense) {
+        final int length = dense.remaining();
+        if (length > MAX_DENSE_BYTES)
+            throw new IllegalArgumentException("Dense buffer of " + length + " bytes has more bits than unsigned int values");
+        final Writer writer = new Writer();
+        final ByteBuffer source = dense.duplicate();
+        final DirectBufferPool pool = DirectBufferPool.shared();
+        final ByteBuffer scratch = scratch(pool);
+        try {
+            final int start = dense.position();
+            for (int key = 0; key * BITMAP_BYTES < length; key++) {
+                final int chunkStart = start + key * BITMAP_BYTES;
+                final int chunkEnd = chunkStart + Math.min(BITMAP_BYTES, length - key * BITMAP_BYTES);
+                if (BulkBitReductions.popcount(dense, chunkStart, chunkEnd) == 0)
+                    continue;
+                scratch.clear();
+                if (chunkEnd - chunkStart < BITMAP_BYTES)
+                    zero(scratch);
+                source.limit(chunkEnd);
+                source.position(chunkStart);
+                scratch.put(source);
+                writer.dense(key, scratch);
+            }
+        } finally {
+            pool.release(scratch);
+        }
+        dense.position(dense.limit());
+        return writer.build();
+    }
+
+    /**
+     * @return read only little endian view of serialized bitmap (position 0, limit at its end)
+     */
+    public ByteBuffer buffer() {
+        return buffer.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * @return count of bytes of serialized bitmap
+     */
+    public int serializedSize() {
+        return buffer.limit();
+    }
+
+    /**
+     * @return count of containers
+     */
+    public int containers() {
+        return containers;
+    }
+
+    /**
+     * @return count of values
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (int container = 0; container < containers; container++)
+            cardinality += cardinality(container);
+        return cardinality;
+    }
+
+    /**
+     * @param value unsigned value
+     * @return true if value is in bitmap
+     */
+    public boolean contains(final int value) {
+        final int container = find(value >>> 16);
+        return container >= 0 && contains(container, value & 0xFFFF);
+    }
+
+    /**
+     * @return values in unsigned order
+     */
+    public int[] toArray() {
+        final int[] values = new int[(int) cardinality()];
+        int count = 0;
+        for (int container = 0; container < containers; container++) {
+            final int high = key(container) << 16;
+            final int end = count + values(container, values, count);
+            for (; count < end; count++)
+                values[count] |= high;
+        }
+        return values;
+    }
+
+    /**
+     * Writes bitmap as dense bits from position (bytes without any value are zeroed), position is moved to limit
+     *
+     * @param dense writable non null instance
+     * @throws BufferOverflowException if highest value does not fit to remaining bytes
+     */
+    public void toDense(final ByteBuffer dense) {
+        final int start = dense.position();
+        final long bytes = containers == 0 ? 0 : ((long) key(containers - 1) << 13) + (last(containers - 1) >>> 3) + 1;
+        if (bytes > dense.remaining())
+            throw new BufferOverflowException();
+        final ByteBuffer target = dense.duplicate();
+        int index = start;
+        for (; index < dense.limit() - 7; index += 8)
+            dense.putLong(index, 0);
+        for (; index < dense.limit(); index++)
+            dense.put(index, (byte) 0);
+        final DirectBufferPool pool = DirectBufferPool.shared();
+        final ByteBuffer scratch = scratch(pool);
+        try {
+            for (int container = 0; container < containers; container++) {
+                final int chunkStart = start + (key(container) << 13);
+                expand(container, scratch);
+                scratch.clear();
+                scratch.limit(Math.min(BITMAP_BYTES, dense.limit() - chunkStart));
+                target.position(chunkStart);
+                target.put(scratch);
+            }
+        } finally {
+            pool.release(scratch);
+        }
+        dense.position(dense.limit());
+    }
+
+    /**
+     * @param other non null instance
+     * @return new bitmap of values in both bitmaps
+     */
+    public CompressedBitmap AND(final CompressedBitmap other) {
+        return combine(other, AND);
+    }
+
+    /**
+     * @param other non null instance
+     * @return new bitmap of values in any of bitmaps
+     */
+    public CompressedBitmap OR(final CompressedBitmap other) {
+        return combine(other, OR);
+    }
+
+    /**
+     * @param other non null instance
+     * @return new bitmap of values in exactly one of bitmaps
+     */
+    public CompressedBitmap XOR(final CompressedBitmap other) {
+        return combine(other, XOR);
+    }
+
+    /**
+     * @param other non null instance
+     * @return new bitmap of values of this bitmap which are not in other
+     */
+    public CompressedBitmap ANDNOT(final CompressedBitmap other) {
+        return combine(other, ANDNOT);
+    }
+
+    /**
+     * @param other non null instance
+     * @return count of values in both bitmaps (nothing is stored)
+     */
+    public long andCardinality(final CompressedBitmap other) {
+        final DirectBufferPool pool = DirectBufferPool.shared();
+        final ByteBuffer first = scratch(pool);
+        final ByteBuffer second = scratch(pool);
+        try {
+            final ByteBuffer firstView = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            final ByteBuffer secondView = other.buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            long cardinality = 0;
+            int container = 0;
+            int otherContainer = 0;
+            while (container < containers && otherContainer < other.containers) {
+                final int key = key(container);
+                final int otherKey = other.key(otherContainer);
+                if (key < otherKey) {
+                    container++;
+                    continue;
+                }
+                if (key > otherKey) {
+                    otherContainer++;
+                    continue;
+                }
+                final int type = type(container);
+                final int otherType = other.type(otherContainer);
+                if (type == ARRAY && otherType == ARRAY)
+                    cardinality += mergeArrays(other, container, otherContainer, AND, null);
+                else if (type == ARRAY)
+                    cardinality += filterArray(container, other, otherContainer, true, null);
+                else if (otherType == ARRAY)
+                    cardinality += other.filterArray(otherContainer, this, container, true, null);
+                else
+                    cardinality += BulkBitReductions.andPopcount(bits(container, firstView, first), other.bits(otherContainer, secondView, second));
+                container++;
+                otherContainer++;
+            }
+            return cardinality;
+        } finally {
+            pool.release(first);
+            pool.release(second);
+        }
+    }
+
+    /**
+     * @param other non null instance
+     * @return count of values in any of bitmaps (nothing is stored)
+     */
+    public long orCardinality(final CompressedBitmap other) {
+        return cardinality() + other.cardinality() - andCardinality(other);
+    }
+
+    /**
+     * @param other non null instance
+     * @return count of values in exactly one of bitmaps (nothing is stored)
+     */
+    public long xorCardinality(final CompressedBitmap other) {
+        return cardinality() + other.cardinality() - 2 * andCardinality(other);
+    }
+
+    /**
+     * @param other non null instance
+     * @return count of values of this bitmap which are not in other (nothing is stored)
+     */
+    public long andNotCardinality(final CompressedBitmap other) {
+        return cardinality() - andCardinality(other);
+    }
+
+    private CompressedBitmap combine(final CompressedBitmap other, final int operation) {
+        final DirectBufferPool pool = DirectBufferPool.shared();
+        final ByteBuffer first = scratch(pool);
+        final ByteBuffer second = scratch(pool);
+        final ByteBuffer result = scratch(pool);
+        try {
+            final ByteBuffer firstView = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            final ByteBuffer secondView = other.buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            final int[] values = new int[2 * MAX_ARRAY_CARDINALITY];
+            final Writer writer = new Writer();
+            int container = 0;
+            int otherContainer = 0;
+            while (container < containers || otherContainer < other.containers) {
+                final int key = container < containers ? key(container) : CHUNK_BITS;
+                final int otherKey = otherContainer < other.containers ? other.key(otherContainer) : CHUNK_BITS;
+                if (key < otherKey) {
+                    if (operation != AND)
+                        writer.copy(this, container);
+                    container++;
+                    continue;
+                }
+                if (key > otherKey) {
+                    if (operation == OR || operation == XOR)
+                        writer.copy(other, otherContainer);
+                    otherContainer++;
+                    continue;
+                }
+                final int type = type(container);
+                final int otherType = other.type(otherContainer);
+                if (type == ARRAY && otherType == ARRAY) {
+                    writer.sorted(key, values, mergeArrays(other, container, otherContainer, operation, values), result);
+                } else if (type == ARRAY && (operation == AND || operation == ANDNOT)) {
+                    writer.sorted(key, values, filterArray(container, other, otherContainer, operation == AND, values), result);
+                } else if (otherType == ARRAY && operation == AND) {
+                    writer.sorted(key, values, other.filterArray(otherContainer, this, container, true, values), result);
+                } else {
+                    final ByteBuffer firstBits = bits(container, firstView, first);
+                    final ByteBuffer secondBits = other.bits(otherContainer, secondView, second);
+                    result.clear();
+                    switch (operation) {
+                        case AND:
+                            BufferBulkBitwise.AND(result, firstBits, secondBits);
+                            break;
+                        case OR:
+                            BufferBulkBitwise.OR(result, firstBits, secondBits);
+                            break;
+                        case XOR:
+                            BufferBulkBitwise.XOR(result, firstBits, secondBits);
+                            break;
+                        default:
+                            result.put(firstBits);
+                            result.clear();
+                            BufferBulkBitwise.ANDNOT(result, secondBits);
+                    }
+                    result.clear();
+                    writer.dense(key, result);
+                }
+                container++;
+                otherContainer++;
+            }
+            return writer.build();
+        } finally {
+            pool.release(first);
+            pool.release(second);
+            pool.release(result);
+        }
+    }
+
+    /**
+     * merges two ARRAY containers
+     *
+     * @param target array for merged values or null if they are only counted
+     * @return count of merged values
+     */
+    private int mergeArrays(final CompressedBitmap other, final int container, final int otherContainer, final int operation, final int[] target) {
+        final ByteBuffer otherBuffer = other.buffer;
+        final int offset = offset(container);
+        final int otherOffset = other.offset(otherContainer);
+        final int length = cardinality(container);
+        final int otherLength = other.cardinality(otherContainer);
+        int index = 0;
+        int otherIndex = 0;
+        int count = 0;
+        while (index < length && otherIndex < otherLength) {
+            final int value = buffer.getShort(offset + (index << 1)) & 0xFFFF;
+            final int otherValue = otherBuffer.getShort(otherOffset + (otherIndex << 1)) & 0xFFFF;
+            if (value < otherValue) {
+                if (operation != AND)
+                    count = store(target, count, value);
+                index++;
+            } else if (value > otherValue) {
+                if (operation == OR || operation == XOR)
+                    count = store(target, count, otherValue);
+                otherIndex++;
+            } else {
+                if (operation == AND || operation == OR)
+                    count = store(target, count, value);
+                index++;
+                otherIndex++;
+            }
+        }
+        if (operation != AND)
+            for (; index < length; index++)
+                count = store(target, count, buffer.getShort(offset + (index << 1)) & 0xFFFF);
+        if (operation == OR || operation == XOR)
+            for (; otherIndex < otherLength; otherIndex++)
+                count = store(target, count, otherBuffer.getShort(otherOffset + (otherIndex << 1)) & 0xFFFF);
+        return count;
+    }
+
+    /**
+     * keeps values of ARRAY container which are (or are not) in container of other bitmap
+     *
+     * @param target array for kept values or null if they are only counted
+     * @return count of kept values
+     */
+    private int filterArray(final int container, final CompressedBitmap other, final int otherContainer, final boolean contained, final int[] target) {
+        final int offset = offset(container);
+        final int length = cardinality(container);
+        int count = 0;
+        for (int index = 0; index < length; index++) {
+            final int value = buffer.getShort(offset + (index << 1)) & 0xFFFF;
+            if (other.contains(otherContainer, value) == contained)
+                count = store(target, count, value);
+        }
+        return count;
+    }
+
+    private static int store(final int[] target, final int count, final int value) {
+        if (target != null)
+            target[count] = value;
+        return count + 1;
+    }
+
+    /**
+     * @return view of BITMAP payload or scratch with expanded container (both with 8 kB remaining)
+     */
+    private ByteBuffer bits(final int container, final ByteBuffer view, final ByteBuffer scratch) {
+        if (type(container) == BITMAP) {
+            final int offset = offset(container);
+            view.limit(offset + BITMAP_BYTES);
+            view.position(offset);
+            return view;
+        }
+        expand(container, scratch);
+        scratch.clear();
+        return scratch;
+    }
+
+    /**
+     * writes container as 8 kB of bits to scratch
+     */
+    private void expand(final int container, final ByteBuffer scratch) {
+        final int offset = offset(container);
+        switch (type(container)) {
+            case ARRAY:
+                zero(scratch);
+                for (int index = 0, length = cardinality(container); index < length; index++) {
+                    final int value = buffer.getShort(offset + (index << 1)) & 0xFFFF;
+                    final int word = value >>> 6 << 3;
+                    scratch.putLong(word, scratch.getLong(word) | 1L << value);
+                }
+                break;
+            case BITMAP:
+                for (int index = 0; index < BITMAP_BYTES; index += 8)
+                    scratch.putLong(index, buffer.getLong(offset + index));
+                break;
+            default:
+                zero(scratch);
+                for (int index = 0, length = length(container); index < length; index += 4) {
+                    final int start = buffer.getShort(offset + index) & 0xFFFF;
+                    setRange(scratch, start, start + (buffer.getShort(offset + index + 2) & 0xFFFF) + 1);
+                }
+        }
+    }
+
+    /**
+     * @return count of values of container written to target from index
+     */
+    private int values(final int container, final int[] target, final int index) {
+        final int offset = offset(container);
+        int count = index;
+        switch (type(container)) {
+            case ARRAY:
+                for (int value = 0, length = cardinality(container); value < length; value++)
+                    target[count++] = buffer.getShort(offset + (value << 1)) & 0xFFFF;
+                break;
+            case BITMAP:
+                for (int word = 0; word < BITMAP_BYTES; word += 8)
+                    for (long bits = buffer.getLong(offset + word); bits != 0; bits &= bits - 1)
+                        target[count++] = (word << 3) + Long.numberOfTrailingZeros(bits);
+                break;
+            default:
+                for (int run = 0, length = length(container); run < length; run += 4) {
+                    final int start = buffer.getShort(offset + run) & 0xFFFF;
+                    final int end = start + (buffer.getShort(offset + run + 2) & 0xFFFF);
+                    for (int value = start; value <= end; value++)
+                        target[count++] = value;
+                }
+        }
+        return count - index;
+    }
+
+    /**
+     * @return highest low 16 bits of container
+     */
+    private int last(final int container) {
+        final int offset = offset(container);
+        switch (type(container)) {
+            case ARRAY:
+                return buffer.getShort(offset + ((cardinality(container) - 1) << 1)) & 0xFFFF;
+            case BITMAP:
+                return (int) (BulkBitReductions.lastSetBit(buffer, offset, offset + BITMAP_BYTES) - ((long) offset << 3));
+            default:
+                final int run = offset + length(container) - 4;
+                return (buffer.getShort(run) & 0xFFFF) + (buffer.getShort(run + 2) & 0xFFFF);
+        }
+    }
+
+    private boolean contains(final int container, final int low) {
+        final int offset = offset(container);
+        switch (type(container)) {
+            case ARRAY: {
+                int from = 0;
+                int to = cardinality(container) - 1;
+                while (from <= to) {
+                    final int middle = (from + to) >>> 1;
+                    final int value = buffer.getShort(offset + (middle << 1)) & 0xFFFF;
+                    if (value < low)
+                        from = middle + 1;
+                    else if (value > low)
+                        to = middle - 1;
+                    else
+                        return true;
+                }
+                return false;
+            }
+            case BITMAP:
+                return (buffer.getLong(offset + (low >>> 6 << 3)) >>> low & 1) != 0;
+            default: {
+                //last run starting at or before low
+                int from = 0;
+                int to = (length(container) >>> 2) - 1;
+                int found = -1;
+                while (from <= to) {
+                    final int middle = (from + to) >>> 1;
+                    if ((buffer.getShort(offset + (middle << 2)) & 0xFFFF) <= low) {
+                        found = middle;
+                        from = middle + 1;
+                    } else
+                        to = middle - 1;
+                }
+                return found >= 0 && low - (buffer.getShort(offset + (found << 2)) & 0xFFFF) <= (buffer.getShort(offset + (found << 2) + 2) & 0xFFFF);
+            }
+        }
+    }
+
+    /**
+     * @return index of container with key or -1 if there is none
+     */
+    private int find(final int key) {
+        int from = 0;
+        int to = containers - 1;
+        while (from <= to) {
+            final int middle = (from + to) >>> 1;
+            final int middleKey = key(middle);
+            if (middleKey < key)
+                from = middle + 1;
+            else if (middleKey > key)
+                to = middle - 1;
+            else
+                return middle;
+        }
+        return -1;
+    }
+
+    private int key(final int container) {
+        return buffer.getShort(HEADER_BYTES + container * ENTRY_BYTES) & 0xFFFF;
+    }
+
+    int type(final int container) {
+        return buffer.getShort(HEADER_BYTES + container * ENTRY_BYTES + 2);
+    }
+
+    private int cardinality(final int container) {
+        return buffer.getInt(HEADER_BYTES + container * ENTRY_BYTES + 4);
+    }
+
+    private int offset(final int container) {
+        return buffer.getInt(HEADER_BYTES + container * ENTRY_BYTES + 8);
+    }
+
+    private int length(final int container) {
+        return buffer.getInt(HEADER_BYTES + container * ENTRY_BYTES + 12);
+    }
+
+    private static ByteBuffer scratch(final DirectBufferPool pool) {
+        return pool.acquire(BITMAP_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void zero(final ByteBuffer bits) {
+        for (int index = 0; index < BITMAP_BYTES; index += 8)
+            bits.putLong(index, 0);
+    }
+
+    /**
+     * sets bits from inclusive from to noninclusive to
+     */
+    private static void setRange(final ByteBuffer bits, final int from, final int to) {
+        final int firstWord = from >>> 6 << 3;
+        final int lastWord = (to - 1) >>> 6 << 3;
+        final long firstMask = -1L << from;
+        final long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            bits.putLong(firstWord, bits.getLong(firstWord) | (firstMask & lastMask));
+            return;
+        }
+        bits.putLong(firstWord, bits.getLong(firstWord) | firstMask);
+        for (int word = firstWord + 8; word < lastWord; word += 8)
+            bits.putLong(word, -1L);
+        bits.putLong(lastWord, bits.getLong(lastWord) | lastMask);
+    }
+
+    /**
+     * @return index of first set (or clear if set is false) bit from inclusive from or CHUNK_BITS if there is none
+     */
+    private static int next(final ByteBuffer bits, final int from, final boolean set) {
+        if (from >= CHUNK_BITS)
+            return CHUNK_BITS;
+        final long flip = set ? 0 : -1L;
+        int word = from >>> 6;
+        long value = (bits.getLong(word << 3) ^ flip) & -1L << from;
+        while (value == 0) {
+            if (++word == CHUNK_BITS / 64)
+                return CHUNK_BITS;
+            value = bits.getLong(word << 3) ^ flip;
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(value);
+    }
+
+    /**
+     * @return type of smallest container for values
+     */
+    private static int smallest(final long cardinality, final int runs) {
+        final long runBytes = runs * 4L;
+        if (cardinality <= MAX_ARRAY_CARDINALITY && cardinality * 2 <= runBytes)
+            return ARRAY;
+        return runBytes < BITMAP_BYTES ? RUN : BITMAP;
+    }
+
+    /**
+     * collects containers of new bitmap, serialized form is built at end
+     */
+    private static final class Writer {
+        private int[] entries = new int[5 * 16];
+        private int count;
+        private ByteBuffer payloads = ByteBuffer.allocate(1 << 12).order(ByteOrder.LITTLE_ENDIAN);
+        private int size;
+
+        /**
+         * @return index of payload of new container
+         */
+        private int begin(final int key, final int type, final long cardinality, final int length) {
+            final int start = type == BITMAP ? (size + 7) & ~7 : size;
+            if (start + length > payloads.capacity()) {
+                final ByteBuffer grown = ByteBuffer.allocate(Math.max(payloads.capacity() * 2, start + length)).order(ByteOrder.LITTLE_ENDIAN);
+                grown.put(payloads.array(), 0, size);
+                payloads = grown;
+            }
+            if (count * 5 == entries.length)
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            final int entry = count++ * 5;
+            entries[entry] = key;
+            entries[entry + 1] = type;
+            entries[entry + 2] = (int) cardinality;
+            entries[entry + 3] = start;
+            entries[entry + 4] = length;
+            size = start + length;
+            return start;
+        }
+
+        /**
+         * copies container of bitmap as is
+         */
+        void copy(final CompressedBitmap bitmap, final int container) {
+            final int offset = bitmap.offset(container);
+            final int length = bitmap.length(container);
+            final int start = begin(bitmap.key(container), bitmap.type(container), bitmap.cardinality(container), length);
+            for (int index = 0; index < length; index++)
+                payloads.put(start + index, bitmap.buffer.get(offset + index));
+        }
+
+        /**
+         * stores sorted distinct low 16 bits of values
+         */
+        void sorted(final int key, final int[] values, final int cardinality, final ByteBuffer scratch) {
+            if (cardinality == 0)
+                return;
+            int runs = 1;
+            for (int index = 1; index < cardinality; index++)
+                if (values[index] != values[index - 1] + 1)
+                    runs++;
+            switch (smallest(cardinality, runs)) {
+                case ARRAY: {
+                    final int start = begin(key, ARRAY, cardinality, cardinality << 1);
+                    for (int index = 0; index < cardinality; index++)
+                        payloads.putShort(start + (index << 1), (short) values[index]);
+                    break;
+                }
+                case RUN: {
+                    int run = begin(key, RUN, cardinality, runs << 2);
+                    for (int index = 0; index < cardinality; run += 4) {
+                        int end = index;
+                        while (end + 1 < cardinality && values[end + 1] == values[end] + 1)
+                            end++;
+                        payloads.putShort(run, (short) values[index]);
+                        payloads.putShort(run + 2, (short) (values[end] - values[index]));
+                        index = end + 1;
+                    }
+                    break;
+                }
+                default:
+                    zero(scratch);
+                    for (int index = 0; index < cardinality; index++) {
+                        final int word = values[index] >>> 6 << 3;
+                        scratch.putLong(word, scratch.getLong(word) | 1L << values[index]);
+                    }
+                    bitmap(key, cardinality, scratch);
+            }
+        }
+
+        /**
+         * stores 8 kB of bits
+         */
+        void dense(final int key, final ByteBuffer bits) {
+            final long cardinality = BulkBitReductions.popcount(bits, 0, BITMAP_BYTES);
+            if (cardinality == 0)
+                return;
+            //run starts at every set bit with clear bit before it
+            int runs = 0;
+            long previous = 0;
+            for (int index = 0; index < BITMAP_BYTES; index += 8) {
+                final long word = bits.getLong(index);
+                runs += Long.bitCount(word & ~(word << 1 | previous >>> 63));
+                previous = word;
+            }
+            switch (smallest(cardinality, runs)) {
+                case ARRAY: {
+                    int value = begin(key, ARRAY, cardinality, (int) cardinality << 1);
+                    for (int index = 0; index < BITMAP_BYTES; index += 8)
+                        for (long word = bits.getLong(index); word != 0; word &= word - 1, value += 2)
+                            payloads.putShort(value, (short) ((index << 3) + Long.numberOfTrailingZeros(word)));
+                    break;
+                }
+                case RUN: {
+                    int run = begin(key, RUN, cardinality, runs << 2);
+                    for (int start = next(bits, 0, true); start < CHUNK_BITS; run += 4) {
+                        final int end = next(bits, start, false);
+                        payloads.putShort(run, (short) start);
+                        payloads.putShort(run + 2, (short) (end - start - 1));
+                        start = next(bits, end, true);
+                    }
+                    break;
+                }
+                default:
+                    bitmap(key, cardinality, bits);
+            }
+        }
+
+        private void bitmap(final int key, final long cardinality, final ByteBuffer bits) {
+            final int start = begin(key, BITMAP, cardinality, BITMAP_BYTES);
+            for (int index = 0; index < BITMAP_BYTES; index += 8)
+                payloads.putLong(start + index, bits.getLong(index));
+        }
+
+        CompressedBitmap build() {
+            final int payloadStart = HEADER_BYTES + count * ENTRY_BYTES;
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(payloadStart + size).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, count);
+            for (int container = 0; container < count; container++) {
+                final int entry = HEADER_BYTES + container * ENTRY_BYTES;
+                buffer.putShort(entry, (short) entries[container * 5]);
+                buffer.putShort(entry + 2, (short) entries[container * 5 + 1]);
+                buffer.putInt(entry + 4, entries[container * 5 + 2]);
+                buffer.putInt(entry + 8, payloadStart + entries[container * 5 + 3]);
+                buffer.putInt(entry + 12, entries[container * 5 + 4]);
+            }
+            buffer.position(payloadStart);
+            buffer.put(payloads.array(), 0, size);
+            buffer.clear();
+            return new CompressedBitmap(buffer);
+        }
+    }
+}
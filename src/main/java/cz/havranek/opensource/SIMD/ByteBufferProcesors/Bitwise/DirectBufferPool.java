@@ -0,0 +1,149 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pool of direct buffers for scratch and output data, so steady state of transformations allocates nothing
+ * buffers are kept in size classes of powers of 2 (from MIN_CLASS_SIZE to MAX_CLASS_SIZE), addresses of buffers are aligned to 64 bytes (cache line)
+ * when Unsafe is accessible
+ * <p>
+ * every thread has one cached buffer of every class up to MAX_LOCAL_CLASS_SIZE (acquired and released without any synchronization),
+ * so cache of one thread holds less than 2 * MAX_LOCAL_CLASS_SIZE bytes,
+ * other released buffers (and all buffers of bigger classes) are kept in fixed count of shared slots of class taken by compare and set (lock free, no garbage is created),
+ * buffers which don't fit to slots are left to GC
+ * <p>
+ * acquired buffer has to be released explicitly (at most once and only to pool it was acquired from) and must not be used after release
+ * is thread save
+ */
+final public class DirectBufferPool {
+    /**
+     * size of smallest class
+     */
+    public static final int MIN_CLASS_SIZE = 1 << 6;
+    /**
+     * size of biggest class
+     */
+    public static final int MAX_CLASS_SIZE = 1 << 30;
+    /**
+     * size of biggest class cached per thread
+     */
+    public static final int MAX_LOCAL_CLASS_SIZE = 1 << 20;
+    /**
+     * default count of shared slots of every class
+     */
+    public static final int DEFAULT_SLOTS = 16;
+
+    private static final int MIN_SHIFT = 6;
+    private static final int CLASSES = 30 - MIN_SHIFT + 1;
+    private static final int LOCAL_CLASSES = 20 - MIN_SHIFT + 1;
+    private static final int ALIGNMENT = 64;
+    private static final DirectBufferPool SHARED = new DirectBufferPool(DEFAULT_SLOTS);
+
+    private final int slots;
+    private final AtomicReferenceArray<ByteBuffer> shared;
+    private final ThreadLocal<ByteBuffer[]> local = ThreadLocal.withInitial(() -> new ByteBuffer[LOCAL_CLASSES]);
+
+    /**
+     * Construct empty pool
+     *
+     * @param slots count of shared slots of every class (0 means only buffers up to MAX_LOCAL_CLASS_SIZE are cached, per thread)
+     * @throws IllegalArgumentException if slots is negative
+     */
+    public DirectBufferPool(final int slots) {
+        if (slots < 0)
+            throw new IllegalArgumentException("Count of slots (" + slots + ") must not be negative");
+        this.slots = slots;
+        shared = new AtomicReferenceArray<>(CLASSES * slots);
+    }
+
+    /**
+     * @return pool shared by whole VM (used by ChannelBulkBitwise)
+     */
+    public static DirectBufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Acquires buffer from pool (or allocates new one if pool has no buffer of needed class)
+     *
+     * @param size needed count of bytes
+     * @return direct buffer with capacity of size class, position 0, limit size and big endian order
+     * @throws IllegalArgumentException if size is negative or bigger than MAX_CLASS_SIZE
+     */
+    public ByteBuffer acquire(final int size) {
+        final int sizeClass = sizeClass(size);
+        ByteBuffer buffer = null;
+        if (sizeClass < LOCAL_CLASSES) {
+            final ByteBuffer[] cached = local.get();
+            buffer = cached[sizeClass];
+            cached[sizeClass] = null;
+        }
+        if (buffer == null) {
+            buffer = takeShared(sizeClass);
+            if (buffer == null)
+                buffer = allocate(MIN_CLASS_SIZE << sizeClass);
+        }
+        buffer.clear();
+        buffer.limit(size);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Returns buffer to pool
+     *
+     * @param buffer buffer acquired from this pool
+     * @throws IllegalArgumentException if buffer can't come from pool (is not direct or its capacity is not size of class)
+     */
+    public void release(final ByteBuffer buffer) {
+        final int capacity = buffer.capacity();
+        if (!buffer.isDirect() || capacity < MIN_CLASS_SIZE || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Buffer (direct " + buffer.isDirect() + ", capacity " + capacity + ") is not from pool");
+        final int sizeClass = sizeClass(capacity);
+        if (sizeClass < LOCAL_CLASSES) {
+            final ByteBuffer[] cached = local.get();
+            if (cached[sizeClass] == null) {
+                cached[sizeClass] = buffer;
+                return;
+            }
+        }
+        final int first = sizeClass * slots;
+        for (int slot = first; slot < first + slots; slot++)
+            if (shared.get(slot) == null && shared.compareAndSet(slot, null, buffer))
+                return;
+        //pool is full, buffer is freed by GC
+    }
+
+    private ByteBuffer takeShared(final int sizeClass) {
+        final int first = sizeClass * slots;
+        for (int slot = first; slot < first + slots; slot++) {
+            final ByteBuffer buffer = shared.get(slot);
+            if (buffer != null && shared.compareAndSet(slot, buffer, null))
+                return buffer;
+        }
+        return null;
+    }
+
+    private static int sizeClass(final int size) {
+        if (size < 0 || size > MAX_CLASS_SIZE)
+            throw new IllegalArgumentException("Size (" + size + ") must be from 0 to " + MAX_CLASS_SIZE);
+        if (size <= MIN_CLASS_SIZE)
+            return 0;
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    /**
+     * @return direct buffer of capacity size aligned to 64 bytes (slice of bigger buffer) or plain direct buffer if alignment can't be determined
+     */
+    private static ByteBuffer allocate(final int size) {
+        if (!UnsafeAccess.isAvailable() || size > MAX_CLASS_SIZE - ALIGNMENT)
+            return ByteBuffer.allocateDirect(size);
+        final ByteBuffer whole = ByteBuffer.allocateDirect(size + ALIGNMENT - 1);
+        final int prologue = AlignedBulkBitwise.prologueLength(whole, 0, ALIGNMENT);
+        whole.position(Math.max(prologue, 0));
+        whole.limit(whole.position() + size);
+        return whole.slice();
+    }
+}
@@ -0,0 +1,213 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Executes operation of any processor (for example processor::AND or ShortBulkBitwise::NOT) on files of any size (not limited by 2 GB of one ByteBuffer)
+ * file is walked in windows mapped by MappedByteBuffer, next window is prefetched (MappedByteBuffer.load) on executor while current one is processed
+ * windows start at multiples of window size (multiple of page size), so they are page aligned and no short or int is split between windows,
+ * bytes of incomplete element at end of file are untouched (as in ShortBulkBitwise and IntBulkBitwise)
+ * <p>
+ * every window is passed to operation from position 0 to its limit, it must not keep reference to it as window is unmapped after processing
+ * out of place operations (for example processor::AND(source, target)) are applied by transfer in one pass from window of source to window of target,
+ * in place operations to other file copy window first and so they make two passes
+ * writes are flushed by operating system, use FileChannel.force if they have to be durable
+ */
+final public class FileBulkBitwise {
+    /**
+     * size of memory page, window size has to be multiple of it
+     */
+    public static final int PAGE_SIZE = UnsafeAccess.pageSize();
+    /**
+     * default size of window (64 MB)
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 26;
+
+    private final int windowSize;
+    private final ByteOrder order;
+    private final Executor prefetcher;
+
+    /**
+     * Construct executor with default window size, windows in big endian order (as ByteBuffer.allocate) and prefetch on common pool
+     */
+    public FileBulkBitwise() {
+        this(DEFAULT_WINDOW_SIZE, ByteOrder.BIG_ENDIAN, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construct executor
+     *
+     * @param windowSize size of mapped window, positive multiple of PAGE_SIZE
+     * @param order      byte order of windows passed to operation
+     * @param prefetcher executor loading next window
+     * @throws IllegalArgumentException if window size is not positive multiple of PAGE_SIZE
+     */
+    public FileBulkBitwise(final int windowSize, final ByteOrder order, final Executor prefetcher) {
+        if (windowSize <= 0 || windowSize % PAGE_SIZE != 0)
+            throw new IllegalArgumentException("Window size (" + windowSize + ") must be positive multiple of page size (" + PAGE_SIZE + ")");
+        this.windowSize = windowSize;
+        this.order = order;
+        this.prefetcher = prefetcher;
+    }
+
+    /**
+     * Execute operation on whole file in place
+     *
+     * @param file      existing writable file
+     * @param operation operation to execute on every window
+     * @throws IOException if file can't be opened or mapped
+     */
+    public void execute(final Path file, final Consumer<ByteBuffer> operation) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            execute(channel, operation);
+        }
+    }
+
+    /**
+     * Execute operation on whole file and store result to target file (source is untouched)
+     * target is created or truncated and has same size as source
+     * every window is copied to target and then processed there (two passes), transfer with out of place operation makes one
+     *
+     * @param source    existing readable file
+     * @param target    writable file
+     * @param operation operation to execute on every window
+     * @throws IOException if any file can't be opened or mapped
+     */
+    public void execute(final Path source, final Path target, final Consumer<ByteBuffer> operation) throws IOException {
+        try (FileChannel input = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel output = FileChannel.open(target, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            execute(input, output, operation);
+        }
+    }
+
+    /**
+     * Execute out of place operation on whole file with result stored to target file in one pass (source is untouched)
+     * target is created or truncated and has same size as source
+     *
+     * @param source    existing readable file
+     * @param target    writable file
+     * @param operation out of place operation (source window, target window) to execute on every window
+     * @throws IOException if any file can't be opened or mapped
+     */
+    public void transfer(final Path source, final Path target, final BiConsumer<ByteBuffer, ByteBuffer> operation) throws IOException {
+        try (FileChannel input = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel output = FileChannel.open(target, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            transfer(input, output, operation);
+        }
+    }
+
+    /**
+     * Execute operation on whole channel in place, channel is not closed
+     *
+     * @param channel   channel opened for reading and writing
+     * @param operation operation to execute on every window
+     * @throws IOException if channel can't be mapped
+     */
+    public void execute(final FileChannel channel, final Consumer<ByteBuffer> operation) throws IOException {
+        final long size = channel.size();
+        MappedByteBuffer current = map(channel, FileChannel.MapMode.READ_WRITE, 0, size);
+        CompletableFuture<Void> currentLoad = CompletableFuture.completedFuture(null);
+        for (long offset = 0; current != null; offset += windowSize) {
+            final MappedByteBuffer next = map(channel, FileChannel.MapMode.READ_WRITE, offset + windowSize, size);
+            final CompletableFuture<Void> nextLoad = prefetch(next);
+            //window is released only after its prefetch has finished
+            currentLoad.join();
+            operation.accept(current);
+            UnsafeAccess.release(current);
+            current = next;
+            currentLoad = nextLoad;
+        }
+    }
+
+    /**
+     * Execute operation on whole input channel and store result to output channel (input is untouched), channels are not closed
+     * output gets same size as input
+     * every window is copied to output and then processed there (two passes), transfer with out of place operation makes one
+     *
+     * @param input     channel opened for reading
+     * @param output    channel opened for reading and writing
+     * @param operation operation to execute on every window
+     * @throws IOException if any channel can't be mapped
+     */
+    public void execute(final FileChannel input, final FileChannel output, final Consumer<ByteBuffer> operation) throws IOException {
+        final long size = input.size();
+        if (output.size() > size)
+            output.truncate(size);
+        MappedByteBuffer current = map(input, FileChannel.MapMode.READ_ONLY, 0, size);
+        CompletableFuture<Void> currentLoad = CompletableFuture.completedFuture(null);
+        for (long offset = 0; current != null; offset += windowSize) {
+            final MappedByteBuffer next = map(input, FileChannel.MapMode.READ_ONLY, offset + windowSize, size);
+            final CompletableFuture<Void> nextLoad = prefetch(next);
+            final MappedByteBuffer result = map(output, FileChannel.MapMode.READ_WRITE, offset, size);
+            //window is released only after its prefetch has finished
+            currentLoad.join();
+            result.put(current);
+            result.clear();
+            operation.accept(result);
+            UnsafeAccess.release(result);
+            UnsafeAccess.release(current);
+            current = next;
+            currentLoad = nextLoad;
+        }
+    }
+
+    /**
+     * Execute out of place operation on whole input channel with result stored to output channel in one pass (input is untouched),
+     * channels are not closed
+     * output gets same size as input
+     *
+     * @param input     channel opened for reading
+     * @param output    channel opened for reading and writing
+     * @param operation out of place operation (source window, target window) to execute on every window
+     * @throws IOException if any channel can't be mapped
+     */
+    public void transfer(final FileChannel input, final FileChannel output, final BiConsumer<ByteBuffer, ByteBuffer> operation) throws IOException {
+        final long size = input.size();
+        if (output.size() > size)
+            output.truncate(size);
+        MappedByteBuffer current = map(input, FileChannel.MapMode.READ_ONLY, 0, size);
+        CompletableFuture<Void> currentLoad = CompletableFuture.completedFuture(null);
+        for (long offset = 0; current != null; offset += windowSize) {
+            final MappedByteBuffer next = map(input, FileChannel.MapMode.READ_ONLY, offset + windowSize, size);
+            final CompletableFuture<Void> nextLoad = prefetch(next);
+            final MappedByteBuffer result = map(output, FileChannel.MapMode.READ_WRITE, offset, size);
+            //window is released only after its prefetch has finished
+            currentLoad.join();
+            operation.accept(current, result);
+            UnsafeAccess.release(result);
+            UnsafeAccess.release(current);
+            current = next;
+            currentLoad = nextLoad;
+        }
+    }
+
+    /**
+     * @return window starting at offset or null if offset is at end of file
+     */
+    private MappedByteBuffer map(final FileChannel channel, final FileChannel.MapMode mode, final long offset, final long size) throws IOException {
+        if (offset >= size)
+            return null;
+        final MappedByteBuffer window = channel.map(mode, offset, Math.min(windowSize, size - offset));
+        window.order(order);
+        return window;
+    }
+
+    private CompletableFuture<Void> prefetch(final MappedByteBuffer window) {
+        if (window == null)
+            return CompletableFuture.completedFuture(null);
+        return CompletableFuture.runAsync(window::load, prefetcher);
+    }
+}
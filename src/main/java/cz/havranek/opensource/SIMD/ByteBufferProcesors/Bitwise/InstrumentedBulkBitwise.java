@@ -0,0 +1,210 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise.BulkBitwiseMetrics.Operation;
+
+/**
+ * Decorator recording calls, processed bytes and latency of every operation of any processor to BulkBitwiseMetrics
+ * instrumentation costs nothing when it is not used (processor is simply not wrapped),
+ * static NOT of processors is instrumented by {@link #NOT(Consumer, BulkBitwiseMetrics)}, {@link #rangeNOT(BulkRangeOperation, BulkBitwiseMetrics)}
+ * and {@link #transferNOT(BiConsumer, BulkBitwiseMetrics)}
+ * calls which throw are not recorded
+ */
+final public class InstrumentedBulkBitwise implements BulkBitwiseI {
+    private final BulkBitwiseI delegate;
+    private final BulkBitwiseMetrics metrics;
+
+    /**
+     * Construct decorator
+     *
+     * @param delegate processor to instrument
+     * @param metrics  metrics to record to (can be shared by more decorators)
+     */
+    public InstrumentedBulkBitwise(final BulkBitwiseI delegate, final BulkBitwiseMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Execute bitwise AND operation of decorated processor from current position of buffer to it's limit
+     * position is moved to limit
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void AND(final ByteBuffer toProcess) {
+        final int length = toProcess.remaining();
+        final long start = System.nanoTime();
+        delegate.AND(toProcess);
+        metrics.record(Operation.AND, length, System.nanoTime() - start);
+    }
+
+    /**
+     * Execute bitwise AND operation of decorated processor from fromIndex to toIndex
+     * position and limit are untouched
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void AND(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        final long start = System.nanoTime();
+        delegate.AND(toProcess, fromIndex, toIndex);
+        metrics.record(Operation.AND, toIndex - fromIndex, System.nanoTime() - start);
+    }
+
+    /**
+     * Execute bitwise OR operation of decorated processor from current position of buffer to it's limit
+     * position is moved to limit
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void OR(final ByteBuffer toProcess) {
+        final int length = toProcess.remaining();
+        final long start = System.nanoTime();
+        delegate.OR(toProcess);
+        metrics.record(Operation.OR, length, System.nanoTime() - start);
+    }
+
+    /**
+     * Execute bitwise OR operation of decorated processor from fromIndex to toIndex
+     * position and limit are untouched
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void OR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        final long start = System.nanoTime();
+        delegate.OR(toProcess, fromIndex, toIndex);
+        metrics.record(Operation.OR, toIndex - fromIndex, System.nanoTime() - start);
+    }
+
+    /**
+     * Execute bitwise XOR operation of decorated processor from current position of buffer to it's limit
+     * position is moved to limit
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void XOR(final ByteBuffer toProcess) {
+        final int length = toProcess.remaining();
+        final long start = System.nanoTime();
+        delegate.XOR(toProcess);
+        metrics.record(Operation.XOR, length, System.nanoTime() - start);
+    }
+
+    /**
+     * Execute bitwise XOR operation of decorated processor from fromIndex to toIndex
+     * position and limit are untouched
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void XOR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        final long start = System.nanoTime();
+        delegate.XOR(toProcess, fromIndex, toIndex);
+        metrics.record(Operation.XOR, toIndex - fromIndex, System.nanoTime() - start);
+    }
+
+    /**
+     * Execute bitwise AND operation of decorated processor on source and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void AND(final ByteBuffer source, final ByteBuffer target) {
+        final int length = source.remaining();
+        final long start = System.nanoTime();
+        delegate.AND(source, target);
+        metrics.record(Operation.AND, length, System.nanoTime() - start);
+    }
+
+    /**
+     * Execute bitwise OR operation of decorated processor on source and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void OR(final ByteBuffer source, final ByteBuffer target) {
+        final int length = source.remaining();
+        final long start = System.nanoTime();
+        delegate.OR(source, target);
+        metrics.record(Operation.OR, length, System.nanoTime() - start);
+    }
+
+    /**
+     * Execute bitwise XOR operation of decorated processor on source and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void XOR(final ByteBuffer source, final ByteBuffer target) {
+        final int length = source.remaining();
+        final long start = System.nanoTime();
+        delegate.XOR(source, target);
+        metrics.record(Operation.XOR, length, System.nanoTime() - start);
+    }
+
+    /**
+     * @param not     NOT operation to instrument (for example ShortBulkBitwise::NOT)
+     * @param metrics metrics to record to
+     * @return NOT operation recording its calls
+     */
+    public static Consumer<ByteBuffer> NOT(final Consumer<ByteBuffer> not, final BulkBitwiseMetrics metrics) {
+        return toProcess -> {
+            final int length = toProcess.remaining();
+            final long start = System.nanoTime();
+            not.accept(toProcess);
+            metrics.record(Operation.NOT, length, System.nanoTime() - start);
+        };
+    }
+
+    /**
+     * @param not     NOT operation working on range to instrument (for example ShortBulkBitwise::NOT)
+     * @param metrics metrics to record to
+     * @return NOT operation recording its calls
+     */
+    public static BulkRangeOperation rangeNOT(final BulkRangeOperation not, final BulkBitwiseMetrics metrics) {
+        return (toProcess, fromIndex, toIndex) -> {
+            final long start = System.nanoTime();
+            not.apply(toProcess, fromIndex, toIndex);
+            metrics.record(Operation.NOT, toIndex - fromIndex, System.nanoTime() - start);
+        };
+    }
+
+    /**
+     * @param not     out of place NOT operation to instrument (for example ShortBulkBitwise::NOT)
+     * @param metrics metrics to record to
+     * @return NOT operation recording its calls
+     */
+    public static BiConsumer<ByteBuffer, ByteBuffer> transferNOT(final BiConsumer<ByteBuffer, ByteBuffer> not, final BulkBitwiseMetrics metrics) {
+        return (source, target) -> {
+            final int length = source.remaining();
+            final long start = System.nanoTime();
+            not.accept(source, target);
+            metrics.record(Operation.NOT, length, System.nanoTime() - start);
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 
 /**
@@ -14,12 +15,7 @@ final public class IntBulkBitwise implements BulkBitwiseI {
 
 
     static private long intToLongBitPattern(int in) {
-        final long nativeTransformed = (long) in;
-
-        final long extractMask = 0b1000000000000000000000000000000000000000000000000000000000000000L;
-
-        final long singMask = 0b11111111111111111111111111111111L;
-        return (((nativeTransformed & extractMask) >>> 32)| nativeTransformed) & singMask;
+        return in & 0xFFFFFFFFL;
     }
 
     /**
@@ -36,7 +32,7 @@ final public class IntBulkBitwise implements BulkBitwiseI {
 
     /**
      * Execute bitwise AND operation on All ints with constant specified in constructor from current position of buffer to it's limit
-     * position is affected during execution
+     * position is moved to limit
      * is thread save if nothing else is modifying(reading data) of buffer
      *
      * @param toProcess writable non null instance
@@ -44,19 +40,36 @@ final public class IntBulkBitwise implements BulkBitwiseI {
 
     @Override
     final public void AND(ByteBuffer toProcess) {
-        final int bufferSize = toProcess.limit();
-        final int lastLongIndex = bufferSize - 7;
+        AND(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
 
-        while (toProcess.position() < lastLongIndex)
-            toProcess.putLong(toProcess.getLong(toProcess.position()) & LONG_FILTER);
+    /**
+     * Execute bitwise AND operation on All ints with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    final public void AND(ByteBuffer toProcess, int fromIndex, int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        int index = fromIndex;
 
-        if (toProcess.position() < bufferSize - 3)
-            toProcess.putInt(toProcess.getInt(toProcess.position()) & INT_FILTER);
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, toProcess.getLong(index) & LONG_FILTER);
+
+        if (index < toIndex - 3)
+            toProcess.putInt(index, toProcess.getInt(index) & INT_FILTER);
     }
 
     /**
      * Executes bitwise OR operation on All ints with constant specified in constructor from current position of buffer to it's limit
-     * position is affected during execution
+     * position is moved to limit
      * is thread save if nothing else is modifying(reading data) of buffer
      *
      * @param toProcess writable non null instance
@@ -64,19 +77,36 @@ final public class IntBulkBitwise implements BulkBitwiseI {
 
     @Override
     final public void OR(ByteBuffer toProcess) {
-        final int bufferSize = toProcess.limit();
-        final int lastLongIndex = bufferSize - 7;
+        OR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Executes bitwise OR operation on All ints with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    final public void OR(ByteBuffer toProcess, int fromIndex, int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        int index = fromIndex;
 
-        while (toProcess.position() < lastLongIndex)
-            toProcess.putLong(toProcess.getLong(toProcess.position()) | LONG_FILTER);
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, toProcess.getLong(index) | LONG_FILTER);
 
-        if (toProcess.position() < bufferSize - 3)
-            toProcess.putInt(toProcess.getInt(toProcess.position()) | INT_FILTER);
+        if (index < toIndex - 3)
+            toProcess.putInt(index, toProcess.getInt(index) | INT_FILTER);
     }
 
     /**
      * Execute bitwise Xor operation on All ints with constant specified in constructor from current position of buffer to it's limit
-     * position is affected during execution
+     * position is moved to limit
      * is thread save if nothing else is modifying(reading data) of buffer
      *
      * @param toProcess writable non null instance
@@ -84,33 +114,168 @@ final public class IntBulkBitwise implements BulkBitwiseI {
 
     @Override
     final public void XOR(ByteBuffer toProcess) {
-        final int bufferSize = toProcess.limit();
-        final int lastLongIndex = bufferSize - 7;
+        XOR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise Xor operation on All ints with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    final public void XOR(ByteBuffer toProcess, int fromIndex, int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        int index = fromIndex;
 
-        while (toProcess.position() < lastLongIndex)
-            toProcess.putLong(toProcess.getLong(toProcess.position()) ^ LONG_FILTER);
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, toProcess.getLong(index) ^ LONG_FILTER);
 
-        if (toProcess.position() < bufferSize - 3)
-            toProcess.putInt(toProcess.getInt(toProcess.position()) ^ INT_FILTER);
+        if (index < toIndex - 3)
+            toProcess.putInt(index, toProcess.getInt(index) ^ INT_FILTER);
+    }
+
+    /**
+     * Execute bitwise AND operation on All ints of source with constant specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    final public void AND(ByteBuffer source, ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final boolean swap = source.order() != target.order();
+        final int longs = length - length % 8;
+        int index = 0;
+
+        for (; index < longs; index += 8)
+            target.putLong(targetIndex + index, ByteBuffTools.getLong(source, sourceIndex + index, swap) & LONG_FILTER);
+
+        ByteBuffTools.copy(source, sourceIndex + index, target, targetIndex + index, length - index);
+        AND(target, targetIndex + index, targetIndex + length);
+        ByteBuffTools.advance(source, target, length);
+    }
+
+    /**
+     * Execute bitwise OR operation on All ints of source with constant specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    final public void OR(ByteBuffer source, ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final boolean swap = source.order() != target.order();
+        final int longs = length - length % 8;
+        int index = 0;
+
+        for (; index < longs; index += 8)
+            target.putLong(targetIndex + index, ByteBuffTools.getLong(source, sourceIndex + index, swap) | LONG_FILTER);
+
+        ByteBuffTools.copy(source, sourceIndex + index, target, targetIndex + index, length - index);
+        OR(target, targetIndex + index, targetIndex + length);
+        ByteBuffTools.advance(source, target, length);
+    }
+
+    /**
+     * Execute bitwise Xor operation on All ints of source with constant specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    final public void XOR(ByteBuffer source, ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final boolean swap = source.order() != target.order();
+        final int longs = length - length % 8;
+        int index = 0;
+
+        for (; index < longs; index += 8)
+            target.putLong(targetIndex + index, ByteBuffTools.getLong(source, sourceIndex + index, swap) ^ LONG_FILTER);
+
+        ByteBuffTools.copy(source, sourceIndex + index, target, targetIndex + index, length - index);
+        XOR(target, targetIndex + index, targetIndex + length);
+        ByteBuffTools.advance(source, target, length);
     }
 
     /**
      * Execute bitwise NOT operation on All ints from current position of buffer to it's limit
-     * position is affected during execution
+     * position is moved to limit
      * is thread save if nothing else is modifying(reading data) of buffer
      *
      * @param toProcess writable non null instance
      */
 
     public static void NOT(ByteBuffer toProcess) {
-        final int bufferSize = toProcess.limit();
-        final int lastLongIndex = bufferSize - 7;
+        NOT(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise NOT operation on All ints from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public static void NOT(ByteBuffer toProcess, int fromIndex, int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, ~toProcess.getLong(index));
+
+        if (index < toIndex - 3)
+            toProcess.putInt(index, ~toProcess.getInt(index));
+    }
 
-        while (toProcess.position() < lastLongIndex)
-            toProcess.putLong(~toProcess.getLong(toProcess.position()));
+    /**
+     * Execute bitwise NOT operation on All ints of source and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    public static void NOT(ByteBuffer source, ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final boolean swap = source.order() != target.order();
+        final int longs = length - length % 8;
+        int index = 0;
 
-        if (toProcess.position() < bufferSize - 3)
-            toProcess.putInt(~toProcess.getInt(toProcess.position()));
+        for (; index < longs; index += 8)
+            target.putLong(targetIndex + index, ~ByteBuffTools.getLong(source, sourceIndex + index, swap));
 
+        ByteBuffTools.copy(source, sourceIndex + index, target, targetIndex + index, length - index);
+        NOT(target, targetIndex + index, targetIndex + length);
+        ByteBuffTools.advance(source, target, length);
     }
-}
\ No newline at end of file
+}
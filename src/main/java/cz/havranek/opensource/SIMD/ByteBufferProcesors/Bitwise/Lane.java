@@ -0,0 +1,54 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+/**
+ * Width of elements processors work with, constants are replicated over whole long to be usable in long main loop
+ * (same way as LONG_FILTER of processors is built)
+ * constant of LONG lane is sign extended to long (LongBulkBitwise takes whole 64 bit constants)
+ */
+public enum Lane {
+    BYTE(1, 0b11111111),
+    SHORT(2, 0b11111111 | (0b11111111 << 8)),
+    INT(4, 0xFFFFFFFFL),
+    LONG(8, -1L);
+
+    private final int bytes;
+    private final long mask;
+
+    Lane(int bytes, long mask) {
+        this.bytes = bytes;
+        this.mask = mask;
+    }
+
+    /**
+     * @return count of bytes of one element
+     */
+    public int bytes() {
+        return bytes;
+    }
+
+    /**
+     * Replicates constant over whole long
+     *
+     * @param constant constant to use... it is highly recommended to input it in 0b101010 form
+     * @return long filled with constant
+     * @throws IllegalArgumentException if argument can't be mapped to lane
+     */
+    long packedFilter(final int constant) {
+        if (this != INT && this != LONG && (constant < 0 || constant > mask))
+            throw new IllegalArgumentException("Argument (" + constant + ") is  out of range");
+        return replicate(constant);
+    }
+
+    /**
+     * Replicates lowest bits of element (element width of them) over whole long, no range check is done
+     *
+     * @param element value of element
+     * @return long filled with element
+     */
+    long replicate(final long element) {
+        long workValue = element & mask;
+        for (int shift = bytes * 8; shift < 64; shift <<= 1)
+            workValue |= workValue << shift;
+        return workValue;
+    }
+}
@@ -0,0 +1,277 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Negated and selecting bitwise operations of every element (byte, short, int or long) with constant, each of them in one pass over memory
+ * (instead of AND followed by NOT or NOT of constant computed by hand)
+ * main loop works on whole long with constant replicated same way as LONG_FILTER of processors
+ * bytes of incomplete element at end are untouched (as in ShortBulkBitwise and IntBulkBitwise)
+ * <p>
+ * same operations of two buffers are in BufferBulkBitwise, any function of three operands is evaluated by TernaryBulkBitwise
+ */
+final public class LaneBulkLogic {
+    private final Lane lane;
+    private final int laneBytes;
+    private final long FILTER;
+
+    /**
+     * Construct class for bitwise operations
+     *
+     * @param lane     width of elements to process
+     * @param constant constant to use... it is highly recommended to input it in 0b101010 form
+     * @throws IllegalArgumentException if argument can't be mapped to lane
+     */
+    public LaneBulkLogic(final Lane lane, final int constant) {
+        this.lane = lane;
+        laneBytes = lane.bytes();
+        FILTER = lane.packedFilter(constant);
+    }
+
+    /**
+     * @return element at index zero extended to long
+     */
+    private long getLane(final ByteBuffer toProcess, final int index) {
+        switch (lane) {
+            case BYTE:
+                return toProcess.get(index) & 0xFFL;
+            case SHORT:
+                return toProcess.getShort(index) & 0xFFFFL;
+            case INT:
+                return toProcess.getInt(index) & 0xFFFFFFFFL;
+            default:
+                return toProcess.getLong(index);
+        }
+    }
+
+    /**
+     * @return element of mask at index in byte order of processed buffer
+     */
+    private long getMaskLane(final ByteBuffer mask, final int index, final boolean swap) {
+        final long value = getLane(mask, index);
+        return swap ? Long.reverseBytes(value) >>> (64 - laneBytes * 8) : value;
+    }
+
+    private void putLane(final ByteBuffer toProcess, final int index, final long value) {
+        switch (lane) {
+            case BYTE:
+                toProcess.put(index, (byte) value);
+                break;
+            case SHORT:
+                toProcess.putShort(index, (short) value);
+                break;
+            case INT:
+                toProcess.putInt(index, (int) value);
+                break;
+            default:
+                toProcess.putLong(index, value);
+        }
+    }
+
+    /**
+     * Execute bitwise ANDNOT (element & ~constant) on All elements with constant specified in constructor from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    public void ANDNOT(final ByteBuffer toProcess) {
+        ANDNOT(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise ANDNOT (element & ~constant) on All elements with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public void ANDNOT(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        final int lastLaneIndex = toIndex - laneBytes;
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, toProcess.getLong(index) & ~FILTER);
+
+        for (; index <= lastLaneIndex; index += laneBytes)
+            putLane(toProcess, index, getLane(toProcess, index) & ~FILTER);
+    }
+
+    /**
+     * Execute bitwise ORNOT (element | ~constant) on All elements with constant specified in constructor from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    public void ORNOT(final ByteBuffer toProcess) {
+        ORNOT(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise ORNOT (element | ~constant) on All elements with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public void ORNOT(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        final int lastLaneIndex = toIndex - laneBytes;
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, toProcess.getLong(index) | ~FILTER);
+
+        for (; index <= lastLaneIndex; index += laneBytes)
+            putLane(toProcess, index, getLane(toProcess, index) | ~FILTER);
+    }
+
+    /**
+     * Execute bitwise NAND (~(element & constant)) on All elements with constant specified in constructor from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    public void NAND(final ByteBuffer toProcess) {
+        NAND(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise NAND (~(element & constant)) on All elements with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public void NAND(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        final int lastLaneIndex = toIndex - laneBytes;
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, ~(toProcess.getLong(index) & FILTER));
+
+        for (; index <= lastLaneIndex; index += laneBytes)
+            putLane(toProcess, index, ~(getLane(toProcess, index) & FILTER));
+    }
+
+    /**
+     * Execute bitwise NOR (~(element | constant)) on All elements with constant specified in constructor from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    public void NOR(final ByteBuffer toProcess) {
+        NOR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise NOR (~(element | constant)) on All elements with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public void NOR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        final int lastLaneIndex = toIndex - laneBytes;
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, ~(toProcess.getLong(index) | FILTER));
+
+        for (; index <= lastLaneIndex; index += laneBytes)
+            putLane(toProcess, index, ~(getLane(toProcess, index) | FILTER));
+    }
+
+    /**
+     * Execute bitwise XNOR (~(element ^ constant)) on All elements with constant specified in constructor from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    public void XNOR(final ByteBuffer toProcess) {
+        XNOR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise XNOR (~(element ^ constant)) on All elements with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public void XNOR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        final int lastLaneIndex = toIndex - laneBytes;
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, ~(toProcess.getLong(index) ^ FILTER));
+
+        for (; index <= lastLaneIndex; index += laneBytes)
+            putLane(toProcess, index, ~(getLane(toProcess, index) ^ FILTER));
+    }
+
+    /**
+     * Replaces bits of elements selected by mask with bits of constant specified in constructor ((value & ~mask) | (constant & mask))
+     * from current positions of both buffers to their limits
+     * mask is read in byte order of toProcess (its own order is ignored), positions of both buffers are moved to limits
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param toProcess writable non null instance
+     * @param mask      non null instance with same count of remaining bytes as toProcess (bit 1 selects constant)
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    public void BLEND(final ByteBuffer toProcess, final ByteBuffer mask) {
+        ByteBuffTools.validateSameRemaining(toProcess, mask);
+        final boolean swap = mask.order() != toProcess.order();
+        final int offset = mask.position() - toProcess.position();
+        final int toIndex = toProcess.limit();
+        final int lastLongIndex = toIndex - 7;
+        final int lastLaneIndex = toIndex - laneBytes;
+        int index = toProcess.position();
+
+        for (; index < lastLongIndex; index += 8) {
+            final long selected = ByteBuffTools.getLong(mask, index + offset, swap);
+            toProcess.putLong(index, (toProcess.getLong(index) & ~selected) | (FILTER & selected));
+        }
+
+        for (; index <= lastLaneIndex; index += laneBytes) {
+            final long selected = getMaskLane(mask, index + offset, swap);
+            putLane(toProcess, index, (getLane(toProcess, index) & ~selected) | (FILTER & selected));
+        }
+        toProcess.position(toIndex);
+        mask.position(mask.limit());
+    }
+}
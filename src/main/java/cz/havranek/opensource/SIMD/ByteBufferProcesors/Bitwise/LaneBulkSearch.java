@@ -0,0 +1,304 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Search and compare of elements (byte, short, int or long) with value, 8 bytes at a time without branching per element (SWAR)
+ * value is replicated over whole long (same way as LONG_FILTER of processors) and every element of long is compared at once,
+ * result of comparison is highest bit of every element of long (found by carries which never cross element)
+ * <p>
+ * elements are read in byte order of buffer and compared as unsigned (value of LONG lane is sign extended as constants of Lane), elements are counted from fromIndex (position)
+ * and bytes of incomplete element at end are ignored
+ * match bitmaps have one bit per element numbered as in java.util.BitSet.valueOf(ByteBuffer) (bit k is bit (k % 8) of byte k / 8 of bitmap)
+ * <p>
+ * nothing is written to searched buffer, its position and limit are untouched
+ * instance is immutable and is thread save if nothing else is modifying(reading data) of buffers
+ */
+final public class LaneBulkSearch {
+    private static final int EQUAL = 0;
+    private static final int LESS = 1;
+    private static final int RANGE = 2;
+
+    private final Lane lane;
+    private final int laneBytes;
+    private final int laneBits;
+    private final int lanesPerLong;
+    /**
+     * highest bit of every element
+     */
+    private final long HIGH;
+    /**
+     * all bits of every element except highest
+     */
+    private final long LOW;
+    /**
+     * multiplier gathering highest bits of elements to top byte of long
+     */
+    private final long GATHER;
+
+    /**
+     * Construct class for search operations
+     *
+     * @param lane width of elements to search
+     */
+    public LaneBulkSearch(final Lane lane) {
+        this.lane = lane;
+        laneBytes = lane.bytes();
+        laneBits = laneBytes * 8;
+        lanesPerLong = 8 / laneBytes;
+        HIGH = lane.replicate(1L << (laneBits - 1));
+        LOW = ~HIGH;
+        long gather = 0;
+        for (int element = 0; element < lanesPerLong; element++)
+            gather |= 1L << (56 - (laneBits - 1) * element);
+        GATHER = gather;
+    }
+
+    /**
+     * @return highest bit of every element of x equal to element of y
+     */
+    private long equal(final long x, final long y) {
+        final long difference = x ^ y;
+        return ~(((difference & LOW) + LOW) | difference) & HIGH;
+    }
+
+    /**
+     * @return highest bit of every element of x (unsigned) less than element of y
+     */
+    private long less(final long x, final long y) {
+        //difference of every element computed without borrow crossing element
+        final long difference = ((x | HIGH) - (y & LOW)) ^ ((x ^ ~y) & HIGH);
+        //borrow out of highest bit of element
+        return ((~x & y) | (~(x ^ y) & difference)) & HIGH;
+    }
+
+    /**
+     * @return element at index zero extended to long
+     */
+    private long getLane(final ByteBuffer toSearch, final int index) {
+        switch (lane) {
+            case BYTE:
+                return toSearch.get(index) & 0xFFL;
+            case SHORT:
+                return toSearch.getShort(index) & 0xFFFFL;
+            case INT:
+                return toSearch.getInt(index) & 0xFFFFFFFFL;
+            default:
+                return toSearch.getLong(index);
+        }
+    }
+
+    /**
+     * @param toSearch non null instance
+     * @param value    unsigned value of element
+     * @return index of first element equal to value from position to limit or -1 if there is none
+     * @throws IllegalArgumentException if value can't be mapped to lane
+     */
+    public int indexOf(final ByteBuffer toSearch, final int value) {
+        return indexOf(toSearch, toSearch.position(), toSearch.limit(), value);
+    }
+
+    /**
+     * @param toSearch  non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @param value     unsigned value of element
+     * @return index of first element equal to value in range or -1 if there is none
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     * @throws IllegalArgumentException  if value can't be mapped to lane
+     */
+    public int indexOf(final ByteBuffer toSearch, final int fromIndex, final int toIndex, final int value) {
+        ByteBuffTools.validateRange(toSearch, fromIndex, toIndex);
+        final long pattern = lane.packedFilter(value);
+        final boolean bigEndian = toSearch.order() == ByteOrder.BIG_ENDIAN;
+        final int lastLongIndex = toIndex - 7;
+        final int lastLaneIndex = toIndex - laneBytes;
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8) {
+            final long matches = equal(toSearch.getLong(index), pattern);
+            if (matches != 0) {
+                //first element is in highest bits of long read in big endian
+                final int bit = bigEndian ? Long.numberOfLeadingZeros(matches) : Long.numberOfTrailingZeros(matches);
+                return index + bit / laneBits * laneBytes;
+            }
+        }
+
+        final long element = pattern & (-1L >>> (64 - laneBits));
+        for (; index <= lastLaneIndex; index += laneBytes)
+            if (getLane(toSearch, index) == element)
+                return index;
+        return -1;
+    }
+
+    /**
+     * @param toSearch non null instance
+     * @param value    unsigned value of element
+     * @return count of elements equal to value from position to limit
+     * @throws IllegalArgumentException if value can't be mapped to lane
+     */
+    public long count(final ByteBuffer toSearch, final int value) {
+        return count(toSearch, toSearch.position(), toSearch.limit(), value);
+    }
+
+    /**
+     * @param toSearch  non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @param value     unsigned value of element
+     * @return count of elements equal to value in range
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     * @throws IllegalArgumentException  if value can't be mapped to lane
+     */
+    public long count(final ByteBuffer toSearch, final int fromIndex, final int toIndex, final int value) {
+        ByteBuffTools.validateRange(toSearch, fromIndex, toIndex);
+        final long pattern = lane.packedFilter(value);
+        final int lastLongIndex = toIndex - 7;
+        final int lastLaneIndex = toIndex - laneBytes;
+        int index = fromIndex;
+        long count = 0;
+
+        for (; index < lastLongIndex; index += 8)
+            count += Long.bitCount(equal(toSearch.getLong(index), pattern));
+
+        final long element = pattern & (-1L >>> (64 - laneBits));
+        for (; index <= lastLaneIndex; index += laneBytes)
+            if (getLane(toSearch, index) == element)
+                count++;
+        return count;
+    }
+
+    /**
+     * Writes bitmap of elements equal to value from fromIndex to toIndex
+     *
+     * @param toSearch  non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @param value     unsigned value of element
+     * @param bitmap    writable non null instance, one bit per element is written from its position (position is moved after bitmap)
+     * @return count of matching elements
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     * @throws IllegalArgumentException  if value can't be mapped to lane
+     * @throws BufferOverflowException   if bitmap has not enough bytes remaining
+     */
+    public long matchEqual(final ByteBuffer toSearch, final int fromIndex, final int toIndex, final int value, final ByteBuffer bitmap) {
+        return match(EQUAL, toSearch, fromIndex, toIndex, value, value, bitmap);
+    }
+
+    /**
+     * Writes bitmap of elements (unsigned) less than value from fromIndex to toIndex
+     *
+     * @param toSearch  non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @param value     unsigned value of element
+     * @param bitmap    writable non null instance, one bit per element is written from its position (position is moved after bitmap)
+     * @return count of matching elements
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     * @throws IllegalArgumentException  if value can't be mapped to lane
+     * @throws BufferOverflowException   if bitmap has not enough bytes remaining
+     */
+    public long matchLess(final ByteBuffer toSearch, final int fromIndex, final int toIndex, final int value, final ByteBuffer bitmap) {
+        return match(LESS, toSearch, fromIndex, toIndex, value, value, bitmap);
+    }
+
+    /**
+     * Writes bitmap of elements (unsigned) from low to high (both inclusive) from fromIndex to toIndex
+     *
+     * @param toSearch  non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @param low       unsigned inclusive lower bound
+     * @param high      unsigned inclusive upper bound
+     * @param bitmap    writable non null instance, one bit per element is written from its position (position is moved after bitmap)
+     * @return count of matching elements
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     * @throws IllegalArgumentException  if bounds can't be mapped to lane
+     * @throws BufferOverflowException   if bitmap has not enough bytes remaining
+     */
+    public long matchRange(final ByteBuffer toSearch, final int fromIndex, final int toIndex, final int low, final int high, final ByteBuffer bitmap) {
+        return match(RANGE, toSearch, fromIndex, toIndex, low, high, bitmap);
+    }
+
+    private long match(final int kind, final ByteBuffer toSearch, final int fromIndex, final int toIndex,
+                       final int first, final int second, final ByteBuffer bitmap) {
+        ByteBuffTools.validateRange(toSearch, fromIndex, toIndex);
+        final long firstPattern = lane.packedFilter(first);
+        final long secondPattern = lane.packedFilter(second);
+        final int elements = (toIndex - fromIndex) / laneBytes;
+        final int bitmapBytes = (elements + 7) / 8;
+        if (bitmap.remaining() < bitmapBytes)
+            throw new BufferOverflowException();
+        final boolean bigEndian = toSearch.order() == ByteOrder.BIG_ENDIAN;
+        final int lastLongIndex = toIndex - 7;
+        final int end = fromIndex + elements * laneBytes;
+        int bitmapIndex = bitmap.position();
+        int index = fromIndex;
+        long bits = 0;
+        int filled = 0;
+        long count = 0;
+
+        for (; index < lastLongIndex; index += 8) {
+            final long value = toSearch.getLong(index);
+            final long matches;
+            switch (kind) {
+                case EQUAL:
+                    matches = equal(value, firstPattern);
+                    break;
+                case LESS:
+                    matches = less(value, firstPattern);
+                    break;
+                default:
+                    matches = ~(less(value, firstPattern) | less(secondPattern, value)) & HIGH;
+            }
+            count += Long.bitCount(matches);
+            int gathered = (int) (((matches >>> (laneBits - 1)) * GATHER) >>> 56);
+            //first element is in highest bits of long read in big endian
+            if (bigEndian)
+                gathered = Integer.reverse(gathered) >>> (32 - lanesPerLong);
+            bits |= (long) gathered << filled;
+            filled += lanesPerLong;
+            if (filled == 64) {
+                putBits(bitmap, bitmapIndex, bits, 8);
+                bitmapIndex += 8;
+                bits = 0;
+                filled = 0;
+            }
+        }
+
+        final long firstElement = firstPattern & (-1L >>> (64 - laneBits));
+        final long secondElement = secondPattern & (-1L >>> (64 - laneBits));
+        for (; index < end; index += laneBytes) {
+            final long value = getLane(toSearch, index);
+            final boolean match;
+            switch (kind) {
+                case EQUAL:
+                    match = value == firstElement;
+                    break;
+                case LESS:
+                    match = value < firstElement;
+                    break;
+                default:
+                    match = value >= firstElement && value <= secondElement;
+            }
+            if (match) {
+                bits |= 1L << filled;
+                count++;
+            }
+            filled++;
+        }
+        putBits(bitmap, bitmapIndex, bits, (filled + 7) / 8);
+        bitmap.position(bitmap.position() + bitmapBytes);
+        return count;
+    }
+
+    /**
+     * writes lowest bytes of bits in little endian order
+     */
+    private static void putBits(final ByteBuffer bitmap, final int index, final long bits, final int bytes) {
+        for (int offset = 0; offset < bytes; offset++)
+            bitmap.put(index + offset, (byte) (bits >>> (offset * 8)));
+    }
+}
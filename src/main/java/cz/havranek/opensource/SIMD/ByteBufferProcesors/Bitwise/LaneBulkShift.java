@@ -0,0 +1,280 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Shifts and rotations of every element (byte, short, int or long) by constant distance
+ * main loop works on whole long (elements are read in byte order of buffer so every element occupies its own bits of long)
+ * and per element masks (built same way as LONG_FILTER of processors) stop bits from bleeding between elements
+ * bytes of incomplete element at end are untouched (as in ShortBulkBitwise and IntBulkBitwise)
+ */
+final public class LaneBulkShift {
+    private final Lane lane;
+    private final int laneBits;
+    private final int distance;
+    /**
+     * lowest distance bits of every element
+     */
+    private final long LOW_MASK;
+    /**
+     * highest distance bits of every element
+     */
+    private final long HIGH_MASK;
+    /**
+     * sign bit of every element
+     */
+    private final long SIGN_MASK;
+
+    /**
+     * Construct class for shift operations
+     *
+     * @param lane     width of elements to process
+     * @param distance count of bits to shift (or rotate) by, from 0 to bit width of element - 1
+     * @throws IllegalArgumentException if distance is out of element
+     */
+    public LaneBulkShift(final Lane lane, final int distance) {
+        laneBits = lane.bytes() * 8;
+        if (distance < 0 || distance >= laneBits)
+            throw new IllegalArgumentException("Distance (" + distance + ") is out of range of " + lane);
+        this.lane = lane;
+        this.distance = distance;
+        final long laneMask = -1L >>> (64 - laneBits);
+        LOW_MASK = lane.replicate((1L << distance) - 1);
+        HIGH_MASK = lane.replicate(laneMask & ~(laneMask >>> distance));
+        SIGN_MASK = lane.replicate(1L << (laneBits - 1));
+    }
+
+    private long shl(final long value) {
+        return (value << distance) & ~LOW_MASK;
+    }
+
+    private long shr(final long value) {
+        return (value >>> distance) & ~HIGH_MASK;
+    }
+
+    private long sar(final long value) {
+        final long sign = value & SIGN_MASK;
+        //sign - (sign >>> distance) fills bits under sign bit, no borrow crosses element
+        return shr(value) | ((sign - (sign >>> distance)) << 1);
+    }
+
+    private long rol(final long value) {
+        return shl(value) | ((value >>> (laneBits - distance)) & LOW_MASK);
+    }
+
+    private long ror(final long value) {
+        return shr(value) | ((value << (laneBits - distance)) & HIGH_MASK);
+    }
+
+    /**
+     * @return element at index zero extended to long
+     */
+    private long getLane(final ByteBuffer toProcess, final int index) {
+        switch (lane) {
+            case BYTE:
+                return toProcess.get(index) & 0xFFL;
+            case SHORT:
+                return toProcess.getShort(index) & 0xFFFFL;
+            case INT:
+                return toProcess.getInt(index) & 0xFFFFFFFFL;
+            default:
+                return toProcess.getLong(index);
+        }
+    }
+
+    private void putLane(final ByteBuffer toProcess, final int index, final long value) {
+        switch (lane) {
+            case BYTE:
+                toProcess.put(index, (byte) value);
+                break;
+            case SHORT:
+                toProcess.putShort(index, (short) value);
+                break;
+            case INT:
+                toProcess.putInt(index, (int) value);
+                break;
+            default:
+                toProcess.putLong(index, value);
+        }
+    }
+
+    /**
+     * Execute shift left of All elements by distance specified in constructor from current position of buffer to it's limit,
+     * vacated low bits of every element are filled with zeros
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    public void SHL(final ByteBuffer toProcess) {
+        SHL(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute shift left of All elements by distance specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public void SHL(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        final int lastLaneIndex = toIndex - lane.bytes();
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, shl(toProcess.getLong(index)));
+
+        for (; index <= lastLaneIndex; index += lane.bytes())
+            putLane(toProcess, index, shl(getLane(toProcess, index)));
+    }
+
+    /**
+     * Execute logical shift right of All elements by distance specified in constructor from current position of buffer to it's limit,
+     * vacated high bits of every element are filled with zeros
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    public void SHR(final ByteBuffer toProcess) {
+        SHR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute logical shift right of All elements by distance specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public void SHR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        final int lastLaneIndex = toIndex - lane.bytes();
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, shr(toProcess.getLong(index)));
+
+        for (; index <= lastLaneIndex; index += lane.bytes())
+            putLane(toProcess, index, shr(getLane(toProcess, index)));
+    }
+
+    /**
+     * Execute arithmetic shift right of All elements by distance specified in constructor from current position of buffer to it's limit,
+     * vacated high bits of every element are filled with its sign bit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    public void SAR(final ByteBuffer toProcess) {
+        SAR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute arithmetic shift right of All elements by distance specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public void SAR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        final int lastLaneIndex = toIndex - lane.bytes();
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, sar(toProcess.getLong(index)));
+
+        for (; index <= lastLaneIndex; index += lane.bytes())
+            putLane(toProcess, index, sar(getLane(toProcess, index)));
+    }
+
+    /**
+     * Execute rotate left of All elements by distance specified in constructor from current position of buffer to it's limit,
+     * bits shifted out of element are moved to its low bits
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    public void ROL(final ByteBuffer toProcess) {
+        ROL(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute rotate left of All elements by distance specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public void ROL(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        final int lastLaneIndex = toIndex - lane.bytes();
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, rol(toProcess.getLong(index)));
+
+        for (; index <= lastLaneIndex; index += lane.bytes())
+            putLane(toProcess, index, rol(getLane(toProcess, index)));
+    }
+
+    /**
+     * Execute rotate right of All elements by distance specified in constructor from current position of buffer to it's limit,
+     * bits shifted out of element are moved to its high bits
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    public void ROR(final ByteBuffer toProcess) {
+        ROR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute rotate right of All elements by distance specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public void ROR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        final int lastLaneIndex = toIndex - lane.bytes();
+        int index = fromIndex;
+
+        for (; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, ror(toProcess.getLong(index)));
+
+        for (; index <= lastLaneIndex; index += lane.bytes())
+            putLane(toProcess, index, ror(getLane(toProcess, index)));
+    }
+}
@@ -0,0 +1,296 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Provides methods for executing bitwise operation on all longs from current position to last long within limit
+ * with 64 bit constant or with pattern of longs (key) cycled across buffer, so masks and keys of 128, 256 and 512 bits are applied in one pass
+ * pattern starts at position (fromIndex) of every call, bytes of incomplete long at end are untouched
+ * ParallelBulkBitwise and FileBulkBitwise split range at multiples of 64 bytes from its start (chunks and windows) and every part
+ * restarts pattern, so phase is kept only if granularity() (bytes of pattern) divides 64, that is why pattern has 1, 2, 4 or 8 longs
+ * (keys of 192, 320, 384 or 448 bits are rejected, repeat them to 512 bits instead)
+ * streams of ChannelBulkBitwise keep phase when they are constructed with granularity()
+ * longs are read in byte order of buffer (longs of source in other byte order than target are byte swapped)
+ */
+final public class LongBulkBitwise implements BulkBitwiseI {
+    private final long[] PATTERN;
+
+    /**
+     * Construct class for bitwise operation
+     *
+     * @param constant constant to use
+     */
+    public LongBulkBitwise(final long constant) {
+        this(new long[]{constant});
+    }
+
+    /**
+     * Construct class for bitwise operation with cycled pattern
+     *
+     * @param pattern pattern of 1, 2, 4 or 8 longs, n-th long of range is processed with pattern[n % pattern.length] (array is copied)
+     * @throws IllegalArgumentException if pattern length does not divide 8 (granularity() would not divide 64 byte split of ranges)
+     */
+    public LongBulkBitwise(final long[] pattern) {
+        if (pattern.length == 0 || 8 % pattern.length != 0)
+            throw new IllegalArgumentException("Pattern length (" + pattern.length + ") must be 1, 2, 4 or 8, so pattern of "
+                    + pattern.length * 8 + " bytes divides 64 byte unit ranges are split at by ParallelBulkBitwise and FileBulkBitwise");
+        PATTERN = pattern.clone();
+    }
+
+    /**
+     * @return count of bytes of whole pattern, range split at multiple of it keeps phase of pattern
+     */
+    public int granularity() {
+        return PATTERN.length * 8;
+    }
+
+    /**
+     * Execute bitwise AND operation on All longs with pattern specified in constructor from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void AND(final ByteBuffer toProcess) {
+        AND(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise AND operation on All longs with pattern specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void AND(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        int word = 0;
+
+        for (int index = fromIndex; index < lastLongIndex; index += 8) {
+            toProcess.putLong(index, toProcess.getLong(index) & PATTERN[word]);
+            if (++word == PATTERN.length)
+                word = 0;
+        }
+    }
+
+    /**
+     * Execute bitwise OR operation on All longs with pattern specified in constructor from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void OR(final ByteBuffer toProcess) {
+        OR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise OR operation on All longs with pattern specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void OR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        int word = 0;
+
+        for (int index = fromIndex; index < lastLongIndex; index += 8) {
+            toProcess.putLong(index, toProcess.getLong(index) | PATTERN[word]);
+            if (++word == PATTERN.length)
+                word = 0;
+        }
+    }
+
+    /**
+     * Execute bitwise Xor operation on All longs with pattern specified in constructor from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void XOR(final ByteBuffer toProcess) {
+        XOR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise Xor operation on All longs with pattern specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void XOR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+        int word = 0;
+
+        for (int index = fromIndex; index < lastLongIndex; index += 8) {
+            toProcess.putLong(index, toProcess.getLong(index) ^ PATTERN[word]);
+            if (++word == PATTERN.length)
+                word = 0;
+        }
+    }
+
+    /**
+     * Execute bitwise AND operation on All longs of source with pattern specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void AND(final ByteBuffer source, final ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final boolean swap = source.order() != target.order();
+        final int longs = length - length % 8;
+        int index = 0;
+        int word = 0;
+
+        for (; index < longs; index += 8) {
+            target.putLong(targetIndex + index, ByteBuffTools.getLong(source, sourceIndex + index, swap) & PATTERN[word]);
+            if (++word == PATTERN.length)
+                word = 0;
+        }
+
+        ByteBuffTools.copy(source, sourceIndex + index, target, targetIndex + index, length - index);
+        ByteBuffTools.advance(source, target, length);
+    }
+
+    /**
+     * Execute bitwise OR operation on All longs of source with pattern specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void OR(final ByteBuffer source, final ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final boolean swap = source.order() != target.order();
+        final int longs = length - length % 8;
+        int index = 0;
+        int word = 0;
+
+        for (; index < longs; index += 8) {
+            target.putLong(targetIndex + index, ByteBuffTools.getLong(source, sourceIndex + index, swap) | PATTERN[word]);
+            if (++word == PATTERN.length)
+                word = 0;
+        }
+
+        ByteBuffTools.copy(source, sourceIndex + index, target, targetIndex + index, length - index);
+        ByteBuffTools.advance(source, target, length);
+    }
+
+    /**
+     * Execute bitwise Xor operation on All longs of source with pattern specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void XOR(final ByteBuffer source, final ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final boolean swap = source.order() != target.order();
+        final int longs = length - length % 8;
+        int index = 0;
+        int word = 0;
+
+        for (; index < longs; index += 8) {
+            target.putLong(targetIndex + index, ByteBuffTools.getLong(source, sourceIndex + index, swap) ^ PATTERN[word]);
+            if (++word == PATTERN.length)
+                word = 0;
+        }
+
+        ByteBuffTools.copy(source, sourceIndex + index, target, targetIndex + index, length - index);
+        ByteBuffTools.advance(source, target, length);
+    }
+
+    /**
+     * Execute bitwise NOT operation on All longs from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    public static void NOT(final ByteBuffer toProcess) {
+        NOT(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise NOT operation on All longs from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public static void NOT(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int lastLongIndex = toIndex - 7;
+
+        for (int index = fromIndex; index < lastLongIndex; index += 8)
+            toProcess.putLong(index, ~toProcess.getLong(index));
+    }
+
+    /**
+     * Execute bitwise NOT operation on All longs of source and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    public static void NOT(final ByteBuffer source, final ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final boolean swap = source.order() != target.order();
+        final int longs = length - length % 8;
+        int index = 0;
+
+        for (; index < longs; index += 8)
+            target.putLong(targetIndex + index, ~ByteBuffTools.getLong(source, sourceIndex + index, swap));
+
+        ByteBuffTools.copy(source, sourceIndex + index, target, targetIndex + index, length - index);
+        ByteBuffTools.advance(source, target, length);
+    }
+}
@@ -0,0 +1,245 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Packing of nucleotide sequences (ASCII A C G T in any case, or bytes masked by AND with 0b110) to 2 bits per base and back,
+ * 8 bases are packed (or unpacked) at once from one long without branching per base, rest shorter than long base by base
+ * <p>
+ * code of base is (byte &gt;&gt;&gt; 1) &amp; 0b11 so A = 0, C = 1, T = 2 and G = 3 and complement of base is code ^ 0b10 (A-T, C-G)
+ * other bytes are not detected (N is packed as G for example)
+ * base k of sequence is bits (2 * (k % 32)) and (2 * (k % 32) + 1) of word k / 32 of packed array (first base in lowest bits
+ * as bits of java.util.BitSet), bits after last base of last word are zero
+ * k-mers have same layout (first base in lowest bits), so k-mer of at most 32 bases is one long
+ * <p>
+ * is thread save if nothing else is modifying(reading data) of buffer or arrays
+ */
+final public class NucleotidePacker {
+    /**
+     * bases in one packed word
+     */
+    public static final int BASES_PER_WORD = 32;
+    /**
+     * lowest bit of every byte
+     */
+    private static final long ONES = 0x0101010101010101L;
+    /**
+     * code bit flipped by complement in every base of word
+     */
+    private static final long COMPLEMENT = 0xAAAAAAAAAAAAAAAAL;
+    private static final long EVEN_BITS = 0x5555555555555555L;
+
+    private NucleotidePacker() {
+    }
+
+    /**
+     * @param bases count of bases
+     * @return count of words needed to pack bases
+     */
+    public static int words(final int bases) {
+        return (bases + BASES_PER_WORD - 1) / BASES_PER_WORD;
+    }
+
+    /**
+     * Packs bases from position to limit to new array, position is moved to limit
+     *
+     * @param sequence non null instance
+     * @return packed bases (sequence.remaining() bases)
+     */
+    public static long[] pack(final ByteBuffer sequence) {
+        final long[] packed = new long[words(sequence.remaining())];
+        pack(sequence, packed);
+        return packed;
+    }
+
+    /**
+     * Packs bases from position to limit to array (from its first word), position is moved to limit
+     *
+     * @param sequence non null instance
+     * @param packed   non null instance with at least words(sequence.remaining()) words
+     * @return count of packed bases
+     * @throws IndexOutOfBoundsException if array is too short
+     */
+    public static int pack(final ByteBuffer sequence, final long[] packed) {
+        final int length = sequence.remaining();
+        if (words(length) > packed.length)
+            throw new IndexOutOfBoundsException(length + " bases do not fit to " + packed.length + " words");
+        final boolean bigEndian = sequence.order() == ByteOrder.BIG_ENDIAN;
+        final int start = sequence.position();
+        final int lastLongIndex = length - 7;
+        int base = 0;
+        long word = 0;
+
+        for (; base < lastLongIndex; base += 8) {
+            final long bytes = sequence.getLong(start + base);
+            //first base must be in lowest byte
+            word |= compress(bigEndian ? Long.reverseBytes(bytes) : bytes) << ((base & 31) << 1);
+            if ((base & 31) == 24) {
+                packed[base >>> 5] = word;
+                word = 0;
+            }
+        }
+
+        for (; base < length; base++) {
+            word |= (long) (sequence.get(start + base) >>> 1 & 0b11) << ((base & 31) << 1);
+            if ((base & 31) == 31) {
+                packed[base >>> 5] = word;
+                word = 0;
+            }
+        }
+        if ((length & 31) != 0)
+            packed[length >>> 5] = word;
+        sequence.position(sequence.limit());
+        return length;
+    }
+
+    /**
+     * @param bytes 8 bytes, first base in lowest byte
+     * @return 16 bits of codes of 8 bases
+     */
+    private static long compress(final long bytes) {
+        long codes = bytes >>> 1 & ONES * 0b11;
+        codes = (codes | codes >>> 6) & 0x000F000F000F000FL;
+        codes = (codes | codes >>> 12) & 0x000000FF000000FFL;
+        return (codes | codes >>> 24) & 0xFFFFL;
+    }
+
+    /**
+     * @param codes 16 bits of codes of 8 bases
+     * @return 8 upper case ASCII bases, first base in lowest byte
+     */
+    private static long expand(final long codes) {
+        long bytes = (codes | codes << 24) & 0x000000FF000000FFL;
+        bytes = (bytes | bytes << 12) & 0x000F000F000F000FL;
+        bytes = (bytes | bytes << 6) & ONES * 0b11;
+        final long low = bytes & ONES;
+        final long high = bytes >>> 1 & ONES;
+        final long thymine = high & ~low;
+        //A = 0x41, C = 0x43, T = 0x54 and G = 0x47
+        return ONES * 0x40 | (ONES ^ thymine) | low << 1 | high << 2 | thymine << 4;
+    }
+
+    /**
+     * Writes bases as upper case ASCII from position, position is moved after them
+     *
+     * @param packed   non null instance
+     * @param bases    count of bases to unpack
+     * @param sequence writable non null instance
+     * @throws BufferOverflowException   if sequence has less than bases bytes remaining
+     * @throws IndexOutOfBoundsException if array is too short
+     */
+    public static void unpack(final long[] packed, final int bases, final ByteBuffer sequence) {
+        if (sequence.remaining() < bases)
+            throw new BufferOverflowException();
+        if (words(bases) > packed.length)
+            throw new IndexOutOfBoundsException(bases + " bases do not fit to " + packed.length + " words");
+        final boolean bigEndian = sequence.order() == ByteOrder.BIG_ENDIAN;
+        final int start = sequence.position();
+        final int lastLongIndex = bases - 7;
+        int base = 0;
+
+        for (; base < lastLongIndex; base += 8) {
+            final long bytes = expand(packed[base >>> 5] >>> ((base & 31) << 1) & 0xFFFFL);
+            sequence.putLong(start + base, bigEndian ? Long.reverseBytes(bytes) : bytes);
+        }
+
+        for (; base < bases; base++)
+            sequence.put(start + base, (byte) expand(base(packed, base)));
+        sequence.position(start + bases);
+    }
+
+    /**
+     * @param packed non null instance
+     * @param index  index of base
+     * @return code of base
+     */
+    public static int base(final long[] packed, final int index) {
+        return (int) (packed[index >>> 5] >>> ((index & 31) << 1)) & 0b11;
+    }
+
+    /**
+     * Reverse complement of packed sequence (reversed order of bases and every base complemented), word by word
+     *
+     * @param packed non null instance
+     * @param bases  count of bases
+     * @return new packed array
+     * @throws IndexOutOfBoundsException if array is too short
+     */
+    public static long[] reverseComplement(final long[] packed, final int bases) {
+        final int words = words(bases);
+        if (words > packed.length)
+            throw new IndexOutOfBoundsException(bases + " bases do not fit to " + packed.length + " words");
+        final long[] result = new long[words];
+        //reversed whole words start with bases after end of sequence, they are shifted out
+        final int shift = ((words << 5) - bases) << 1;
+        long next = words == 0 ? 0 : reverseComplement(packed[words - 1]);
+        for (int word = 0; word < words; word++) {
+            final long current = next;
+            next = word + 1 < words ? reverseComplement(packed[words - 2 - word]) : 0;
+            result[word] = shift == 0 ? current : current >>> shift | next << (64 - shift);
+        }
+        return result;
+    }
+
+    /**
+     * @return word with reversed order of 32 bases, all of them complemented
+     */
+    private static long reverseComplement(final long word) {
+        final long reversed = Long.reverse(word);
+        //bits of every base have to be swapped back after reversing of all bits
+        return ((reversed >>> 1 & EVEN_BITS) | (reversed & EVEN_BITS) << 1) ^ COMPLEMENT;
+    }
+
+    /**
+     * @param packed non null instance
+     * @param index  index of first base of k-mer
+     * @param k      length of k-mer from 1 to 32
+     * @return k-mer starting at index (first base in lowest bits)
+     * @throws IllegalArgumentException  if k is out of range
+     * @throws IndexOutOfBoundsException if k-mer is out of array
+     */
+    public static long kmer(final long[] packed, final int index, final int k) {
+        validateK(k);
+        final int shift = (index & 31) << 1;
+        final int word = index >>> 5;
+        long kmer = packed[word] >>> shift;
+        if (shift + (k << 1) > 64)
+            kmer |= packed[word + 1] << (64 - shift);
+        return k == 32 ? kmer : kmer & ((1L << (k << 1)) - 1);
+    }
+
+    /**
+     * Extracts all k-mers of sequence, every next k-mer is rolled from previous one by one shift
+     *
+     * @param packed non null instance
+     * @param bases  count of bases
+     * @param k      length of k-mer from 1 to 32
+     * @param kmers  non null instance with at least bases - k + 1 elements
+     * @return count of k-mers (bases - k + 1 or 0 if sequence is shorter than k)
+     * @throws IllegalArgumentException  if k is out of range
+     * @throws IndexOutOfBoundsException if any array is too short
+     */
+    public static int kmers(final long[] packed, final int bases, final int k, final long[] kmers) {
+        validateK(k);
+        if (bases < k)
+            return 0;
+        final int count = bases - k + 1;
+        if (count > kmers.length || words(bases) > packed.length)
+            throw new IndexOutOfBoundsException(count + " k-mers of " + bases + " bases do not fit to arrays");
+        final int lastShift = (k - 1) << 1;
+        long kmer = kmer(packed, 0, k);
+        kmers[0] = kmer;
+        for (int index = k; index < bases; index++) {
+            kmer = kmer >>> 2 | (long) base(packed, index) << lastShift;
+            kmers[index - k + 1] = kmer;
+        }
+        return count;
+    }
+
+    private static void validateK(final int k) {
+        if (k < 1 || k > BASES_PER_WORD)
+            throw new IllegalArgumentException("Length of k-mer (" + k + ") is out of range");
+    }
+}
@@ -0,0 +1,353 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Decorator executing operations of any processor in parallel on ForkJoinPool
+ * range from position to limit is split to chunks of multiple of 64 bytes (counted from position so no short, int, long
+ * or pattern of LongBulkBitwise of 1, 2, 4 or 8 longs is split)
+ * every chunk is processed by processor on range of shared buffer (or on its own duplicate of buffer for Consumer operations),
+ * bytes of incomplete long at end are processed once by last chunk
+ * buffers smaller than threshold are processed sequentially in calling thread
+ * <p>
+ * static NOT of processors can be executed by {@link #execute(BulkRangeOperation, ByteBuffer, int, int)}
+ * for example parallel.execute(ByteBulkBitwise::NOT, buffer, 0, buffer.limit())
+ * (out of place NOT by {@link #execute(BiConsumer, ByteBuffer, ByteBuffer)})
+ */
+final public class ParallelBulkBitwise implements BulkBitwiseI {
+    /**
+     * default count of bytes under witch buffer is processed sequentially
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 20;
+    /**
+     * smallest chunk processed by one task
+     */
+    static final int MIN_CHUNK = 1 << 16;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final BulkRangeOperation AND_OPERATION;
+    private final BulkRangeOperation OR_OPERATION;
+    private final BulkRangeOperation XOR_OPERATION;
+    private final BiConsumer<ByteBuffer, ByteBuffer> AND_TRANSFER;
+    private final BiConsumer<ByteBuffer, ByteBuffer> OR_TRANSFER;
+    private final BiConsumer<ByteBuffer, ByteBuffer> XOR_TRANSFER;
+
+    /**
+     * Construct decorator running on common pool with default threshold
+     *
+     * @param delegate processor to execute in parallel
+     */
+    public ParallelBulkBitwise(final BulkBitwiseI delegate) {
+        this(delegate, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Construct decorator
+     *
+     * @param delegate  processor to execute in parallel
+     * @param pool      pool to execute chunks on
+     * @param threshold count of bytes under witch buffer is processed sequentially
+     * @throws IllegalArgumentException if threshold is negative
+     */
+    public ParallelBulkBitwise(final BulkBitwiseI delegate, final ForkJoinPool pool, final int threshold) {
+        if (threshold < 0)
+            throw new IllegalArgumentException("Threshold (" + threshold + ") must not be negative");
+        this.pool = pool;
+        this.threshold = threshold;
+        AND_OPERATION = delegate::AND;
+        OR_OPERATION = delegate::OR;
+        XOR_OPERATION = delegate::XOR;
+        AND_TRANSFER = delegate::AND;
+        OR_TRANSFER = delegate::OR;
+        XOR_TRANSFER = delegate::XOR;
+    }
+
+    /**
+     * Execute bitwise AND operation of decorated processor from current position of buffer to it's limit
+     * position is moved to limit
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void AND(final ByteBuffer toProcess) {
+        execute(AND_OPERATION, toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise AND operation of decorated processor from fromIndex to toIndex
+     * position and limit are untouched
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void AND(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        execute(AND_OPERATION, toProcess, fromIndex, toIndex);
+    }
+
+    /**
+     * Execute bitwise OR operation of decorated processor from current position of buffer to it's limit
+     * position is moved to limit
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void OR(final ByteBuffer toProcess) {
+        execute(OR_OPERATION, toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise OR operation of decorated processor from fromIndex to toIndex
+     * position and limit are untouched
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void OR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        execute(OR_OPERATION, toProcess, fromIndex, toIndex);
+    }
+
+    /**
+     * Execute bitwise XOR operation of decorated processor from current position of buffer to it's limit
+     * position is moved to limit
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void XOR(final ByteBuffer toProcess) {
+        execute(XOR_OPERATION, toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise XOR operation of decorated processor from fromIndex to toIndex
+     * position and limit are untouched
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void XOR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        execute(XOR_OPERATION, toProcess, fromIndex, toIndex);
+    }
+
+    /**
+     * Execute bitwise AND operation of decorated processor on source and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void AND(final ByteBuffer source, final ByteBuffer target) {
+        execute(AND_TRANSFER, source, target);
+    }
+
+    /**
+     * Execute bitwise OR operation of decorated processor on source and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void OR(final ByteBuffer source, final ByteBuffer target) {
+        execute(OR_TRANSFER, source, target);
+    }
+
+    /**
+     * Execute bitwise XOR operation of decorated processor on source and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void XOR(final ByteBuffer source, final ByteBuffer target) {
+        execute(XOR_TRANSFER, source, target);
+    }
+
+    /**
+     * Execute any operation processing buffer from current position to limit in parallel
+     * operation must process elements of at most 8 bytes and it must not depend on position of processed elements
+     * position is moved to limit (or as operation does for sequential execution)
+     *
+     * @param operation operation to execute on chunks
+     * @param toProcess writable non null instance
+     */
+    public void execute(final Consumer<ByteBuffer> operation, final ByteBuffer toProcess) {
+        final int length = toProcess.remaining();
+        if (length < threshold) {
+            operation.accept(toProcess);
+            return;
+        }
+        pool.invoke(new Chunk(operation, toProcess, toProcess.position(), toProcess.limit(), chunkSize(length)));
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute any operation processing range of buffer in parallel, chunks are processed on shared buffer
+     * operation must process elements of at most 8 bytes and it must not depend on position of processed elements
+     * position and limit are untouched
+     *
+     * @param operation operation to execute on chunks
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public void execute(final BulkRangeOperation operation, final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int length = toIndex - fromIndex;
+        if (length < threshold)
+            operation.apply(toProcess, fromIndex, toIndex);
+        else
+            pool.invoke(new RangeChunk(operation, toProcess, fromIndex, toIndex, chunkSize(length)));
+    }
+
+    /**
+     * Execute any out of place operation (for example ShortBulkBitwise::NOT) in parallel, every chunk of source is processed
+     * to same chunk of target (on own duplicates of buffers)
+     * operation must process elements of at most 8 bytes and it must not depend on position of processed elements
+     * positions of both buffers are moved by count of bytes of source
+     *
+     * @param operation operation to execute on chunks
+     * @param source    non null instance (may be read only)
+     * @param target    writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    public void execute(final BiConsumer<ByteBuffer, ByteBuffer> operation, final ByteBuffer source, final ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        if (length < threshold) {
+            operation.accept(source, target);
+            return;
+        }
+        pool.invoke(new TransferChunk(operation, source, target, 0, length, chunkSize(length)));
+        ByteBuffTools.advance(source, target, length);
+    }
+
+    /**
+     * @param length count of bytes to process
+     * @return size of chunk (multiple of 64) so there is few chunks for every thread of pool
+     */
+    private int chunkSize(final int length) {
+        final int perTask = length / (pool.getParallelism() * 4);
+        return Math.max(MIN_CHUNK, perTask - perTask % 64);
+    }
+
+    private static final class Chunk extends RecursiveAction {
+        private final Consumer<ByteBuffer> operation;
+        private final ByteBuffer toProcess;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        Chunk(final Consumer<ByteBuffer> operation, final ByteBuffer toProcess, final int from, final int to, final int chunkSize) {
+            this.operation = operation;
+            this.toProcess = toProcess;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            final int length = to - from;
+            if (length < 2 * chunkSize) {
+                final ByteBuffer view = toProcess.duplicate().order(toProcess.order());
+                view.limit(to);
+                view.position(from);
+                operation.accept(view);
+                return;
+            }
+            final int middle = from + (length / chunkSize / 2) * chunkSize;
+            invokeAll(new Chunk(operation, toProcess, from, middle, chunkSize),
+                    new Chunk(operation, toProcess, middle, to, chunkSize));
+        }
+    }
+
+    private static final class RangeChunk extends RecursiveAction {
+        private final BulkRangeOperation operation;
+        private final ByteBuffer toProcess;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        RangeChunk(final BulkRangeOperation operation, final ByteBuffer toProcess, final int from, final int to, final int chunkSize) {
+            this.operation = operation;
+            this.toProcess = toProcess;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            final int length = to - from;
+            if (length < 2 * chunkSize) {
+                operation.apply(toProcess, from, to);
+                return;
+            }
+            final int middle = from + (length / chunkSize / 2) * chunkSize;
+            invokeAll(new RangeChunk(operation, toProcess, from, middle, chunkSize),
+                    new RangeChunk(operation, toProcess, middle, to, chunkSize));
+        }
+    }
+
+    private static final class TransferChunk extends RecursiveAction {
+        private final BiConsumer<ByteBuffer, ByteBuffer> operation;
+        private final ByteBuffer source;
+        private final ByteBuffer target;
+        /**
+         * offsets from positions of buffers
+         */
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        TransferChunk(final BiConsumer<ByteBuffer, ByteBuffer> operation, final ByteBuffer source, final ByteBuffer target,
+                      final int from, final int to, final int chunkSize) {
+            this.operation = operation;
+            this.source = source;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            final int length = to - from;
+            if (length < 2 * chunkSize) {
+                final ByteBuffer sourceView = source.duplicate().order(source.order());
+                sourceView.limit(source.position() + to);
+                sourceView.position(source.position() + from);
+                final ByteBuffer targetView = target.duplicate().order(target.order());
+                targetView.position(target.position() + from);
+                operation.accept(sourceView, targetView);
+                return;
+            }
+            final int middle = from + (length / chunkSize / 2) * chunkSize;
+            invokeAll(new TransferChunk(operation, source, target, from, middle, chunkSize),
+                    new TransferChunk(operation, source, target, middle, to, chunkSize));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Evaluates any bitwise function of three operands in one pass over memory (as vpternlog instruction of AVX-512 does)
+ * function is given by truth table of 8 bits, bit (a << 2 | b << 1 | c) of table is result for bits a, b and c of operands,
+ * so table of function is function applied to A, B and C constants (for example (A &amp; ~B) | C for a &amp; ~b | c)
+ * <p>
+ * function is evaluated on whole long as OR of its minterms (at most 4, function with more of them is evaluated as negation of its complement)
+ * so there is no branching per element, rest of range shorter than long is evaluated byte by byte
+ * first operand is processed in place, all buffers are read from their positions and positions are moved to limits
+ * operand buffers are read in byte order of first operand (longs of buffer in other order are byte swapped, so only bytes matter), constant operand is replicated
+ * in byte order of processed buffer (bytes of incomplete element of its lane at end are untouched)
+ * <p>
+ * instance is immutable and is thread save if nothing else is modifying(reading data) of buffers
+ */
+final public class TernaryBulkBitwise {
+    /**
+     * truth table of first operand
+     */
+    public static final int A = 0xF0;
+    /**
+     * truth table of second operand
+     */
+    public static final int B = 0xCC;
+    /**
+     * truth table of third operand
+     */
+    public static final int C = 0xAA;
+    /**
+     * a &amp; ~b
+     */
+    public static final int ANDNOT = A & ~B & 0xFF;
+    /**
+     * a | ~b
+     */
+    public static final int ORNOT = (A | ~B) & 0xFF;
+    /**
+     * ~(a &amp; b)
+     */
+    public static final int NAND = ~(A & B) & 0xFF;
+    /**
+     * ~(a | b)
+     */
+    public static final int NOR = ~(A | B) & 0xFF;
+    /**
+     * ~(a ^ b)
+     */
+    public static final int XNOR = ~(A ^ B) & 0xFF;
+    /**
+     * bits of b where c is set, bits of a elsewhere
+     */
+    public static final int BLEND = (A & ~C | B & C) & 0xFF;
+    /**
+     * majority of a, b and c (set if at least two operands are set)
+     */
+    public static final int MAJORITY = (A & B | A & C | B & C) & 0xFF;
+
+    /**
+     * for every minterm three longs xored with operands (0 keeps operand, -1 negates it)
+     */
+    private final long[] FLIPS;
+    /**
+     * -1 if complement of function is evaluated
+     */
+    private final long INVERT;
+
+    /**
+     * Construct evaluator of function
+     *
+     * @param truthTable truth table from 0 to 255, built from A, B and C constants
+     * @throws IllegalArgumentException if truth table is out of range
+     */
+    public TernaryBulkBitwise(final int truthTable) {
+        if (truthTable < 0 || truthTable > 0xFF)
+            throw new IllegalArgumentException("Truth table (" + truthTable + ") is out of range");
+        final boolean inverted = Integer.bitCount(truthTable) > 4;
+        final int minterms = inverted ? ~truthTable & 0xFF : truthTable;
+        INVERT = inverted ? -1L : 0L;
+        FLIPS = new long[Integer.bitCount(minterms) * 3];
+        int flip = 0;
+        for (int minterm = 0; minterm < 8; minterm++) {
+            if ((minterms >>> minterm & 1) == 0)
+                continue;
+            FLIPS[flip++] = (minterm & 4) == 0 ? -1L : 0L;
+            FLIPS[flip++] = (minterm & 2) == 0 ? -1L : 0L;
+            FLIPS[flip++] = (minterm & 1) == 0 ? -1L : 0L;
+        }
+    }
+
+    private long evaluate(final long a, final long b, final long c) {
+        long result = 0;
+        for (int flip = 0; flip < FLIPS.length; flip += 3)
+            result |= (a ^ FLIPS[flip]) & (b ^ FLIPS[flip + 1]) & (c ^ FLIPS[flip + 2]);
+        return result ^ INVERT;
+    }
+
+    /**
+     * Evaluates function of a, b and c and stores result to a
+     *
+     * @param a writable non null instance, first operand and result
+     * @param b non null instance with same count of remaining bytes as a
+     * @param c non null instance with same count of remaining bytes as a
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     */
+    public void apply(final ByteBuffer a, final ByteBuffer b, final ByteBuffer c) {
+        ByteBuffTools.validateSameRemaining(a, b);
+        ByteBuffTools.validateSameRemaining(a, c);
+        final boolean swapB = b.order() != a.order();
+        final boolean swapC = c.order() != a.order();
+        final int length = a.remaining();
+        final int aIndex = a.position();
+        final int bIndex = b.position();
+        final int cIndex = c.position();
+        int index = 0;
+
+        for (; index < length - 7; index += 8)
+            a.putLong(aIndex + index, evaluate(a.getLong(aIndex + index),
+                    ByteBuffTools.getLong(b, bIndex + index, swapB), ByteBuffTools.getLong(c, cIndex + index, swapC)));
+
+        for (; index < length; index++)
+            a.put(aIndex + index, (byte) evaluate(a.get(aIndex + index), b.get(bIndex + index), c.get(cIndex + index)));
+
+        a.position(a.limit());
+        b.position(b.limit());
+        c.position(c.limit());
+    }
+
+    /**
+     * Evaluates function of a, b and constant c and stores result to a
+     *
+     * @param a        writable non null instance, first operand and result
+     * @param b        non null instance with same count of remaining bytes as a
+     * @param lane     width of elements of constant
+     * @param constant third operand... it is highly recommended to input it in 0b101010 form
+     * @throws IllegalBufferLengthException if remaining bytes differ
+     * @throws IllegalArgumentException     if constant can't be mapped to lane
+     */
+    public void apply(final ByteBuffer a, final ByteBuffer b, final Lane lane, final int constant) {
+        ByteBuffTools.validateSameRemaining(a, b);
+        final long filter = lane.packedFilter(constant);
+        final boolean swapB = b.order() != a.order();
+        final int length = a.remaining() - a.remaining() % lane.bytes();
+        final int aIndex = a.position();
+        final int bIndex = b.position();
+        int index = 0;
+
+        for (; index < length - 7; index += 8)
+            a.putLong(aIndex + index, evaluate(a.getLong(aIndex + index), ByteBuffTools.getLong(b, bIndex + index, swapB), filter));
+
+        //rest is less than long, so bytes of filter are taken in byte order of buffer
+        final boolean bigEndian = a.order() == ByteOrder.BIG_ENDIAN;
+        for (int shift = bigEndian ? 56 : 0; index < length; index++, shift += bigEndian ? -8 : 8)
+            a.put(aIndex + index, (byte) evaluate(a.get(aIndex + index), b.get(bIndex + index), filter >>> shift));
+
+        a.position(a.limit());
+        b.position(b.limit());
+    }
+}
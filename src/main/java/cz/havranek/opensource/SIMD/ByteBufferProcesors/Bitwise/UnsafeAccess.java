@@ -0,0 +1,135 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Holder of sun.misc.Unsafe (available in java 8 and in jdk.unsupported module of newer VMs)
+ * resolves field offset of Buffer.address once so base address of direct buffers can be read without sun.nio.ch.DirectBuffer
+ */
+final class UnsafeAccess {
+    /**
+     * null if Unsafe is not accessible in running VM (or if cpu does not support unaligned access)
+     */
+    static final Unsafe UNSAFE;
+    private static final long ADDRESS_OFFSET;
+    /**
+     * offsets of first element of primitive arrays (0 if Unsafe is not accessible)
+     */
+    static final long BYTE_ARRAY_BASE;
+    static final long SHORT_ARRAY_BASE;
+    static final long INT_ARRAY_BASE;
+    /**
+     * Unsafe.invokeCleaner of java 9+ (null on java 8 or if Unsafe is not accessible)
+     */
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Unsafe unsafe;
+        long addressOffset;
+        try {
+            final Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = (Unsafe) theUnsafe.get(null);
+            addressOffset = unsafe.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError ignored) {
+            unsafe = null;
+            addressOffset = -1;
+        }
+        //architectures tolerating unaligned long access (same list as java.nio.Bits uses)
+        final String arch = System.getProperty("os.arch", "");
+        final boolean unaligned = arch.equals("i386") || arch.equals("x86") || arch.equals("amd64") || arch.equals("x86_64")
+                || arch.equals("aarch64") || arch.equals("ppc64le") || arch.equals("s390x");
+        UNSAFE = unaligned ? unsafe : null;
+        ADDRESS_OFFSET = addressOffset;
+        BYTE_ARRAY_BASE = UNSAFE == null ? 0 : UNSAFE.arrayBaseOffset(byte[].class);
+        SHORT_ARRAY_BASE = UNSAFE == null ? 0 : UNSAFE.arrayBaseOffset(short[].class);
+        INT_ARRAY_BASE = UNSAFE == null ? 0 : UNSAFE.arrayBaseOffset(int[].class);
+        Method invokeCleaner;
+        try {
+            invokeCleaner = unsafe == null ? null : Unsafe.class.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (NoSuchMethodException ignored) {
+            invokeCleaner = null;
+        }
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private UnsafeAccess() {
+    }
+
+    /**
+     * @return true if Unsafe can be used
+     */
+    static boolean isAvailable() {
+        return UNSAFE != null;
+    }
+
+    /**
+     * @param toProcess direct non null instance
+     * @return native address of index 0 of buffer
+     */
+    static long address(final ByteBuffer toProcess) {
+        return UNSAFE.getLong(toProcess, ADDRESS_OFFSET);
+    }
+
+    /**
+     * @param toProcess non null instance
+     * @return true if buffer can be processed by raw loads and stores
+     */
+    static boolean isRawAccessible(final ByteBuffer toProcess) {
+        return UNSAFE != null && toProcess.isDirect() && !toProcess.isReadOnly();
+    }
+
+    /**
+     * equivalent of ByteBuffer.alignmentOffset of java 9+ (which can't be called from java 8 code)
+     * heap buffers are aligned at most to 8 bytes (alignment of objects), so for them unitSize is reduced to 8
+     *
+     * @param toProcess non null instance
+     * @param index     absolute index in buffer
+     * @param unitSize  power of 2
+     * @return memory address of index modulo unitSize or -1 if it can't be determined
+     */
+    static int alignmentOffset(final ByteBuffer toProcess, final int index, final int unitSize) {
+        if (UNSAFE == null)
+            return -1;
+        if (toProcess.isDirect())
+            return (int) ((address(toProcess) + index) & (unitSize - 1));
+        if (!toProcess.hasArray())
+            return -1;
+        return (int) ((BYTE_ARRAY_BASE + toProcess.arrayOffset() + index) & (Math.min(unitSize, 8) - 1));
+    }
+
+    /**
+     * @return size of memory page (4096 if Unsafe is not accessible)
+     */
+    static int pageSize() {
+        return UNSAFE == null ? 4096 : UNSAFE.pageSize();
+    }
+
+    /**
+     * Unmaps (frees) direct or mapped buffer immediately instead of waiting for GC, does nothing if it is not possible
+     * buffer must not be accessed afterwards (VM crashes)
+     *
+     * @param toRelease direct non null instance which is not duplicate or slice
+     */
+    static void release(final ByteBuffer toRelease) {
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, toRelease);
+                return;
+            }
+            //java 8 DirectByteBuffer.cleaner().clean()
+            final Method cleanerMethod = toRelease.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            final Object cleaner = cleanerMethod.invoke(toRelease);
+            if (cleaner != null)
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            //buffer is freed by GC
+        }
+    }
+}
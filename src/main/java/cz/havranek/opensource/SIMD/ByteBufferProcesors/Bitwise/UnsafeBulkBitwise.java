@@ -0,0 +1,332 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise.UnsafeAccess.UNSAFE;
+
+/**
+ * Off-heap engine of bulk bitwise processors for direct and memory mapped buffers
+ * base address of buffer is resolved once and all whole longs are processed by raw native order loads and stores
+ * (constant is replicated in byte order of buffer so no byte swapping is done) after single range check
+ * incomplete long at end is processed by safe processor (ByteBulkBitwise, ShortBulkBitwise or IntBulkBitwise)
+ * <p>
+ * heap and read only buffers (or VMs without sun.misc.Unsafe) are processed by safe processor entirely
+ * (out of place variants read any direct source, read only included, by raw loads)
+ * bytes of incomplete element at end are untouched (as in ShortBulkBitwise and IntBulkBitwise)
+ */
+final public class UnsafeBulkBitwise implements BulkBitwiseI {
+    private static final ByteOrder NATIVE = ByteOrder.nativeOrder();
+
+    private final Lane lane;
+    private final BulkBitwiseI SAFE;
+    private final long NATIVE_FILTER;
+    private final long SWAPPED_FILTER;
+
+    /**
+     * Construct class for bitwise operation
+     *
+     * @param lane     width of elements to process
+     * @param constant constant to use... it is highly recommended to input it in 0b101010 form
+     * @throws IllegalArgumentException if argument can't be mapped to lane
+     */
+    public UnsafeBulkBitwise(final Lane lane, final int constant) {
+        this.lane = lane;
+        NATIVE_FILTER = lane.packedFilter(constant);
+        SWAPPED_FILTER = Long.reverseBytes(NATIVE_FILTER);
+        SAFE = BulkBitwiseFactory.create(BulkBitwiseFactory.Backend.SCALAR, lane, constant);
+    }
+
+    private long filter(final ByteBuffer toProcess) {
+        return toProcess.order() == NATIVE ? NATIVE_FILTER : SWAPPED_FILTER;
+    }
+
+    /**
+     * @return true if source can be read and target written by raw loads and stores
+     */
+    private static boolean isRawTransfer(final ByteBuffer source, final ByteBuffer target) {
+        return UnsafeAccess.isRawAccessible(target) && source.isDirect();
+    }
+
+    /**
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range
+     * @param lane      width of elements
+     * @return index after last whole element of range
+     */
+    private static int end(final int fromIndex, final int toIndex, final Lane lane) {
+        return toIndex - (toIndex - fromIndex) % lane.bytes();
+    }
+
+    /**
+     * Execute bitwise AND operation on All elements with constant specified in constructor from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void AND(final ByteBuffer toProcess) {
+        AND(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise AND operation on All elements with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void AND(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        if (!UnsafeAccess.isRawAccessible(toProcess)) {
+            SAFE.AND(toProcess, fromIndex, toIndex);
+            return;
+        }
+        final long filter = filter(toProcess);
+        final long address = UnsafeAccess.address(toProcess);
+        final long lastLongAddress = address + toIndex - 8;
+        long current = address + fromIndex;
+
+        for (; current <= lastLongAddress; current += 8)
+            UNSAFE.putLong(current, UNSAFE.getLong(current) & filter);
+
+        SAFE.AND(toProcess, (int) (current - address), end(fromIndex, toIndex, lane));
+    }
+
+    /**
+     * Executes bitwise OR operation on All elements with constant specified in constructor from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void OR(final ByteBuffer toProcess) {
+        OR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Executes bitwise OR operation on All elements with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void OR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        if (!UnsafeAccess.isRawAccessible(toProcess)) {
+            SAFE.OR(toProcess, fromIndex, toIndex);
+            return;
+        }
+        final long filter = filter(toProcess);
+        final long address = UnsafeAccess.address(toProcess);
+        final long lastLongAddress = address + toIndex - 8;
+        long current = address + fromIndex;
+
+        for (; current <= lastLongAddress; current += 8)
+            UNSAFE.putLong(current, UNSAFE.getLong(current) | filter);
+
+        SAFE.OR(toProcess, (int) (current - address), end(fromIndex, toIndex, lane));
+    }
+
+    /**
+     * Execute bitwise Xor operation on All elements with constant specified in constructor from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void XOR(final ByteBuffer toProcess) {
+        XOR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise Xor operation on All elements with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void XOR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        if (!UnsafeAccess.isRawAccessible(toProcess)) {
+            SAFE.XOR(toProcess, fromIndex, toIndex);
+            return;
+        }
+        final long filter = filter(toProcess);
+        final long address = UnsafeAccess.address(toProcess);
+        final long lastLongAddress = address + toIndex - 8;
+        long current = address + fromIndex;
+
+        for (; current <= lastLongAddress; current += 8)
+            UNSAFE.putLong(current, UNSAFE.getLong(current) ^ filter);
+
+        SAFE.XOR(toProcess, (int) (current - address), end(fromIndex, toIndex, lane));
+    }
+
+    /**
+     * Execute bitwise AND operation on All elements of source with constant specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void AND(final ByteBuffer source, final ByteBuffer target) {
+        if (!isRawTransfer(source, target)) {
+            SAFE.AND(source, target);
+            return;
+        }
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final long filter = filter(target);
+        final long sourceAddress = UnsafeAccess.address(source) + source.position();
+        final long targetAddress = UnsafeAccess.address(target) + target.position();
+        final int longs = length - length % 8;
+
+        for (int index = 0; index < longs; index += 8)
+            UNSAFE.putLong(targetAddress + index, UNSAFE.getLong(sourceAddress + index) & filter);
+
+        final int targetIndex = target.position();
+        ByteBuffTools.copy(source, source.position() + longs, target, targetIndex + longs, length - longs);
+        SAFE.AND(target, targetIndex + longs, end(targetIndex + longs, targetIndex + length, lane));
+        ByteBuffTools.advance(source, target, length);
+    }
+
+    /**
+     * Execute bitwise OR operation on All elements of source with constant specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void OR(final ByteBuffer source, final ByteBuffer target) {
+        if (!isRawTransfer(source, target)) {
+            SAFE.OR(source, target);
+            return;
+        }
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final long filter = filter(target);
+        final long sourceAddress = UnsafeAccess.address(source) + source.position();
+        final long targetAddress = UnsafeAccess.address(target) + target.position();
+        final int longs = length - length % 8;
+
+        for (int index = 0; index < longs; index += 8)
+            UNSAFE.putLong(targetAddress + index, UNSAFE.getLong(sourceAddress + index) | filter);
+
+        final int targetIndex = target.position();
+        ByteBuffTools.copy(source, source.position() + longs, target, targetIndex + longs, length - longs);
+        SAFE.OR(target, targetIndex + longs, end(targetIndex + longs, targetIndex + length, lane));
+        ByteBuffTools.advance(source, target, length);
+    }
+
+    /**
+     * Execute bitwise Xor operation on All elements of source with constant specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void XOR(final ByteBuffer source, final ByteBuffer target) {
+        if (!isRawTransfer(source, target)) {
+            SAFE.XOR(source, target);
+            return;
+        }
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final long filter = filter(target);
+        final long sourceAddress = UnsafeAccess.address(source) + source.position();
+        final long targetAddress = UnsafeAccess.address(target) + target.position();
+        final int longs = length - length % 8;
+
+        for (int index = 0; index < longs; index += 8)
+            UNSAFE.putLong(targetAddress + index, UNSAFE.getLong(sourceAddress + index) ^ filter);
+
+        final int targetIndex = target.position();
+        ByteBuffTools.copy(source, source.position() + longs, target, targetIndex + longs, length - longs);
+        SAFE.XOR(target, targetIndex + longs, end(targetIndex + longs, targetIndex + length, lane));
+        ByteBuffTools.advance(source, target, length);
+    }
+
+    /**
+     * Execute bitwise NOT operation on All elements from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @param lane      width of elements to process
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public static void NOT(final ByteBuffer toProcess, final int fromIndex, final int toIndex, final Lane lane) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final BulkRangeOperation safe = BulkBitwiseFactory.rangeNOT(BulkBitwiseFactory.Backend.SCALAR, lane);
+        if (!UnsafeAccess.isRawAccessible(toProcess)) {
+            safe.apply(toProcess, fromIndex, toIndex);
+            return;
+        }
+        final long address = UnsafeAccess.address(toProcess);
+        final long lastLongAddress = address + toIndex - 8;
+        long current = address + fromIndex;
+
+        for (; current <= lastLongAddress; current += 8)
+            UNSAFE.putLong(current, ~UNSAFE.getLong(current));
+
+        safe.apply(toProcess, (int) (current - address), end(fromIndex, toIndex, lane));
+    }
+
+    /**
+     * Execute bitwise NOT operation on All elements of source and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @param lane   width of elements to process
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    public static void NOT(final ByteBuffer source, final ByteBuffer target, final Lane lane) {
+        if (!isRawTransfer(source, target)) {
+            BulkBitwiseFactory.transferNOT(BulkBitwiseFactory.Backend.SCALAR, lane).accept(source, target);
+            return;
+        }
+        final BulkRangeOperation safe = BulkBitwiseFactory.rangeNOT(BulkBitwiseFactory.Backend.SCALAR, lane);
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int targetIndex = target.position();
+        final long sourceAddress = UnsafeAccess.address(source) + source.position();
+        final long targetAddress = UnsafeAccess.address(target) + targetIndex;
+        final int longs = length - length % 8;
+
+        for (int index = 0; index < longs; index += 8)
+            UNSAFE.putLong(targetAddress + index, ~UNSAFE.getLong(sourceAddress + index));
+
+        ByteBuffTools.copy(source, source.position() + longs, target, targetIndex + longs, length - longs);
+        safe.apply(target, targetIndex + longs, end(targetIndex + longs, targetIndex + length, lane));
+        ByteBuffTools.advance(source, target, length);
+    }
+}
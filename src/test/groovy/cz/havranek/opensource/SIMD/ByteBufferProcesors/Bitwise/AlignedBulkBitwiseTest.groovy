@@ -0,0 +1,147 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+class AlignedBulkBitwiseTest extends Specification {
+
+    @Unroll
+    def "Test #lane operations aligned to #boundary from #from give same result as delegate"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(300)
+        ByteBuffer aligned = ByteBuffer.allocateDirect(300).order(ByteOrder.LITTLE_ENDIAN)
+        aligned.put(raw).clear()
+        ByteBuffer plain = ByteBuffer.wrap(raw.clone()).order(ByteOrder.LITTLE_ENDIAN)
+        BulkBitwiseI delegate = BulkBitwiseFactory.create(BulkBitwiseFactory.Backend.SCALAR, lane, 0x5A)
+        BulkBitwiseI executor = new AlignedBulkBitwise(delegate, lane, boundary)
+        byte[] result = new byte[300]
+        when:
+        executor.XOR(aligned, from, 300 - from % 5)
+        delegate.XOR(plain, from, 300 - from % 5)
+        executor.AND(aligned, from, 300)
+        delegate.AND(plain, from, 300)
+        aligned.get(result)
+        then:
+        result == plain.array()
+        where:
+        [lane, boundary, from] << [Lane.values(), [8, 64], (0..17)].combinations()
+    }
+
+    def "Test whole longs of LongBulkBitwise are not split by prologue of smaller lane"() {
+        given:
+        ByteBuffer buffer = ByteBuffer.allocateDirect(40)
+        when:
+        new AlignedBulkBitwise(new LongBulkBitwise(-1L), Lane.INT).XOR(buffer, 4, 36)
+        then:
+        (0..39).collect { buffer.get(it) } == [0] * 4 + [-1] * 32 + [0] * 4
+    }
+
+    @Unroll
+    def "Test pattern of #pattern.length longs aligned to #boundary from #from gives same result as delegate"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(300)
+        ByteBuffer aligned = ByteBuffer.allocateDirect(300)
+        aligned.put(raw).clear()
+        ByteBuffer plain = ByteBuffer.wrap(raw.clone())
+        ByteBuffer target = ByteBuffer.allocateDirect(300)
+        ByteBuffer plainTarget = ByteBuffer.allocate(300)
+        LongBulkBitwise delegate = new LongBulkBitwise(pattern as long[])
+        BulkBitwiseI executor = new AlignedBulkBitwise(delegate, Lane.BYTE, boundary)
+        byte[] result = new byte[300]
+        byte[] transferred = new byte[300]
+        when:
+        executor.XOR(aligned, from, 300)
+        delegate.XOR(plain, from, 300)
+        aligned.get(result)
+        target.position(from)
+        plainTarget.position(from)
+        executor.XOR(ByteBuffer.wrap(raw, from, 300 - from), target)
+        delegate.XOR(ByteBuffer.wrap(raw, from, 300 - from), plainTarget)
+        target.clear()
+        target.get(transferred)
+        then:
+        result == plain.array()
+        transferred == plainTarget.array()
+        where:
+        [pattern, boundary, from] << [[[5L], [5L, -1L], [1L, 2L, 3L, 4L], (1L..8L).toList()], [8, 64], (0..17)].combinations()
+    }
+
+    def "Test transfer split at boundary never changes limit of shared source"() {
+        given:
+        ByteBuffer source = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN)
+        ByteBuffer target = ByteBuffer.allocateDirect(256)
+        target.position(3)
+        source.position(3)
+        int prologue = AlignedBulkBitwise.prologueLength(target, 3, 64)
+        List<List> calls = []
+        when:
+        AlignedBulkBitwise.execute({ ByteBuffer from, ByteBuffer to ->
+            calls << [from.remaining(), from.order(), source.limit()]
+            to.position(to.position() + from.remaining())
+            from.position(from.limit())
+        } as java.util.function.BiConsumer, source, target, Lane.BYTE, 64)
+        then:
+        calls == [[prologue, ByteOrder.LITTLE_ENDIAN, 256], [253 - prologue, ByteOrder.LITTLE_ENDIAN, 256]]
+        source.position() == 256
+        source.limit() == 256
+    }
+
+    def "Test range is split at boundary of direct buffer"() {
+        given:
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256)
+        List<List<Integer>> calls = []
+        BulkRangeOperation recorder = { ByteBuffer b, int from, int to -> calls << [from, to] } as BulkRangeOperation
+        int prologue = AlignedBulkBitwise.prologueLength(buffer, 3, 64)
+        when:
+        AlignedBulkBitwise.execute(recorder, buffer, 3, 256, Lane.BYTE, 64)
+        then:
+        prologue > 0
+        prologue <= 64
+        (UnsafeAccess.address(buffer) + 3 + prologue) % 64 == 0
+        calls == [[3, 3 + prologue], [3 + prologue, 256]]
+    }
+
+    def "Test range is not split if prologue would split element"() {
+        given:
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64)
+        int from = AlignedBulkBitwise.prologueLength(buffer, 0, 8) + 1
+        List<List<Integer>> calls = []
+        BulkRangeOperation recorder = { ByteBuffer b, int f, int t -> calls << [f, t] } as BulkRangeOperation
+        when:
+        AlignedBulkBitwise.execute(recorder, buffer, from, 64, Lane.INT, 8)
+        then:
+        calls == [[from, 64]]
+    }
+
+    def "Test NOT executed aligned"() {
+        given:
+        ByteBuffer buffer = ByteBuffer.allocateDirect(40)
+        when:
+        AlignedBulkBitwise.execute(ShortBulkBitwise.&NOT, buffer, 2, 39, Lane.SHORT, 8)
+        then:
+        (0..39).collect { buffer.get(it) } == [0] * 2 + [-1] * 36 + [0] * 2
+    }
+
+    def "Test invalid boundary is rejected"() {
+        when:
+        new AlignedBulkBitwise(new ByteBulkBitwise(1), Lane.BYTE, boundary)
+        then:
+        thrown(IllegalArgumentException)
+        where:
+        boundary << [0, 4, 12, -8]
+    }
+
+    def "Test relative operation moves position"() {
+        given:
+        ByteBuffer buffer = ByteBuffer.allocateDirect(33)
+        buffer.position(5)
+        when:
+        new AlignedBulkBitwise(new ByteBulkBitwise(0xFF), Lane.BYTE).OR(buffer)
+        then:
+        buffer.position() == 33
+        (0..32).collect { buffer.get(it) } == [0] * 5 + [-1] * 28
+    }
+}
@@ -0,0 +1,97 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ArrayBulkBitwiseTest extends Specification {
+    static final Map<Class, Number> CONSTANTS = [(byte[]): (byte) 0xA5, (short[]): (short) 0xF0A5, (int[]): (int) 0x8F00F0A5, (long[]): 0x8F00F0A5C3L]
+
+    static Object sequence(Class type, int length, int seed) {
+        Object out = java.lang.reflect.Array.newInstance(type.componentType, length)
+        for (int i = 0; i < length; i++)
+            out[i] = ((i * 0x9E3779B97F4A7C15L + seed) >>> 7).asType(type.componentType)
+        return out
+    }
+
+    static Object common(Object input, int offset, int length, Closure operation) {
+        Object out = input.clone()
+        for (int i = offset; i < offset + length; i++)
+            out[i] = operation(out[i], i - offset).asType(input.class.componentType)
+        return out
+    }
+
+    static List<List> cases() {
+        [
+                [byte[], short[], int[], long[]],
+                [0, 1, 7, 8, 9, 31, 33],
+                [0, 3]
+        ].combinations()
+    }
+
+    @Unroll
+    def "Test #operation with constant of #type.simpleName length #length from #offset"() {
+        given:
+        def array = sequence(type, length + offset + 2, 5)
+        def expected = common(array, offset, length, { a, i -> reference(a, CONSTANTS[type]) })
+        when:
+        ArrayBulkBitwise."$operation"(array, offset, length, CONSTANTS[type])
+        then:
+        array == expected
+        where:
+        [operation, reference, type, length, offset] << [
+                [['AND', { a, b -> a & b }], ['OR', { a, b -> a | b }], ['XOR', { a, b -> a ^ b }]],
+                cases()
+        ].combinations().collect { it.flatten() }
+    }
+
+    @Unroll
+    def "Test #operation of two #type.simpleName length #length from #offset"() {
+        given:
+        def array = sequence(type, length + offset + 2, 5)
+        def operand = sequence(type, length + 1, 77)
+        def expected = common(array, offset, length, { a, i -> reference(a, operand[i + 1]) })
+        when:
+        ArrayBulkBitwise."$operation"(array, offset, operand, 1, length)
+        then:
+        array == expected
+        where:
+        [operation, reference, type, length, offset] << [
+                [['AND', { a, b -> a & b }], ['OR', { a, b -> a | b }], ['XOR', { a, b -> a ^ b }]],
+                cases()
+        ].combinations().collect { it.flatten() }
+    }
+
+    @Unroll
+    def "Test NOT of #type.simpleName length #length from #offset"() {
+        given:
+        def array = sequence(type, length + offset + 2, 5)
+        def expected = common(array, offset, length, { a, i -> ~a })
+        when:
+        ArrayBulkBitwise.NOT(array, offset, length)
+        then:
+        array == expected
+        where:
+        [type, length, offset] << cases()
+    }
+
+    @Unroll
+    def "Test portion offset #offset length #length out of array"() {
+        when:
+        ArrayBulkBitwise.AND(new byte[16], offset, length, (byte) 1)
+        then:
+        thrown(IndexOutOfBoundsException)
+        where:
+        offset | length
+        -1     | 2
+        0      | 17
+        9      | 8
+        1      | -1
+    }
+
+    def "Test operand portion out of array"() {
+        when:
+        ArrayBulkBitwise.XOR(new int[16], 0, new int[8], 1, 8)
+        then:
+        thrown(IndexOutOfBoundsException)
+    }
+}
@@ -0,0 +1,69 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+class BitStringBulkShiftTest extends Specification {
+
+    static boolean bit(byte[] data, int from, long index) {
+        return ((data[(int) (from + (index >>> 3))] >>> (index & 7)) & 1) == 1
+    }
+
+    /**
+     * common implementation moving every bit separately
+     */
+    static byte[] common(byte[] input, int from, int to, long distance, boolean left) {
+        byte[] out = input.clone()
+        long bits = (to - from) * 8L
+        for (int i = from; i < to; i++)
+            out[i] = 0
+        for (long k = 0; k < bits; k++) {
+            long source = left ? k - distance : k + distance
+            if (source >= 0 && source < bits && bit(input, from, source))
+                out[(int) (from + (k >>> 3))] |= (byte) (1 << (k & 7))
+        }
+        return out
+    }
+
+    @Unroll
+    def "Test #operation of range #from to #to by #distance #order"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(40)
+        byte[] expected = common(raw, from, to, distance, operation == 'SHL')
+        ByteBuffer buffer = ByteBuffer.wrap(raw).order(order)
+        when:
+        BitStringBulkShift."$operation"(buffer, from, to, distance)
+        then:
+        raw == expected
+        buffer.order() == order
+        where:
+        [operation, from, to, distance, order] << [
+                ['SHL', 'SHR'],
+                [0, 3],
+                [3, 9, 17, 40],
+                [0L, 1L, 7L, 8L, 9L, 63L, 64L, 65L, 100L, 136L, 320L, 1000L],
+                [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN]
+        ].combinations().findAll { it[1] <= it[2] }
+    }
+
+    def "Test shift moves position to limit"() {
+        given:
+        byte[] raw = [0x81, 0x01, 0x80] as byte[]
+        ByteBuffer buffer = ByteBuffer.wrap(raw)
+        when:
+        BitStringBulkShift.SHL(buffer, 1)
+        then:
+        raw == [0x02, 0x03, 0x00] as byte[]
+        buffer.position() == 3
+    }
+
+    def "Test negative distance"() {
+        when:
+        BitStringBulkShift.SHR(ByteBuffer.allocate(8), -1)
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,166 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+class BufferBulkBitwiseTest extends Specification {
+
+    static byte[] sequence(int length, int seed) {
+        byte[] out = new byte[length]
+        for (int i = 0; i < length; i++)
+            out[i] = (byte) (i * 37 + seed)
+        return out
+    }
+
+    static byte[] common(byte[] first, byte[] second, Closure<Integer> operation) {
+        byte[] out = new byte[first.length]
+        for (int i = 0; i < first.length; i++)
+            out[i] = (byte) operation(first[i], second[i])
+        return out
+    }
+
+    @Unroll
+    def "Test #operation of two buffers of length #length"() {
+        given:
+        byte[] raw = sequence(length, 3)
+        byte[] operand = sequence(length, 101)
+        byte[] expected = common(raw, operand, reference)
+        when:
+        BufferBulkBitwise."$operation"(ByteBuffer.wrap(raw), ByteBuffer.wrap(operand))
+        then:
+        raw == expected
+        where:
+        [operation, reference, length] << [
+                [['AND', { a, b -> a & b }], ['OR', { a, b -> a | b }], ['XOR', { a, b -> a ^ b }]],
+                (0..17)
+        ].combinations().collect { it.flatten() }
+    }
+
+    @Unroll
+    def "Test #operation of two buffers into third of length #length"() {
+        given:
+        byte[] first = sequence(length, 3)
+        byte[] second = sequence(length, 101)
+        byte[] result = new byte[length]
+        byte[] expected = common(first, second, reference)
+        when:
+        BufferBulkBitwise."$operation"(ByteBuffer.wrap(result), ByteBuffer.wrap(first), ByteBuffer.wrap(second))
+        then:
+        result == expected
+        where:
+        [operation, reference, length] << [
+                [['AND', { a, b -> a & b }], ['OR', { a, b -> a | b }], ['XOR', { a, b -> a ^ b }]],
+                (0..17)
+        ].combinations().collect { it.flatten() }
+    }
+
+    @Unroll
+    def "Test #operation of two buffers of length #length"() {
+        given:
+        byte[] raw = sequence(length, 3)
+        byte[] operand = sequence(length, 101)
+        byte[] expected = common(raw, operand, reference)
+        when:
+        BufferBulkBitwise."$operation"(ByteBuffer.wrap(raw), ByteBuffer.wrap(operand).order(ByteOrder.LITTLE_ENDIAN))
+        then:
+        raw == expected
+        where:
+        [operation, reference, length] << [
+                [['ANDNOT', { a, b -> a & ~b }], ['ORNOT', { a, b -> a | ~b }], ['NAND', { a, b -> ~(a & b) }],
+                 ['NOR', { a, b -> ~(a | b) }], ['XNOR', { a, b -> ~(a ^ b) }]],
+                (0..17)
+        ].combinations().collect { it.flatten() }
+    }
+
+    @Unroll
+    def "Test BLEND of buffers of length #length"() {
+        given:
+        byte[] raw = sequence(length, 3)
+        byte[] operand = sequence(length, 101)
+        byte[] mask = sequence(length, 55)
+        byte[] expected = new byte[length]
+        for (int i = 0; i < length; i++)
+            expected[i] = (byte) ((raw[i] & ~mask[i]) | (operand[i] & mask[i]))
+        ByteBuffer maskBuffer = ByteBuffer.wrap(mask).order(ByteOrder.LITTLE_ENDIAN)
+        when:
+        BufferBulkBitwise.BLEND(ByteBuffer.wrap(raw), ByteBuffer.wrap(operand), maskBuffer)
+        then:
+        raw == expected
+        maskBuffer.order() == ByteOrder.LITTLE_ENDIAN
+        maskBuffer.position() == length
+        where:
+        length << (0..17)
+    }
+
+    def "Test operand of different byte order"() {
+        given:
+        byte[] raw = sequence(13, 3)
+        byte[] operand = sequence(13, 101)
+        byte[] expected = common(raw, operand, { a, b -> a ^ b })
+        ByteBuffer operandBuffer = ByteBuffer.wrap(operand).order(ByteOrder.LITTLE_ENDIAN)
+        when:
+        BufferBulkBitwise.XOR(ByteBuffer.wrap(raw), operandBuffer)
+        then:
+        raw == expected
+        operandBuffer.order() == ByteOrder.LITTLE_ENDIAN
+    }
+
+    def "Test same buffer as both operands into third"() {
+        given:
+        byte[] operand = sequence(21, 101)
+        byte[] result = new byte[23]
+        ByteBuffer operandBuffer = ByteBuffer.wrap(operand).order(ByteOrder.LITTLE_ENDIAN)
+        operandBuffer.position(2)
+        ByteBuffer resultBuffer = ByteBuffer.wrap(result)
+        resultBuffer.position(4)
+        when:
+        BufferBulkBitwise.XOR(resultBuffer, operandBuffer, operandBuffer)
+        BufferBulkBitwise.OR(ByteBuffer.wrap(result, 4, 19), ByteBuffer.wrap(operand, 2, 19), ByteBuffer.wrap(operand, 2, 19))
+        then:
+        result == [0] * 4 + operand[2..<21] as byte[]
+        operandBuffer.position() == 21
+        operandBuffer.order() == ByteOrder.LITTLE_ENDIAN
+        resultBuffer.position() == 23
+    }
+
+    @Unroll
+    def "Test operands of #firstOrder and #secondOrder order into #resultOrder result"() {
+        given:
+        byte[] first = sequence(19, 3)
+        byte[] second = sequence(19, 101)
+        byte[] result = new byte[19]
+        ByteBuffer firstBuffer = ByteBuffer.wrap(first).order(firstOrder)
+        ByteBuffer secondBuffer = ByteBuffer.wrap(second).order(secondOrder)
+        when:
+        BufferBulkBitwise.AND(ByteBuffer.wrap(result).order(resultOrder), firstBuffer, secondBuffer)
+        then:
+        result == common(first, second, { a, b -> a & b })
+        firstBuffer.order() == firstOrder
+        secondBuffer.order() == secondOrder
+        where:
+        [firstOrder, secondOrder, resultOrder] << ([[ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN]] * 3).combinations()
+    }
+
+    def "Test processing from position"() {
+        given:
+        byte[] raw = sequence(12, 3)
+        byte[] operand = sequence(10, 101)
+        byte[] expected = raw.clone()
+        for (int i = 0; i < 9; i++)
+            expected[i + 2] = (byte) (raw[i + 2] & operand[i + 1])
+        when:
+        BufferBulkBitwise.AND(ByteBuffer.wrap(raw).position(2).limit(11) as ByteBuffer, ByteBuffer.wrap(operand).position(1) as ByteBuffer)
+        then:
+        raw == expected
+    }
+
+    def "Test different length"() {
+        when:
+        BufferBulkBitwise.AND(ByteBuffer.wrap(new byte[8]), ByteBuffer.wrap(new byte[9]))
+        then:
+        thrown(IllegalBufferLengthException)
+    }
+}
@@ -0,0 +1,118 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+class BulkBitReductionsTest extends Specification {
+
+    static BitSet bits(byte[] data, int from, int to) {
+        BitSet out = BitSet.valueOf(data)
+        if (from > 0)
+            out.clear(0, from * 8)
+        out.clear(to * 8, Math.max(to * 8, data.length * 8))
+        return out
+    }
+
+    static byte[] sparse(int length, int... setBits) {
+        byte[] out = new byte[length]
+        for (int bit : setBits)
+            out[bit >>> 3] |= (byte) (1 << (bit & 7))
+        return out
+    }
+
+    @Unroll
+    def "Test popcount and parity of range #from to #to"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(37)
+        BitSet expected = bits(raw, from, to)
+        ByteBuffer buffer = ByteBuffer.wrap(raw)
+        expect:
+        BulkBitReductions.popcount(buffer, from, to) == expected.cardinality()
+        BulkBitReductions.parity(buffer, from, to) == (expected.cardinality() % 2 == 1)
+        buffer.position() == 0
+        where:
+        [from, to] << [[0, 1, 3], [3, 4, 8, 11, 16, 17, 37]].combinations()
+    }
+
+    @Unroll
+    def "Test first and last set bit of #setBits in range #from to #to #order"() {
+        given:
+        byte[] raw = sparse(40, setBits as int[])
+        BitSet expected = bits(raw, from, to)
+        ByteBuffer buffer = ByteBuffer.wrap(raw).order(order)
+        expect:
+        BulkBitReductions.firstSetBit(buffer, from, to) == expected.nextSetBit(0)
+        BulkBitReductions.lastSetBit(buffer, from, to) == expected.length() - 1
+        buffer.order() == order
+        where:
+        [setBits, from, to, order] << [
+                [[], [0], [5], [63], [64, 200], [71, 72, 319], [9, 150, 257]],
+                [0, 3],
+                [3, 9, 17, 40],
+                [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN]
+        ].combinations()
+    }
+
+    @Unroll
+    def "Test next set bit from #fromBit"() {
+        given:
+        byte[] raw = sparse(40, 3, 64, 65, 130, 319)
+        BitSet expected = BitSet.valueOf(raw)
+        expect:
+        BulkBitReductions.nextSetBit(ByteBuffer.wrap(raw), fromBit) == expected.nextSetBit(fromBit)
+        where:
+        fromBit << [0, 3, 4, 63, 64, 65, 66, 131, 319, 320, 1000]
+    }
+
+    def "Test iteration over set bits"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(29)
+        ByteBuffer buffer = ByteBuffer.wrap(raw)
+        List<Long> found = []
+        when:
+        for (long bit = BulkBitReductions.nextSetBit(buffer, 0); bit >= 0; bit = BulkBitReductions.nextSetBit(buffer, bit + 1))
+            found << bit
+        then:
+        found == BitSet.valueOf(raw).stream().toArray().collect { it as long }
+    }
+
+    @Unroll
+    def "Test fused #operation popcount of length #length"() {
+        given:
+        byte[] first = BufferBulkBitwiseTest.sequence(length + 2, 3)
+        byte[] second = BufferBulkBitwiseTest.sequence(length, 101)
+        byte[] result = BufferBulkBitwiseTest.common(Arrays.copyOfRange(first, 2, length + 2), second, reference)
+        ByteBuffer firstBuffer = ByteBuffer.wrap(first).position(2) as ByteBuffer
+        expect:
+        BulkBitReductions."${operation}Popcount"(firstBuffer, ByteBuffer.wrap(second)) == BitSet.valueOf(result).cardinality()
+        firstBuffer.position() == 2
+        where:
+        [operation, reference, length] << [
+                [['and', { a, b -> a & b }], ['or', { a, b -> a | b }], ['xor', { a, b -> a ^ b }]],
+                [0, 1, 7, 8, 9, 17, 33]
+        ].combinations().collect { it.flatten() }
+    }
+
+    @Unroll
+    def "Test fused AND popcount with constant of #lane #order length #length"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length)
+        byte[] expected = BulkBitwiseFactoryTest.common(raw, 0, lane, order, { a, b -> a & b })
+        //untouched bytes of incomplete element are not counted
+        int end = length - length % lane.bytes()
+        expect:
+        BulkBitReductions.andPopcount(ByteBuffer.wrap(raw).order(order), lane, BulkBitwiseFactoryTest.CONSTANTS[lane]) == bits(expected, 0, end).cardinality()
+        where:
+        [lane, order, length] << [Lane.values(), [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN], [0, 3, 8, 13, 14, 22, 31]].combinations()
+    }
+
+    def "Test fused popcount of different length"() {
+        when:
+        BulkBitReductions.andPopcount(ByteBuffer.allocate(8), ByteBuffer.allocate(9))
+        then:
+        thrown(IllegalBufferLengthException)
+    }
+}
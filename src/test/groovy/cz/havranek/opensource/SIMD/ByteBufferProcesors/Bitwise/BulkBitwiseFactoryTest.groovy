@@ -0,0 +1,178 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.IgnoreIf
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+import static cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise.BulkBitwiseFactory.Backend
+
+class BulkBitwiseFactoryTest extends Specification {
+    static final Map<Lane, Integer> CONSTANTS = [(Lane.BYTE): 0b10100101, (Lane.SHORT): 0b1111000010100101, (Lane.INT): (int) 0x8F00F0A5, (Lane.LONG): (int) 0x8F00F0A5]
+
+    static byte[] sequence(int length) {
+        byte[] out = new byte[length]
+        for (int i = 0; i < length; i++)
+            out[i] = (byte) (i * 37 + 11)
+        return out
+    }
+
+    /**
+     * common implementation processing every element separately
+     */
+    static byte[] common(byte[] input, int position, Lane lane, ByteOrder order, Closure<Long> operation) {
+        byte[] out = input.clone()
+        ByteBuffer buffer = ByteBuffer.wrap(out).order(order)
+        for (int i = position; i + lane.bytes() <= out.length; i += lane.bytes()) {
+            switch (lane) {
+                case Lane.BYTE: buffer.put(i, (byte) operation(buffer.get(i), CONSTANTS[lane])); break
+                case Lane.SHORT: buffer.putShort(i, (short) operation(buffer.getShort(i), CONSTANTS[lane])); break
+                case Lane.INT: buffer.putInt(i, (int) operation(buffer.getInt(i), CONSTANTS[lane])); break
+                default: buffer.putLong(i, (long) operation(buffer.getLong(i), CONSTANTS[lane]))
+            }
+        }
+        return out
+    }
+
+    static List<List> cases() {
+        [
+                Backend.values().findAll { BulkBitwiseFactory.isAvailable(it) },
+                Lane.values(),
+                [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN],
+                [0, 1, 7, 8, 9, 31, 32, 33, 63, 64, 65, 130],
+                [0, 3]
+        ].combinations().collect { it.flatten() }
+    }
+
+    @Unroll
+    def "Test #operation of #backend #lane #order length #length from #position"() {
+        given:
+        byte[] raw = sequence(length)
+        byte[] expected = common(raw, position, lane, order, reference)
+        ByteBuffer buffer = ByteBuffer.wrap(raw).order(order)
+        buffer.position(Math.min(position, length))
+        when:
+        BulkBitwiseI executor = BulkBitwiseFactory.create(backend, lane, CONSTANTS[lane])
+        executor."$operation"(buffer)
+        then:
+        raw == expected
+        where:
+        [operation, reference, backend, lane, order, length, position] << [
+                [['AND', { a, b -> a & b }], ['OR', { a, b -> a | b }], ['XOR', { a, b -> a ^ b }]],
+                cases()
+        ].combinations().collect { it.flatten() }
+    }
+
+    @Unroll
+    def "Test NOT of #backend #lane #order length #length from #position"() {
+        given:
+        byte[] raw = sequence(length)
+        byte[] expected = common(raw, position, lane, order, { a, b -> ~a })
+        ByteBuffer buffer = ByteBuffer.wrap(raw).order(order)
+        buffer.position(Math.min(position, length))
+        when:
+        BulkBitwiseFactory.NOT(backend, lane).accept(buffer)
+        then:
+        raw == expected
+        where:
+        [backend, lane, order, length, position] << cases()
+    }
+
+    @Unroll
+    def "Test range #operation of #backend #lane #order length #length from #position"() {
+        given:
+        byte[] raw = sequence(length + 5)
+        byte[] expected = raw.clone()
+        System.arraycopy(common(Arrays.copyOf(raw, length), position, lane, order, reference), 0, expected, 0, length)
+        ByteBuffer buffer = ByteBuffer.wrap(raw).order(order)
+        int from = Math.min(position, length)
+        when:
+        BulkBitwiseI executor = BulkBitwiseFactory.create(backend, lane, CONSTANTS[lane])
+        if (operation == 'NOT')
+            BulkBitwiseFactory.rangeNOT(backend, lane).apply(buffer, from, length)
+        else
+            executor."$operation"(buffer, from, length)
+        then:
+        raw == expected
+        buffer.position() == 0
+        buffer.limit() == length + 5
+        where:
+        [operation, reference, backend, lane, order, length, position] << [
+                [['AND', { a, b -> a & b }], ['OR', { a, b -> a | b }], ['XOR', { a, b -> a ^ b }], ['NOT', { a, b -> ~a }]],
+                cases()
+        ].combinations().collect { it.flatten() }
+    }
+
+    @Unroll
+    def "Test default backend end to end #lane #order length #length"() {
+        given:
+        byte[] raw = sequence(length)
+        byte[] expected = common(common(common(raw, 0, lane, order, { a, b -> a & b }), 0, lane, order, { a, b -> a | b }), 0, lane, order, { a, b -> ~(a ^ b) })
+        ByteBuffer buffer = ByteBuffer.allocateDirect(length).order(order)
+        buffer.put(raw).flip()
+        when:
+        BulkBitwiseI executor = BulkBitwiseFactory.create(lane, CONSTANTS[lane])
+        executor.AND(buffer)
+        buffer.flip()
+        executor.OR(buffer, 0, length)
+        executor.XOR(buffer)
+        buffer.flip()
+        BulkBitwiseFactory.NOT(BulkBitwiseFactory.defaultBackend(), lane).accept(buffer)
+        byte[] result = new byte[length]
+        buffer.flip()
+        buffer.get(result)
+        then:
+        result == expected
+        where:
+        [lane, order, length] << [Lane.values(), [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN], [0, 13, 64, 1000]].combinations()
+    }
+
+    @IgnoreIf({ !BulkBitwiseFactory.isAvailable(BulkBitwiseFactory.Backend.VECTOR) })
+    def "Test vector backend is default when available"() {
+        expect:
+        BulkBitwiseFactory.defaultBackend() == Backend.VECTOR
+        !(BulkBitwiseFactory.create(Lane.BYTE, 1) instanceof ByteBulkBitwise)
+    }
+
+    @IgnoreIf({ BulkBitwiseFactory.isAvailable(BulkBitwiseFactory.Backend.VECTOR) })
+    def "Test fallback to scalar backend"() {
+        when:
+        BulkBitwiseFactory.create(Backend.VECTOR, Lane.BYTE, 1)
+        then:
+        BulkBitwiseFactory.defaultBackend() == Backend.SCALAR
+        BulkBitwiseFactory.create(Lane.BYTE, 1) instanceof ByteBulkBitwise
+        thrown(UnsupportedOperationException)
+    }
+
+    @Unroll
+    def "Test packed filter of #lane"() {
+        expect:
+        lane.packedFilter(constant) == packed
+        where:
+        lane       | constant   || packed
+        Lane.BYTE  | 0xA5       || 0xA5A5A5A5A5A5A5A5L
+        Lane.SHORT | 0xA5       || 0x00A500A500A500A5L
+        Lane.SHORT | 0xFFA5     || 0xFFA5FFA5FFA5FFA5L
+        Lane.INT   | 0xFFA5     || 0x0000FFA50000FFA5L
+        Lane.INT   | (int) 0x800000A5 || 0x800000A5800000A5L
+        Lane.INT   | -1         || -1L
+        Lane.LONG  | 0xFFA5     || 0xFFA5L
+        Lane.LONG  | (int) 0x800000A5 || 0xFFFFFFFF800000A5L
+    }
+
+    @Unroll
+    def "Test constant #constant out of range of #lane"() {
+        when:
+        BulkBitwiseFactory.create(lane, constant)
+        then:
+        thrown(IllegalArgumentException)
+        where:
+        lane       | constant
+        Lane.BYTE  | -1
+        Lane.BYTE  | 256
+        Lane.SHORT | -1
+        Lane.SHORT | 0x10000
+    }
+}
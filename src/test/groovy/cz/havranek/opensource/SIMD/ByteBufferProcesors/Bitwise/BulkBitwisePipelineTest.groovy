@@ -0,0 +1,85 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.util.concurrent.ForkJoinPool
+
+class BulkBitwisePipelineTest extends Specification {
+
+    @Unroll
+    def "Test pipeline is same as chain of processors #order length #length from #from"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length)
+        byte[] key = BufferBulkBitwiseTest.sequence(length, 101)
+        byte[] expected = raw.clone()
+        ByteBuffer chained = ByteBuffer.wrap(expected).order(order)
+        new IntBulkBitwise(0x5A5AF00F).XOR(chained, from, length)
+        new ByteBulkBitwise(0b11011011).AND(chained, from, length)
+        ShortBulkBitwise.NOT(chained, from, length)
+        BufferBulkBitwise.OR(ByteBuffer.wrap(expected, from, length - from).slice(), ByteBuffer.wrap(key, from, length - from).slice())
+        new ShortBulkBitwise(0x0F0F).OR(chained, from, length)
+        ByteBuffer buffer = ByteBuffer.wrap(raw).order(order)
+        buffer.position(from)
+        when:
+        BulkBitwisePipeline.builder()
+                .XOR(Lane.INT, 0x5A5AF00F)
+                .AND(Lane.BYTE, 0b11011011)
+                .NOT()
+                .OR(ByteBuffer.wrap(key).order(ByteOrder.LITTLE_ENDIAN))
+                .OR(Lane.SHORT, 0x0F0F)
+                .build()
+                .apply(buffer)
+        then:
+        raw == expected
+        buffer.position() == length
+        where:
+        [order, length, from] << [[ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN], [0, 4, 8, 12, 16, 20, 36, 100], [0, 4]].combinations().findAll { it[2] <= it[1] }
+    }
+
+    @Unroll
+    def "Test incomplete element of widest lane #lane is untouched length #length"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length)
+        byte[] expected = BulkBitwiseFactoryTest.common(raw, 0, lane, ByteOrder.BIG_ENDIAN, { a, b -> ~(a ^ b) })
+        when:
+        BulkBitwisePipeline.builder().XOR(lane, BulkBitwiseFactoryTest.CONSTANTS[lane]).NOT().build().apply(ByteBuffer.wrap(raw), 0, length)
+        then:
+        raw == expected
+        where:
+        [lane, length] << [Lane.values(), [1, 3, 7, 9, 13, 14, 15, 23]].combinations()
+    }
+
+    def "Test empty pipeline"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(17)
+        when:
+        BulkBitwisePipeline.builder().build().apply(ByteBuffer.wrap(raw))
+        then:
+        raw == BulkBitwiseFactoryTest.sequence(17)
+    }
+
+    def "Test operand not covering range"() {
+        when:
+        BulkBitwisePipeline.builder().AND(ByteBuffer.allocate(8)).build().apply(ByteBuffer.allocate(16))
+        then:
+        thrown(IndexOutOfBoundsException)
+    }
+
+    def "Test parallel execution"() {
+        given:
+        int length = ParallelBulkBitwise.MIN_CHUNK * 4 + 13
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length)
+        byte[] key = BufferBulkBitwiseTest.sequence(length, 7)
+        byte[] expected = raw.clone()
+        BufferBulkBitwise.XOR(ByteBuffer.wrap(expected), ByteBuffer.wrap(key))
+        ByteBulkBitwise.NOT(ByteBuffer.wrap(expected))
+        BulkBitwisePipeline pipeline = BulkBitwisePipeline.builder().XOR(ByteBuffer.wrap(key)).NOT().build()
+        when:
+        new ParallelBulkBitwise(new ByteBulkBitwise(0), new ForkJoinPool(4), 0).execute(pipeline, ByteBuffer.wrap(raw), 0, length)
+        then:
+        raw == expected
+    }
+}
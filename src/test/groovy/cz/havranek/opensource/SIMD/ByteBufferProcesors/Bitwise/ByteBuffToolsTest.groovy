@@ -5,6 +5,7 @@ import spock.lang.Specification
 import spock.lang.Unroll
 
 import java.nio.ByteBuffer
+import java.nio.ByteOrder
 
 class ByteBuffToolsTest extends Specification {
     ByteBuffer data;
@@ -119,4 +120,100 @@ class ByteBuffToolsTest extends Specification {
         8     || true
     }
 
+    @Unroll
+    def "Test same remaining"() {
+        when:
+        def isValid
+        try {
+            ByteBuffTools.validateSameRemaining(first, second)
+            isValid = true
+        } catch (IllegalBufferLengthException ignored) {
+            isValid = false
+        }
+        then:
+        isValid == expected
+        where:
+        first                                    | second                                   || expected
+        ByteBuffer.wrap(new byte[0])             | ByteBuffer.wrap(new byte[0])             || true
+        ByteBuffer.wrap(new byte[4])             | ByteBuffer.wrap(new byte[4])             || true
+        ByteBuffer.wrap(new byte[4])             | ByteBuffer.wrap(new byte[5])             || false
+        ByteBuffer.wrap(new byte[5]).position(1) | ByteBuffer.wrap(new byte[4])             || true
+        ByteBuffer.wrap(new byte[5]).limit(4)    | ByteBuffer.wrap(new byte[5]).position(1) || true
+    }
+
+    @Unroll
+    def "Test range #from - #to"() {
+        when:
+        def isValid
+        try {
+            ByteBuffTools.validateRange(ByteBuffer.wrap(new byte[8]).limit(6) as ByteBuffer, from, to)
+            isValid = true
+        } catch (IndexOutOfBoundsException ignored) {
+            isValid = false
+        }
+        then:
+        isValid == expected
+        where:
+        from | to || expected
+        0    | 0  || true
+        0    | 6  || true
+        6    | 6  || true
+        2    | 5  || true
+        -1   | 5  || false
+        3    | 2  || false
+        0    | 7  || false
+    }
+
+    /**
+     * implementation of BulkBitwiseI with relative operations only (as written before range and out of place variants existed)
+     */
+    static class RelativeOnly implements BulkBitwiseI {
+        final BulkBitwiseI delegate
+
+        RelativeOnly(BulkBitwiseI delegate) {
+            this.delegate = delegate
+        }
+
+        void AND(ByteBuffer toProcess) { delegate.AND(toProcess) }
+
+        void OR(ByteBuffer toProcess) { delegate.OR(toProcess) }
+
+        void XOR(ByteBuffer toProcess) { delegate.XOR(toProcess) }
+    }
+
+    @Unroll
+    def "Test default range and out of place methods of BulkBitwiseI give same result as #lane processor in #order"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(77)
+        BulkBitwiseI processor = BulkBitwiseFactory.create(BulkBitwiseFactory.Backend.SCALAR, lane, BulkBitwiseFactoryTest.CONSTANTS[lane])
+        BulkBitwiseI relative = new RelativeOnly(processor)
+        ByteBuffer expected = ByteBuffer.wrap(raw.clone()).order(order)
+        ByteBuffer actual = ByteBuffer.wrap(raw.clone()).order(order)
+        actual.limit(70).position(5)
+        ByteBuffer source = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN).asReadOnlyBuffer()
+        source.position(3)
+        ByteBuffer expectedTarget = ByteBuffer.allocate(80).order(order)
+        ByteBuffer actualTarget = ByteBuffer.allocate(80).order(order)
+        when:
+        processor.XOR(expected, 7, 61)
+        relative.XOR(actual, 7, 61)
+        processor.AND(source.duplicate().position(3), expectedTarget.position(2))
+        relative.AND(source, actualTarget.position(2))
+        then:
+        actual.array() == expected.array()
+        actual.position() == 5
+        actual.limit() == 70
+        actualTarget.array() == expectedTarget.array()
+        actualTarget.position() == 76
+        source.position() == 77
+        where:
+        [lane, order] << [Lane.values(), [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN]].combinations()
+    }
+
+    def "Test default range method of BulkBitwiseI rejects range out of buffer"() {
+        when:
+        new RelativeOnly(new ByteBulkBitwise((byte) 1)).OR(ByteBuffer.allocate(10), 4, 11)
+        then:
+        thrown(IndexOutOfBoundsException)
+    }
 }
@@ -252,4 +252,60 @@ class ByteBulkBitwiseTest extends Specification {
         [-1, -2, -3, -4, -5]     || [((byte) ~(-1)), ((byte) ~(-2)), ((byte) ~(-3)), ((byte) ~(-4)), ((byte) ~(-5))]
         [-1, -2, -3, -4, -5, -6] || [((byte) ~(-1)), ((byte) ~(-2)), ((byte) ~(-3)), ((byte) ~(-4)), ((byte) ~(-5)), ((byte) ~(-6))]
     }
+
+    @Unroll
+    def "Test byte AND range"() {
+        given:
+        ByteBulkBitwise executor = new ByteBulkBitwise(95 | 1 << 7)
+        def UTF8 = StandardCharsets.UTF_8
+        when:
+        byte[] raw = input.getBytes(UTF8)
+        ByteBuffer buffer = ByteBuffer.wrap(raw)
+        buffer.position(1)
+        executor.AND(buffer, from, to)
+        then:
+        output.getBytes() == raw
+        buffer.position() == 1
+        buffer.limit() == raw.length
+
+        where:
+        input                    | from | to || output
+        'actg'                   | 1    | 3  || 'aCTg'
+        "actgactgactgactgactg"   | 0    | 20 || "ACTGACTGACTGACTGACTG"
+        "actgactgactgactgactg"   | 3    | 16 || "actGACTGACTGACTGactg"
+        "actgactgactgactgactg"   | 5    | 5  || "actgactgactgactgactg"
+    }
+
+    @Unroll
+    def "Test byte NOT range #from - #to"() {
+        given:
+        byte[] raw = new byte[20]
+        byte[] out = new byte[20]
+        for (int i = from; i < to; i++)
+            out[i] = (byte) ~0
+        when:
+        ByteBulkBitwise.NOT(ByteBuffer.wrap(raw), from, to)
+        then:
+        out == raw
+        where:
+        from | to
+        0    | 20
+        1    | 20
+        3    | 19
+        7    | 8
+        9    | 9
+    }
+
+    @Unroll
+    def "Test range out of buffer"() {
+        when:
+        new ByteBulkBitwise(1).XOR(ByteBuffer.wrap(new byte[8]).limit(6) as ByteBuffer, from, to)
+        then:
+        thrown(IndexOutOfBoundsException)
+        where:
+        from | to
+        -1   | 2
+        3    | 2
+        0    | 7
+    }
 }
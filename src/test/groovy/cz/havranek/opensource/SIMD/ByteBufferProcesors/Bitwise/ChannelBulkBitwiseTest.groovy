@@ -0,0 +1,137 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.channels.Channels
+import java.nio.channels.ReadableByteChannel
+import java.nio.channels.WritableByteChannel
+import java.util.concurrent.Executor
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RejectedExecutionException
+
+class ChannelBulkBitwiseTest extends Specification {
+
+    /**
+     * channel returning at most maxRead bytes per read (as pipe or socket)
+     */
+    static ReadableByteChannel trickle(byte[] content, int maxRead) {
+        int offset = 0
+        return [
+                read  : { ByteBuffer target ->
+                    if (offset == content.length)
+                        return -1
+                    int count = Math.min(Math.min(maxRead, target.remaining()), content.length - offset)
+                    target.put(content, offset, count)
+                    offset += count
+                    return count
+                },
+                isOpen: { true },
+                close : {}
+        ] as ReadableByteChannel
+    }
+
+    @Unroll
+    def "Test #lane #order stream of #length bytes read by #maxRead bytes"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length)
+        byte[] expected = BulkBitwiseFactoryTest.common(raw, 0, lane, order, { a, b -> a & b })
+        BulkBitwiseI executor = BulkBitwiseFactory.create(BulkBitwiseFactory.Backend.SCALAR, lane, BulkBitwiseFactoryTest.CONSTANTS[lane])
+        ByteArrayOutputStream output = new ByteArrayOutputStream()
+        ChannelBulkBitwise transformer = new ChannelBulkBitwise(lane, executor.&AND, 16, order, ForkJoinPool.commonPool())
+        when:
+        long transferred = transformer.transform(trickle(raw, maxRead), Channels.newChannel(output))
+        then:
+        transferred == length
+        output.toByteArray() == expected
+        where:
+        [lane, order, length, maxRead] << [Lane.values(), [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN], [0, 3, 16, 103], [1, 3, 5, 16]].combinations()
+    }
+
+    @Unroll
+    def "Test pattern of #words longs keeps phase over reads of #maxRead bytes with granularity"() {
+        given:
+        long[] pattern = (1..words).collect { 0x0101010101010101L * it } as long[]
+        LongBulkBitwise key = new LongBulkBitwise(pattern)
+        byte[] raw = BulkBitwiseFactoryTest.sequence(1003)
+        ByteBuffer expected = ByteBuffer.wrap(raw.clone())
+        key.XOR(expected)
+        ByteArrayOutputStream output = new ByteArrayOutputStream()
+        ChannelBulkBitwise transformer = new ChannelBulkBitwise(Lane.LONG, key.granularity(), key.&XOR, 128,
+                ByteOrder.BIG_ENDIAN, ForkJoinPool.commonPool(), DirectBufferPool.shared())
+        when:
+        transformer.transform(trickle(raw, maxRead), Channels.newChannel(output))
+        then:
+        output.toByteArray() == expected.array()
+        where:
+        [words, maxRead] << ([[2, 4, 8], [8, 24, 40, 56, 72, 128]].combinations())
+    }
+
+    def "Test invalid granularity"() {
+        when:
+        new ChannelBulkBitwise(Lane.INT, granularity, IntBulkBitwise.&NOT, 64, ByteOrder.BIG_ENDIAN, ForkJoinPool.commonPool(), DirectBufferPool.shared())
+        then:
+        thrown(IllegalArgumentException)
+        where:
+        granularity << [0, -4, 6, 48, 128]
+    }
+
+    def "Test buffers are returned to pool"() {
+        given:
+        DirectBufferPool pool = new DirectBufferPool(0)
+        List<ByteBuffer> used = []
+        ChannelBulkBitwise transformer = new ChannelBulkBitwise(Lane.BYTE, { ByteBuffer chunk -> used << chunk },
+                64, ByteOrder.LITTLE_ENDIAN, ForkJoinPool.commonPool(), pool)
+        when:
+        transformer.transform(Channels.newChannel(new ByteArrayInputStream(new byte[200])), Channels.newChannel(new ByteArrayOutputStream()))
+        ByteBuffer reused = pool.acquire(64)
+        then:
+        used.any { it.is(reused) }
+        reused.order() == ByteOrder.BIG_ENDIAN
+    }
+
+    def "Test transformer can be reused"() {
+        given:
+        ChannelBulkBitwise transformer = new ChannelBulkBitwise(Lane.INT, IntBulkBitwise.&NOT)
+        byte[] raw = BulkBitwiseFactoryTest.sequence(1000)
+        byte[] expected = BulkBitwiseFactoryTest.common(raw, 0, Lane.INT, ByteOrder.BIG_ENDIAN, { a, b -> ~a })
+        ByteArrayOutputStream first = new ByteArrayOutputStream()
+        ByteArrayOutputStream second = new ByteArrayOutputStream()
+        when:
+        transformer.transform(Channels.newChannel(new ByteArrayInputStream(raw)), Channels.newChannel(first))
+        transformer.transform(Channels.newChannel(new ByteArrayInputStream(raw)), Channels.newChannel(second))
+        then:
+        first.toByteArray() == expected
+        second.toByteArray() == expected
+    }
+
+    def "Test failure of write is reported"() {
+        given:
+        WritableByteChannel failing = [write: { ByteBuffer b -> throw new IOException("broken pipe") }, isOpen: { true }, close: {}] as WritableByteChannel
+        when:
+        new ChannelBulkBitwise(Lane.BYTE, ByteBulkBitwise.&NOT, 8, ByteOrder.BIG_ENDIAN, ForkJoinPool.commonPool())
+                .transform(trickle(new byte[100], 8), failing)
+        then:
+        IOException e = thrown()
+        e.message == "broken pipe"
+    }
+
+    def "Test rejected write is reported"() {
+        given:
+        Executor rejecting = { Runnable task -> throw new RejectedExecutionException("shutdown") } as Executor
+        when:
+        new ChannelBulkBitwise(Lane.BYTE, ByteBulkBitwise.&NOT, 8, ByteOrder.BIG_ENDIAN, rejecting)
+                .transform(trickle(new byte[100], 8), Channels.newChannel(new ByteArrayOutputStream()))
+        then:
+        thrown(RejectedExecutionException)
+    }
+
+    def "Test invalid chunk size"() {
+        when:
+        new ChannelBulkBitwise(Lane.BYTE, ByteBulkBitwise.&NOT, 12, ByteOrder.BIG_ENDIAN, ForkJoinPool.commonPool())
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
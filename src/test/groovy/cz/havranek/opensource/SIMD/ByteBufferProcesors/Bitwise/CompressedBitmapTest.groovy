@@ -0,0 +1,249 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.BufferOverflowException
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.MappedByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption
+
+class CompressedBitmapTest extends Specification {
+    static final List<String> KINDS = ['empty', 'array', 'bitmap', 'run']
+
+    /**
+     * unsigned values of chunk with key stored in container of kind
+     */
+    static TreeSet<Long> chunk(int key, String kind, int seed) {
+        Random random = new Random(seed)
+        TreeSet<Long> values = new TreeSet<>()
+        long high = (long) key << 16
+        switch (kind) {
+            case 'array':
+                100.times { values << high + random.nextInt(1 << 16) }
+                break
+            case 'bitmap':
+                20000.times { values << high + random.nextInt(1 << 16) }
+                break
+            case 'run':
+                int start = random.nextInt(1000)
+                (start..30000 + start).each { values << high + it }
+                (40000..40100).each { values << high + it }
+                values << high + 65535
+                break
+        }
+        return values
+    }
+
+    static CompressedBitmap compressed(Collection<Long> values) {
+        return CompressedBitmap.of(values.collect { (int) it } as int[])
+    }
+
+    /**
+     * reference set operations (groovy minus of sets is too slow for sets of this size)
+     */
+    static List<Long> and(Set<Long> first, Set<Long> second) {
+        TreeSet<Long> result = new TreeSet<>(first)
+        result.retainAll(second)
+        return new ArrayList<>(result)
+    }
+
+    static List<Long> or(Set<Long> first, Set<Long> second) {
+        TreeSet<Long> result = new TreeSet<>(first)
+        result.addAll(second)
+        return new ArrayList<>(result)
+    }
+
+    static List<Long> andNot(Set<Long> first, Set<Long> second) {
+        TreeSet<Long> result = new TreeSet<>(first)
+        result.removeAll(second)
+        return new ArrayList<>(result)
+    }
+
+    static List<Long> unsigned(int[] values) {
+        return values.collect { it & 0xFFFFFFFFL }
+    }
+
+    @Unroll
+    def "Test values of #kind container"() {
+        given:
+        TreeSet<Long> values = chunk(3, kind, 5)
+        when:
+        CompressedBitmap bitmap = compressed(values)
+        then:
+        bitmap.cardinality() == values.size()
+        unsigned(bitmap.toArray()) == values as List
+        values.every { bitmap.contains((int) it) }
+        !bitmap.contains((int) ((3L << 16) + 65534)) || values.contains((3L << 16) + 65534)
+        !bitmap.contains(7)
+        bitmap.containers() == (kind == 'empty' ? 0 : 1)
+        kind == 'empty' || bitmap.type(0) == [array: CompressedBitmap.ARRAY, bitmap: CompressedBitmap.BITMAP, run: CompressedBitmap.RUN][kind]
+        where:
+        kind << KINDS
+    }
+
+    def "Test values are unsigned and duplicates are ignored"() {
+        when:
+        CompressedBitmap bitmap = CompressedBitmap.of(-1, 5, Integer.MIN_VALUE, 5, 0, -1)
+        then:
+        bitmap.toArray() == [0, 5, Integer.MIN_VALUE, -1] as int[]
+        bitmap.cardinality() == 4
+        bitmap.contains(-1)
+        !bitmap.contains(-2)
+    }
+
+    @Unroll
+    def "Test operations of #kind and #otherKind containers"() {
+        given:
+        TreeSet<Long> values = chunk(1, kind, 1)
+        values.addAll(chunk(4, otherKind, 2))
+        values.addAll(chunk(65535, kind, 3))
+        TreeSet<Long> otherValues = chunk(1, otherKind, 4)
+        otherValues.addAll(chunk(2, kind, 5))
+        otherValues.addAll(chunk(65535, otherKind, 6))
+        if (kind == otherKind) {
+            //same values in one chunk to get some full matches
+            values.addAll(chunk(7, kind, 7))
+            otherValues.addAll(chunk(7, kind, 7))
+        }
+        CompressedBitmap bitmap = compressed(values)
+        CompressedBitmap other = compressed(otherValues)
+        List<Long> expectedAnd = and(values, otherValues)
+        List<Long> expectedOr = or(values, otherValues)
+        List<Long> expectedAndNot = andNot(values, otherValues)
+        List<Long> expectedXor = or(new TreeSet<>(expectedAndNot), new TreeSet<>(andNot(otherValues, values)))
+        expect:
+        unsigned(bitmap.AND(other).toArray()) == expectedAnd
+        unsigned(bitmap.OR(other).toArray()) == expectedOr
+        unsigned(bitmap.XOR(other).toArray()) == expectedXor
+        unsigned(bitmap.ANDNOT(other).toArray()) == expectedAndNot
+        unsigned(other.ANDNOT(bitmap).toArray()) == andNot(otherValues, values)
+        bitmap.andCardinality(other) == expectedAnd.size()
+        bitmap.orCardinality(other) == expectedOr.size()
+        bitmap.xorCardinality(other) == expectedXor.size()
+        bitmap.andNotCardinality(other) == expectedAndNot.size()
+        where:
+        [kind, otherKind] << [KINDS, KINDS].combinations()
+    }
+
+    def "Test result containers are stored in smallest form"() {
+        given:
+        CompressedBitmap run = compressed(chunk(0, 'run', 1))
+        CompressedBitmap dense = compressed(chunk(0, 'bitmap', 2))
+        expect:
+        run.AND(dense).type(0) == CompressedBitmap.BITMAP
+        run.XOR(run).containers() == 0
+        dense.OR(run).type(0) == CompressedBitmap.BITMAP
+        compressed(chunk(0, 'array', 3)).OR(compressed(chunk(0, 'array', 4))).type(0) == CompressedBitmap.ARRAY
+        run.OR(run).type(0) == CompressedBitmap.RUN
+    }
+
+    @Unroll
+    def "Test dense conversion of #length bytes"() {
+        given:
+        BitSet bits = new BitSet()
+        Random random = new Random(length)
+        (length * 8).times { if (random.nextInt(50) == 0) bits.set(it) }
+        if (length > 20000)
+            bits.set(100000, 160000)
+        byte[] raw = new byte[length + 3]
+        byte[] set = bits.toByteArray()
+        System.arraycopy(set, 0, raw, 3, set.length)
+        ByteBuffer dense = ByteBuffer.wrap(raw)
+        dense.position(3)
+        when:
+        CompressedBitmap bitmap = CompressedBitmap.fromDense(dense)
+        ByteBuffer target = ByteBuffer.allocateDirect(length + 1)
+        target.put(0, (byte) 1)
+        target.position(1)
+        bitmap.toDense(target)
+        then:
+        dense.position() == dense.limit()
+        target.position() == target.limit()
+        unsigned(bitmap.toArray()) == bits.stream().collect { (long) it }
+        (1..<length + 1).collect { target.get(it) } == (3..<length + 3).collect { raw[it] }
+        target.get(0) == 1 as byte
+        where:
+        length << [0, 5, 8193, 30000]
+    }
+
+    def "Test small dense buffer is rejected"() {
+        when:
+        CompressedBitmap.of(800).toDense(ByteBuffer.allocate(100))
+        then:
+        thrown(BufferOverflowException)
+    }
+
+    def "Test serialized bitmap is used from mapped file"() {
+        given:
+        TreeSet<Long> values = chunk(0, 'array', 1)
+        values.addAll(chunk(1, 'bitmap', 2))
+        values.addAll(chunk(9, 'run', 3))
+        TreeSet<Long> otherValues = chunk(0, 'bitmap', 4)
+        otherValues.addAll(chunk(1, 'bitmap', 5))
+        otherValues.addAll(chunk(9, 'array', 6))
+        CompressedBitmap other = compressed(otherValues)
+        Path file = Files.createTempFile("bitmap", ".bin")
+        FileChannel.open(file, StandardOpenOption.WRITE).withCloseable { it.write(compressed(values).buffer()) }
+        when:
+        MappedByteBuffer mapped = FileChannel.open(file).withCloseable { it.map(FileChannel.MapMode.READ_ONLY, 0, it.size()) }
+        CompressedBitmap bitmap = CompressedBitmap.wrap(mapped)
+        then:
+        mapped.capacity() == bitmap.serializedSize()
+        bitmap.cardinality() == values.size()
+        unsigned(bitmap.AND(other).toArray()) == and(values, otherValues)
+        unsigned(other.OR(bitmap).toArray()) == or(values, otherValues)
+        bitmap.andCardinality(other) == and(values, otherValues).size()
+        cleanup:
+        Files.deleteIfExists(file)
+    }
+
+    def "Test bitmap is wrapped from position of heap buffer"() {
+        given:
+        CompressedBitmap bitmap = compressed(or(chunk(2, 'run', 1), chunk(3, 'array', 2)))
+        ByteBuffer copy = ByteBuffer.allocate(bitmap.serializedSize() + 5)
+        copy.position(5)
+        copy.put(bitmap.buffer())
+        copy.position(5)
+        when:
+        CompressedBitmap wrapped = CompressedBitmap.wrap(copy)
+        then:
+        copy.position() == 5
+        wrapped.toArray() == bitmap.toArray()
+    }
+
+    def "Test buffer without bitmap is rejected"() {
+        when:
+        CompressedBitmap.wrap(ByteBuffer.allocate(64))
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    @Unroll
+    def "Test bitmap with corrupted #field of directory entry is rejected"() {
+        given:
+        TreeSet<Long> values = chunk(2, 'run', 1)
+        values.addAll(chunk(3, 'array', 2))
+        values.addAll(chunk(5, 'bitmap', 3))
+        CompressedBitmap bitmap = compressed(values)
+        ByteBuffer copy = ByteBuffer.allocate(bitmap.serializedSize()).order(ByteOrder.LITTLE_ENDIAN)
+        copy.put(bitmap.buffer()).clear()
+        corrupt(copy)
+        when:
+        CompressedBitmap.wrap(copy)
+        then:
+        thrown(IllegalArgumentException)
+        where:
+        field                  | corrupt
+        'type'                 | { ByteBuffer b -> b.putShort(8 + 2, (short) 7) }
+        'key order'            | { ByteBuffer b -> b.putShort(8 + 16, (short) 2) }
+        'array cardinality'    | { ByteBuffer b -> b.putInt(8 + 16 + 4, b.getInt(8 + 16 + 4) + 1) }
+        'bitmap length'        | { ByteBuffer b -> b.putInt(8 + 32 + 12, 8184) }
+        'run length'           | { ByteBuffer b -> b.putInt(8 + 12, 6) }
+        'zero cardinality'     | { ByteBuffer b -> b.putInt(8 + 32 + 4, 0) }
+    }
+}
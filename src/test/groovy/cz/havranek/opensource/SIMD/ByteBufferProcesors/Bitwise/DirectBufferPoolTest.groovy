@@ -0,0 +1,125 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class DirectBufferPoolTest extends Specification {
+
+    @Unroll
+    def "Test acquired buffer of #size bytes has capacity #capacity"() {
+        when:
+        ByteBuffer buffer = new DirectBufferPool(1).acquire(size)
+        then:
+        buffer.isDirect()
+        buffer.capacity() == capacity
+        buffer.position() == 0
+        buffer.limit() == size
+        buffer.order() == ByteOrder.BIG_ENDIAN
+        where:
+        size  | capacity
+        0     | 64
+        1     | 64
+        64    | 64
+        65    | 128
+        1000  | 1024
+        4096  | 4096
+        70000 | 131072
+    }
+
+    def "Test buffers are aligned to cache line"() {
+        given:
+        DirectBufferPool pool = new DirectBufferPool(1)
+        expect:
+        [64, 100, 5000].every { AlignedBulkBitwise.prologueLength(pool.acquire(it), 0, 64) == 0 }
+    }
+
+    def "Test released buffer is reused by same thread and reset"() {
+        given:
+        DirectBufferPool pool = new DirectBufferPool(0)
+        ByteBuffer buffer = pool.acquire(100)
+        buffer.order(ByteOrder.LITTLE_ENDIAN).position(50)
+        when:
+        pool.release(buffer)
+        ByteBuffer reused = pool.acquire(120)
+        then:
+        reused.is(buffer)
+        reused.position() == 0
+        reused.limit() == 120
+        reused.order() == ByteOrder.BIG_ENDIAN
+        !pool.acquire(120).is(buffer)
+    }
+
+    def "Test buffers bigger than local classes are kept only in shared slots"() {
+        given:
+        DirectBufferPool pool = new DirectBufferPool(slots)
+        ByteBuffer buffer = pool.acquire(DirectBufferPool.MAX_LOCAL_CLASS_SIZE + 1)
+        when:
+        pool.release(buffer)
+        then:
+        pool.acquire(DirectBufferPool.MAX_LOCAL_CLASS_SIZE + 1).is(buffer) == shared
+        where:
+        slots | shared
+        0     | false
+        1     | true
+    }
+
+    def "Test buffers released over thread cache are shared with other threads"() {
+        given:
+        DirectBufferPool pool = new DirectBufferPool(2)
+        ByteBuffer first = pool.acquire(256)
+        ByteBuffer second = pool.acquire(256)
+        pool.release(first)
+        pool.release(second)
+        def executor = Executors.newSingleThreadExecutor()
+        when:
+        ByteBuffer other = executor.submit({ pool.acquire(200) } as Callable<ByteBuffer>).get()
+        then:
+        other.is(second)
+        cleanup:
+        executor.shutdown()
+    }
+
+    def "Test concurrent acquire and release never hands out one buffer twice"() {
+        given:
+        DirectBufferPool pool = new DirectBufferPool(4)
+        def executor = Executors.newFixedThreadPool(8)
+        Set<ByteBuffer> inUse = Collections.newSetFromMap(new IdentityHashMap<ByteBuffer, Boolean>()).asSynchronized()
+        when:
+        List<Boolean> results = (1..8).collect {
+            executor.submit({
+                boolean unique = true
+                10000.times {
+                    ByteBuffer buffer = pool.acquire(512)
+                    unique &= inUse.add(buffer)
+                    inUse.remove(buffer)
+                    pool.release(buffer)
+                }
+                return unique
+            } as Callable<Boolean>)
+        }*.get()
+        then:
+        results.every()
+        cleanup:
+        executor.shutdown()
+    }
+
+    def "Test invalid arguments are rejected"() {
+        when:
+        action()
+        then:
+        thrown(IllegalArgumentException)
+        where:
+        action << [
+                { new DirectBufferPool(-1) },
+                { new DirectBufferPool(1).acquire(-1) },
+                { new DirectBufferPool(1).acquire(DirectBufferPool.MAX_CLASS_SIZE + 1) },
+                { new DirectBufferPool(1).release(ByteBuffer.allocate(64)) },
+                { new DirectBufferPool(1).release(ByteBuffer.allocateDirect(100)) }
+        ]
+    }
+}
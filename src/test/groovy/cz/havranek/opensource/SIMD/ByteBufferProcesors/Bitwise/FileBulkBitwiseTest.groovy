@@ -0,0 +1,89 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.ForkJoinPool
+
+class FileBulkBitwiseTest extends Specification {
+    static final int PAGE = FileBulkBitwise.PAGE_SIZE
+
+    static Path file(byte[] content) {
+        Path out = Files.createTempFile('bulk', '.bin')
+        out.toFile().deleteOnExit()
+        Files.write(out, content)
+        return out
+    }
+
+    @Unroll
+    def "Test in place #lane #order of file of #length bytes"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length)
+        byte[] expected = BulkBitwiseFactoryTest.common(raw, 0, lane, order, { a, b -> a ^ b })
+        Path path = file(raw)
+        BulkBitwiseI executor = BulkBitwiseFactory.create(BulkBitwiseFactory.Backend.SCALAR, lane, BulkBitwiseFactoryTest.CONSTANTS[lane])
+        when:
+        new FileBulkBitwise(PAGE, order, ForkJoinPool.commonPool()).execute(path, executor.&XOR)
+        then:
+        Files.readAllBytes(path) == expected
+        where:
+        [lane, order, length] << [Lane.values(), [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN], [0, 5, PAGE, PAGE + 3, 3 * PAGE + 13]].combinations()
+    }
+
+    @Unroll
+    def "Test out of place NOT of file of #length bytes"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length)
+        byte[] expected = BulkBitwiseFactoryTest.common(raw, 0, Lane.SHORT, ByteOrder.BIG_ENDIAN, { a, b -> ~a })
+        Path source = file(raw)
+        Path target = file(new byte[length + 100])
+        when:
+        new FileBulkBitwise(2 * PAGE, ByteOrder.BIG_ENDIAN, { Runnable task -> task.run() } as java.util.concurrent.Executor).execute(source, target, ShortBulkBitwise.&NOT)
+        then:
+        Files.readAllBytes(source) == raw
+        Files.readAllBytes(target) == expected
+        where:
+        length << [0, 1, 2 * PAGE, 5 * PAGE + 7]
+    }
+
+    @Unroll
+    def "Test one pass transfer #lane #order of file of #length bytes"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length)
+        byte[] expected = BulkBitwiseFactoryTest.common(raw, 0, lane, order, { a, b -> a ^ b })
+        Path source = file(raw)
+        Path target = file(new byte[length + 100])
+        BulkBitwiseI executor = BulkBitwiseFactory.create(BulkBitwiseFactory.Backend.SCALAR, lane, BulkBitwiseFactoryTest.CONSTANTS[lane])
+        when:
+        new FileBulkBitwise(PAGE, order, ForkJoinPool.commonPool()).transfer(source, target, executor.&XOR as java.util.function.BiConsumer)
+        then:
+        Files.readAllBytes(source) == raw
+        Files.readAllBytes(target) == expected
+        where:
+        [lane, order, length] << [Lane.values(), [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN], [0, 5, PAGE + 3, 3 * PAGE + 13]].combinations()
+    }
+
+    def "Test windows are page aligned and passed whole"() {
+        given:
+        Path path = file(new byte[3 * PAGE + 5])
+        List<Integer> sizes = []
+        when:
+        new FileBulkBitwise(PAGE, ByteOrder.BIG_ENDIAN, ForkJoinPool.commonPool()).execute(path, { ByteBuffer window -> sizes << window.remaining() })
+        then:
+        sizes == [PAGE, PAGE, PAGE, 5]
+    }
+
+    @Unroll
+    def "Test invalid window size #windowSize"() {
+        when:
+        new FileBulkBitwise(windowSize, ByteOrder.BIG_ENDIAN, ForkJoinPool.commonPool())
+        then:
+        thrown(IllegalArgumentException)
+        where:
+        windowSize << [0, -PAGE, PAGE + 8]
+    }
+}
@@ -0,0 +1,95 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+
+import javax.management.ObjectName
+import javax.management.openmbean.CompositeData
+import java.lang.management.ManagementFactory
+import java.nio.ByteBuffer
+
+import static cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise.BulkBitwiseMetrics.Operation
+
+class InstrumentedBulkBitwiseTest extends Specification {
+
+    def "Test operations are delegated and recorded"() {
+        given:
+        BulkBitwiseMetrics metrics = new BulkBitwiseMetrics()
+        BulkBitwiseI executor = new InstrumentedBulkBitwise(new ByteBulkBitwise(0x0F), metrics)
+        byte[] raw = BulkBitwiseFactoryTest.sequence(100)
+        byte[] expected = BulkBitwiseFactoryTest.common(raw, 0, Lane.BYTE, java.nio.ByteOrder.BIG_ENDIAN, { a, b -> (a & 0x0F) ^ 0x0F })
+        ByteBuffer buffer = ByteBuffer.wrap(raw)
+        when:
+        executor.AND(buffer)
+        executor.XOR(buffer, 0, 100)
+        executor.OR(buffer, 10, 10)
+        then:
+        raw == expected
+        buffer.position() == 100
+        metrics.statistics(Operation.AND).calls == 1
+        metrics.statistics(Operation.AND).bytes == 100
+        metrics.statistics(Operation.XOR).bytes == 100
+        metrics.statistics(Operation.OR).calls == 1
+        metrics.statistics(Operation.OR).bytes == 0
+        metrics.statistics(Operation.NOT).calls == 0
+        metrics.statistics(Operation.AND).latencyHistogram.sum() == 1
+    }
+
+    def "Test NOT is recorded"() {
+        given:
+        BulkBitwiseMetrics metrics = new BulkBitwiseMetrics()
+        byte[] raw = new byte[16]
+        when:
+        InstrumentedBulkBitwise.NOT(IntBulkBitwise.&NOT, metrics).accept(ByteBuffer.wrap(raw))
+        InstrumentedBulkBitwise.rangeNOT(IntBulkBitwise.&NOT, metrics).apply(ByteBuffer.wrap(raw), 0, 8)
+        then:
+        raw == ([0] * 8 + [-1] * 8) as byte[]
+        metrics.statistics(Operation.NOT).calls == 2
+        metrics.statistics(Operation.NOT).bytes == 24
+        metrics.statistics(Operation.NOT).nanos >= 0
+    }
+
+    def "Test failed call is not recorded"() {
+        given:
+        BulkBitwiseMetrics metrics = new BulkBitwiseMetrics()
+        when:
+        new InstrumentedBulkBitwise(new ByteBulkBitwise(1), metrics).AND(ByteBuffer.allocate(8), 0, 9)
+        then:
+        thrown(IndexOutOfBoundsException)
+        metrics.statistics(Operation.AND).calls == 0
+    }
+
+    def "Test latency histogram buckets and throughput"() {
+        given:
+        BulkBitwiseMetrics metrics = new BulkBitwiseMetrics()
+        when:
+        metrics.record(Operation.OR, 1000, 0)
+        metrics.record(Operation.OR, 1000, 1)
+        metrics.record(Operation.OR, 2000, 1023)
+        metrics.record(Operation.OR, 4000, 1024)
+        BulkBitwiseMetrics.Statistics statistics = metrics.statistics(Operation.OR)
+        then:
+        statistics.latencyHistogram[0] == 2
+        statistics.latencyHistogram[9] == 1
+        statistics.latencyHistogram[10] == 1
+        statistics.throughput == 8000d / 2048d
+        when:
+        metrics.reset()
+        then:
+        metrics.statistics(Operation.OR).calls == 0
+        metrics.statistics(Operation.OR).throughput == 0d
+    }
+
+    def "Test metrics are readable over JMX"() {
+        given:
+        BulkBitwiseMetrics metrics = new BulkBitwiseMetrics()
+        new InstrumentedBulkBitwise(new ShortBulkBitwise(1), metrics).XOR(ByteBuffer.allocate(64))
+        ObjectName name = metrics.register("test")
+        when:
+        CompositeData xor = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "XOR") as CompositeData
+        then:
+        xor.get("calls") == 1L
+        xor.get("bytes") == 64L
+        cleanup:
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(name)
+    }
+}
@@ -4,6 +4,7 @@ import spock.lang.Specification
 import spock.lang.Unroll
 
 import java.nio.ByteBuffer
+import java.nio.ByteOrder
 import java.nio.charset.StandardCharsets
 
 class IntBulkBitwiseTest extends Specification {
@@ -228,4 +229,65 @@ class IntBulkBitwiseTest extends Specification {
         [-1, -2, -3, -4, -5, -6, -7, -8] || [((byte) ~(-1)), ((byte) ~(-2)), ((byte) ~(-3)), ((byte) ~(-4)), ((byte) ~(-5)), ((byte) ~(-6)), ((byte) ~(-7)), ((byte) ~(-8))]
     }
 
+    @Unroll
+    def "Test NOT range #from - #to"() {
+        given:
+        byte[] raw = new byte[20]
+        byte[] out = new byte[20]
+        for (int i = from; i < to - (to - from) % 4; i++)
+            out[i] = (byte) ~0
+        ByteBuffer buffer = ByteBuffer.wrap(raw)
+        when:
+        IntBulkBitwise.NOT(buffer, from, to)
+        then:
+        out == raw
+        buffer.position() == 0
+        where:
+        from | to
+        0    | 20
+        1    | 20
+        3    | 19
+        7    | 10
+        7    | 11
+        9    | 9
+    }
+
+    @Unroll
+    def "Test XOR range #from - #to"() {
+        given:
+        byte[] raw = new byte[20]
+        byte[] out = new byte[20]
+        ByteBuffer expected = ByteBuffer.wrap(out)
+        for (int i = from; i + 4 <= to; i += 4)
+            expected.putInt(i, 0x01020304)
+        when:
+        new IntBulkBitwise(0x01020304).XOR(ByteBuffer.wrap(raw), from, to)
+        then:
+        out == raw
+        where:
+        from | to
+        0    | 20
+        1    | 20
+        3    | 19
+        7    | 10
+        7    | 11
+    }
+
+    @Unroll
+    def "Test asymmetric constant in #order #kind buffer"() {
+        given:
+        ByteBuffer buffer = (kind == 'direct' ? ByteBuffer.allocateDirect(43) : ByteBuffer.allocate(43)).order(order)
+        for (int i = 0; i < 43; i++)
+            buffer.put(i, (byte) (i * 37 + 11))
+        List expected = (0..<(43 - 3) / 4).collect { (int) (buffer.getInt(3 + it * 4) ^ (int) 0x8F00F0A5) }
+        buffer.position(3)
+        when:
+        new IntBulkBitwise((int) 0x8F00F0A5).XOR(buffer)
+        then:
+        (0..<(43 - 3) / 4).collect { buffer.getInt(3 + it * 4) } == expected
+        buffer.order() == order
+        buffer.position() == 43
+        where:
+        [order, kind] << [[ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN], ['heap', 'direct']].combinations()
+    }
 }
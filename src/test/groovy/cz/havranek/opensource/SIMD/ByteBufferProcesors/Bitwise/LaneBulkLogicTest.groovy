@@ -0,0 +1,68 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+class LaneBulkLogicTest extends Specification {
+    static final Map<String, Closure<Long>> REFERENCES = [
+            ANDNOT: { a, c -> a & ~c },
+            ORNOT : { a, c -> a | ~c },
+            NAND  : { a, c -> ~(a & c) },
+            NOR   : { a, c -> ~(a | c) },
+            XNOR  : { a, c -> ~(a ^ c) }
+    ]
+
+    @Unroll
+    def "Test #operation of #lane #order buffer of #length bytes"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length)
+        byte[] expected = BulkBitwiseFactoryTest.common(raw, 3, lane, order, REFERENCES[operation])
+        ByteBuffer buffer = ByteBuffer.wrap(raw).order(order)
+        buffer.position(3)
+        when:
+        new LaneBulkLogic(lane, BulkBitwiseFactoryTest.CONSTANTS[lane])."$operation"(buffer)
+        then:
+        raw == expected
+        buffer.position() == length
+        where:
+        [operation, lane, order, length] << [REFERENCES.keySet(), Lane.values(), [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN], [3, 10, 21, 38]].combinations()
+    }
+
+    def "Test range leaves rest of buffer untouched"() {
+        given:
+        byte[] raw = new byte[24]
+        when:
+        new LaneBulkLogic(Lane.SHORT, 0xFF00).NAND(ByteBuffer.wrap(raw), 2, 21)
+        then:
+        raw == ([0] * 2 + [-1] * 18 + [0] * 4) as byte[]
+    }
+
+    @Unroll
+    def "Test BLEND of #lane #order buffer with mask"() {
+        given:
+        int constant = BulkBitwiseFactoryTest.CONSTANTS[lane]
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length)
+        byte[] mask = BufferBulkBitwiseTest.sequence(length, 77)
+        byte[] replicated = BulkBitwiseFactoryTest.common(new byte[length], 0, lane, order, { a, c -> c })
+        byte[] expected = new byte[length]
+        int whole = length - length % lane.bytes()
+        for (int i = 0; i < length; i++)
+            expected[i] = i < whole ? (byte) ((raw[i] & ~mask[i]) | (replicated[i] & mask[i])) : raw[i]
+        when:
+        new LaneBulkLogic(lane, constant).BLEND(ByteBuffer.wrap(raw).order(order), ByteBuffer.wrap(mask))
+        then:
+        raw == expected
+        where:
+        [lane, order, length] << [Lane.values(), [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN], [0, 7, 22, 35]].combinations()
+    }
+
+    def "Test constant out of lane is rejected"() {
+        when:
+        new LaneBulkLogic(Lane.BYTE, 256)
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
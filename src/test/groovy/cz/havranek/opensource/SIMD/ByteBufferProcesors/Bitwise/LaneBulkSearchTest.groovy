@@ -0,0 +1,137 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.BufferOverflowException
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+class LaneBulkSearchTest extends Specification {
+    static final Map<Lane, List<Integer>> VALUES = [
+            (Lane.BYTE) : [0, 1, 0x7F, 0x80, 0xFF],
+            (Lane.SHORT): [0, 1, 0x7FFF, 0x8000, 0x80FF, 0xFFFF],
+            (Lane.INT)  : [0, 1, Integer.MAX_VALUE, Integer.MIN_VALUE, (int) 0x80FF00FF, -1],
+            (Lane.LONG) : [0, 1, Integer.MAX_VALUE, Integer.MIN_VALUE, (int) 0x80FF00FF, -1]
+    ]
+
+    /**
+     * @return value as element of lane (value of LONG lane is sign extended)
+     */
+    static long element(int value, Lane lane) {
+        return lane == Lane.LONG ? (long) value : value & 0xFFFFFFFFL
+    }
+
+    /**
+     * buffer made of values of lane (so there are lots of matches and values around highest bit)
+     */
+    static ByteBuffer buffer(int length, Lane lane, ByteOrder order, int seed) {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(order)
+        Random random = new Random(seed)
+        List<Integer> values = VALUES[lane]
+        for (int i = 0; i + lane.bytes() <= length; i += lane.bytes()) {
+            int value = values[random.nextInt(values.size())]
+            if (lane == Lane.BYTE)
+                buffer.put(i, (byte) value)
+            else if (lane == Lane.SHORT)
+                buffer.putShort(i, (short) value)
+            else if (lane == Lane.INT)
+                buffer.putInt(i, value)
+            else
+                buffer.putLong(i, value)
+        }
+        if (length % lane.bytes() != 0)
+            buffer.put(length - 1, (byte) 0)
+        return buffer
+    }
+
+    static List<Long> elements(ByteBuffer buffer, int from, int to, Lane lane) {
+        List<Long> elements = []
+        for (int i = from; i + lane.bytes() <= to; i += lane.bytes())
+            elements << (lane == Lane.BYTE ? buffer.get(i) & 0xFFL : lane == Lane.SHORT ? buffer.getShort(i) & 0xFFFFL :
+                    lane == Lane.INT ? buffer.getInt(i) & 0xFFFFFFFFL : buffer.getLong(i))
+        return elements
+    }
+
+    static byte[] bitmap(List<Boolean> matches) {
+        BitSet bits = new BitSet()
+        matches.eachWithIndex { boolean match, int i -> bits.set(i, match) }
+        byte[] bitmap = new byte[(matches.size() + 7).intdiv(8)]
+        byte[] set = bits.toByteArray()
+        System.arraycopy(set, 0, bitmap, 0, set.length)
+        return bitmap
+    }
+
+    @Unroll
+    def "Test indexOf and count of #lane #order buffer of #length bytes"() {
+        given:
+        ByteBuffer buffer = buffer(length, lane, order, length)
+        List<Long> elements = elements(buffer, 3, length, lane)
+        LaneBulkSearch search = new LaneBulkSearch(lane)
+        expect:
+        VALUES[lane].every { int value ->
+            long element = element(value, lane)
+            int first = elements.indexOf(element)
+            search.indexOf(buffer, 3, length, value) == (first < 0 ? -1 : 3 + first * lane.bytes()) &&
+                    search.count(buffer, 3, length, value) == elements.count(element)
+        }
+        buffer.position() == 0
+        where:
+        [lane, order, length] << [Lane.values(), [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN], [3, 10, 21, 38, 131]].combinations()
+    }
+
+    def "Test indexOf finds first of several matches in one long"() {
+        given:
+        ByteBuffer buffer = ByteBuffer.wrap([1, 2, 3, 9, 5, 9, 7, 8, 9, 9] as byte[])
+        buffer.position(1)
+        expect:
+        new LaneBulkSearch(Lane.BYTE).indexOf(buffer, 9) == 3
+        new LaneBulkSearch(Lane.BYTE).indexOf(buffer, 4) == -1
+        new LaneBulkSearch(Lane.BYTE).count(buffer, 9) == 4
+    }
+
+    @Unroll
+    def "Test match bitmaps of #lane #order buffer of #length bytes"() {
+        given:
+        ByteBuffer buffer = buffer(length, lane, order, length * 7)
+        List<Long> elements = elements(buffer, 1, length, lane)
+        LaneBulkSearch search = new LaneBulkSearch(lane)
+        List<Integer> values = VALUES[lane]
+        expect:
+        [values, values].combinations().every { int low, int high ->
+            long lowElement = element(low, lane)
+            long highElement = element(high, lane)
+            List<Boolean> equal = elements.collect { it == lowElement }
+            List<Boolean> less = elements.collect { Long.compareUnsigned(it, lowElement) < 0 }
+            List<Boolean> range = elements.collect { Long.compareUnsigned(it, lowElement) >= 0 && Long.compareUnsigned(it, highElement) <= 0 }
+            ByteBuffer target = ByteBuffer.allocate(2 + (elements.size() + 7).intdiv(8) + 2)
+            target.position(2)
+            boolean result = search.matchEqual(buffer, 1, length, low, target) == equal.count(true)
+            result &= target.position() == target.limit() - 2
+            result &= Arrays.copyOfRange(target.array(), 2, target.position()) == bitmap(equal)
+            target.position(2)
+            result &= search.matchLess(buffer, 1, length, low, target) == less.count(true)
+            result &= Arrays.copyOfRange(target.array(), 2, target.position()) == bitmap(less)
+            target.position(2)
+            result &= search.matchRange(buffer, 1, length, low, high, target) == range.count(true)
+            result &= Arrays.copyOfRange(target.array(), 2, target.position()) == bitmap(range)
+            result
+        }
+        where:
+        [lane, order, length] << [Lane.values(), [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN], [1, 10, 21, 66, 131]].combinations()
+    }
+
+    def "Test small bitmap is rejected"() {
+        when:
+        new LaneBulkSearch(Lane.BYTE).matchLess(ByteBuffer.allocate(17), 0, 17, 5, ByteBuffer.allocate(2))
+        then:
+        thrown(BufferOverflowException)
+    }
+
+    def "Test value out of lane is rejected"() {
+        when:
+        new LaneBulkSearch(Lane.SHORT).count(ByteBuffer.allocate(8), 0x10000)
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
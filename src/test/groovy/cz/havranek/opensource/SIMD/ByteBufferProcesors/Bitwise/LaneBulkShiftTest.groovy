@@ -0,0 +1,88 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+class LaneBulkShiftTest extends Specification {
+
+    /**
+     * common implementation shifting every element separately
+     * @param operation gets element zero extended, its bit width and distance
+     */
+    static byte[] common(byte[] input, int from, int to, Lane lane, ByteOrder order, int distance, Closure<Long> operation) {
+        byte[] out = input.clone()
+        ByteBuffer buffer = ByteBuffer.wrap(out).order(order)
+        int bits = lane.bytes() * 8
+        for (int i = from; i + lane.bytes() <= to; i += lane.bytes()) {
+            switch (lane) {
+                case Lane.BYTE: buffer.put(i, (byte) operation(buffer.get(i) & 0xFFL, bits, distance)); break
+                case Lane.SHORT: buffer.putShort(i, (short) operation(buffer.getShort(i) & 0xFFFFL, bits, distance)); break
+                case Lane.INT: buffer.putInt(i, (int) operation(buffer.getInt(i) & 0xFFFFFFFFL, bits, distance)); break
+                default: buffer.putLong(i, (long) operation(buffer.getLong(i), bits, distance))
+            }
+        }
+        return out
+    }
+
+    static final Map<String, Closure<Long>> REFERENCES = [
+            SHL: { long v, int bits, int d -> v << d },
+            SHR: { long v, int bits, int d -> v >>> d },
+            SAR: { long v, int bits, int d -> ((v << (64 - bits)) >> (64 - bits)) >> d },
+            ROL: { long v, int bits, int d -> (v << d) | (v >>> (bits - d)) },
+            ROR: { long v, int bits, int d -> (v >>> d) | (v << (bits - d)) }
+    ]
+
+    @Unroll
+    def "Test #operation of #lane by #distance #order"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(43)
+        byte[] expected = common(raw, 3, 43, lane, order, distance, REFERENCES[operation])
+        ByteBuffer buffer = ByteBuffer.wrap(raw).order(order)
+        buffer.position(3)
+        when:
+        new LaneBulkShift(lane, distance)."$operation"(buffer)
+        then:
+        raw == expected
+        buffer.position() == 43
+        where:
+        [operation, lane, distance, order] << [
+                REFERENCES.keySet(),
+                Lane.values(),
+                [0, 1, 3, 7, 8, 15, 16, 31, 32, 63],
+                [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN]
+        ].combinations().findAll { it[2] < it[1].bytes() * 8 }
+    }
+
+    @Unroll
+    def "Test range #operation of #lane length #length"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length + 4)
+        byte[] expected = common(raw, 1, length + 1, lane, ByteOrder.BIG_ENDIAN, 5, REFERENCES[operation])
+        ByteBuffer buffer = ByteBuffer.wrap(raw)
+        when:
+        new LaneBulkShift(lane, 5)."$operation"(buffer, 1, length + 1)
+        then:
+        raw == expected
+        buffer.position() == 0
+        where:
+        [operation, lane, length] << [REFERENCES.keySet(), Lane.values(), [0, 1, 5, 8, 9, 17, 23]].combinations()
+    }
+
+    @Unroll
+    def "Test distance #distance out of #lane"() {
+        when:
+        new LaneBulkShift(lane, distance)
+        then:
+        thrown(IllegalArgumentException)
+        where:
+        lane       | distance
+        Lane.BYTE  | -1
+        Lane.BYTE  | 8
+        Lane.SHORT | 16
+        Lane.INT   | 32
+        Lane.LONG  | 64
+    }
+}
@@ -0,0 +1,105 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.util.concurrent.ForkJoinPool
+
+class LongBulkBitwiseTest extends Specification {
+
+    /**
+     * common implementation processing every long separately
+     */
+    static byte[] common(byte[] input, int from, int to, ByteOrder order, long[] pattern, Closure<Long> operation) {
+        byte[] out = input.clone()
+        ByteBuffer buffer = ByteBuffer.wrap(out).order(order)
+        int word = 0
+        for (int i = from; i + 8 <= to; i += 8)
+            buffer.putLong(i, operation(buffer.getLong(i), pattern[word++ % pattern.length]))
+        return out
+    }
+
+    @Unroll
+    def "Test #operation with pattern of #pattern.length longs #order length #length from #from"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length)
+        byte[] expected = common(raw, from, length, order, pattern as long[], reference)
+        ByteBuffer buffer = ByteBuffer.wrap(raw).order(order)
+        buffer.position(from)
+        when:
+        new LongBulkBitwise(pattern as long[])."$operation"(buffer)
+        then:
+        raw == expected
+        buffer.position() == length
+        where:
+        [operation, reference, pattern, order, length, from] << [
+                [['AND', { a, b -> a & b }], ['OR', { a, b -> a | b }], ['XOR', { a, b -> a ^ b }]],
+                [[0x8F00F0A5C3L], [0x0123456789ABCDEFL, -2L], [1L, 0x8000000000000000L, 0x5A5A5A5A5A5A5A5AL, 7L]],
+                [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN],
+                [0, 7, 8, 15, 16, 29, 64],
+                [0, 3]
+        ].combinations().collect { it[0] + it.tail() }.findAll { it[5] <= it[4] }
+    }
+
+    @Unroll
+    def "Test range NOT length #length"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length + 3)
+        byte[] expected = common(raw, 1, length + 1, ByteOrder.BIG_ENDIAN, [0L] as long[], { a, b -> ~a })
+        ByteBuffer buffer = ByteBuffer.wrap(raw)
+        when:
+        LongBulkBitwise.NOT(buffer, 1, length + 1)
+        then:
+        raw == expected
+        buffer.position() == 0
+        where:
+        length << [0, 7, 8, 9, 24, 31]
+    }
+
+    def "Test constant is same as pattern of one long"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(37)
+        byte[] expected = common(raw, 0, 37, ByteOrder.BIG_ENDIAN, [-5L] as long[], { a, b -> a ^ b })
+        when:
+        new LongBulkBitwise(-5L).XOR(ByteBuffer.wrap(raw))
+        then:
+        raw == expected
+    }
+
+    def "Test pattern is copied"() {
+        given:
+        long[] pattern = [-1L, 0L]
+        LongBulkBitwise executor = new LongBulkBitwise(pattern)
+        pattern[1] = -1L
+        byte[] raw = new byte[16]
+        when:
+        executor.OR(ByteBuffer.wrap(raw))
+        then:
+        raw == ([-1] * 8 + [0] * 8) as byte[]
+    }
+
+    @Unroll
+    def "Test pattern of #length longs is rejected"() {
+        when:
+        new LongBulkBitwise(new long[length])
+        then:
+        IllegalArgumentException e = thrown()
+        e.message.contains("64 byte unit")
+        where:
+        length << [0, 3, 5, 6, 7, 16]
+    }
+
+    def "Test pattern of 4 longs in parallel"() {
+        given:
+        long[] pattern = [1L, 2L, 3L, 4L]
+        int length = ParallelBulkBitwise.MIN_CHUNK * 6 + 13
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length)
+        byte[] expected = common(raw, 0, length, ByteOrder.BIG_ENDIAN, pattern, { a, b -> a ^ b })
+        when:
+        new ParallelBulkBitwise(new LongBulkBitwise(pattern), new ForkJoinPool(3), 0).XOR(ByteBuffer.wrap(raw))
+        then:
+        raw == expected
+    }
+}
@@ -0,0 +1,105 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.BufferOverflowException
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+class NucleotidePackerTest extends Specification {
+    static final Map<String, Integer> CODES = [A: 0, C: 1, T: 2, G: 3]
+    static final Map<String, String> COMPLEMENTS = [A: 'T', C: 'G', T: 'A', G: 'C']
+
+    static String sequence(int length) {
+        Random random = new Random(length)
+        StringBuilder sequence = new StringBuilder()
+        length.times { sequence.append('ACGT'.charAt(random.nextInt(4))) }
+        return sequence.toString()
+    }
+
+    static long kmer(String bases) {
+        long kmer = 0
+        bases.toList().eachWithIndex { String base, int i -> kmer |= (long) CODES[base] << (2 * i) }
+        return kmer
+    }
+
+    @Unroll
+    def "Test pack and unpack of #length bases in #order buffer"() {
+        given:
+        String bases = sequence(length)
+        ByteBuffer buffer = ByteBuffer.wrap(('xyz' + bases.toLowerCase()).bytes).order(order)
+        buffer.position(3)
+        ByteBuffer unpacked = ByteBuffer.allocate(length + 2).order(order)
+        unpacked.position(1)
+        when:
+        long[] packed = NucleotidePacker.pack(buffer)
+        NucleotidePacker.unpack(packed, length, unpacked)
+        then:
+        buffer.position() == buffer.limit()
+        packed.length == NucleotidePacker.words(length)
+        (0..<length).every { NucleotidePacker.base(packed, it) == CODES[bases[it]] }
+        packed.length == 0 || packed[-1] >>> 1 >>> (2 * ((length - 1) % 32) + 1) == 0
+        unpacked.position() == length + 1
+        new String(unpacked.array(), 1, length) == bases
+        unpacked.get(length + 1) == 0 as byte
+        where:
+        [length, order] << [[0, 1, 7, 8, 31, 32, 33, 100], [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN]].combinations()
+    }
+
+    def "Test masked bytes are packed same as ASCII"() {
+        given:
+        ByteBuffer masked = ByteBuffer.wrap('ACGTacgtAACCGGTT'.bytes)
+        new ByteBulkBitwise((byte) 0b110).AND(masked)
+        masked.flip()
+        expect:
+        NucleotidePacker.pack(masked) == NucleotidePacker.pack(ByteBuffer.wrap('ACGTACGTAACCGGTT'.bytes))
+    }
+
+    @Unroll
+    def "Test reverse complement of #length bases"() {
+        given:
+        String bases = sequence(length)
+        String expected = bases.reverse().collect { COMPLEMENTS[it] }.join()
+        long[] packed = NucleotidePacker.pack(ByteBuffer.wrap(bases.bytes))
+        when:
+        long[] result = NucleotidePacker.reverseComplement(packed, length)
+        ByteBuffer unpacked = ByteBuffer.allocate(length)
+        NucleotidePacker.unpack(result, length, unpacked)
+        then:
+        new String(unpacked.array()) == expected
+        result == NucleotidePacker.pack(ByteBuffer.wrap(expected.bytes))
+        where:
+        length << [0, 1, 5, 31, 32, 33, 64, 70, 129]
+    }
+
+    @Unroll
+    def "Test #k-mers of #length bases"() {
+        given:
+        String bases = sequence(length)
+        long[] packed = NucleotidePacker.pack(ByteBuffer.wrap(bases.bytes))
+        long[] kmers = new long[length]
+        when:
+        int count = NucleotidePacker.kmers(packed, length, k, kmers)
+        then:
+        count == Math.max(0, length - k + 1)
+        (0..<count).every { kmers[it] == kmer(bases.substring(it, it + k)) && NucleotidePacker.kmer(packed, it, k) == kmers[it] }
+        where:
+        [k, length] << [[1, 3, 16, 31, 32], [0, 20, 40, 100]].combinations()
+    }
+
+    def "Test invalid arguments are rejected"() {
+        when:
+        NucleotidePacker.kmer(new long[2], 0, 33)
+        then:
+        thrown(IllegalArgumentException)
+        when:
+        NucleotidePacker.pack(ByteBuffer.allocate(33), new long[1])
+        then:
+        thrown(IndexOutOfBoundsException)
+        when:
+        NucleotidePacker.unpack(new long[1], 10, ByteBuffer.allocate(9))
+        then:
+        thrown(BufferOverflowException)
+    }
+}
@@ -0,0 +1,159 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.BufferOverflowException
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.util.concurrent.ForkJoinPool
+
+/**
+ * out of place variants have to give same bytes as target.put(source) followed by in place operation
+ */
+class OutOfPlaceBulkBitwiseTest extends Specification {
+    static final List<BulkBitwiseFactory.Backend> BACKENDS = BulkBitwiseFactory.Backend.values().findAll { BulkBitwiseFactory.isAvailable(it) }
+
+    static ByteBuffer source(byte[] raw, String kind) {
+        ByteBuffer buffer = kind.startsWith("direct") ? ByteBuffer.allocateDirect(raw.length + 3) : ByteBuffer.allocate(raw.length + 3)
+        buffer.position(3)
+        buffer.put(raw)
+        buffer.position(3)
+        return kind.endsWith("readOnly") ? buffer.asReadOnlyBuffer() : buffer
+    }
+
+    static byte[] content(ByteBuffer buffer, int from, int length) {
+        byte[] result = new byte[length]
+        length.times { result[it] = buffer.get(from + it) }
+        return result
+    }
+
+    static byte[] inPlace(byte[] raw, ByteOrder order, Closure operation) {
+        ByteBuffer reference = ByteBuffer.wrap(raw.clone()).order(order)
+        operation(reference)
+        return reference.array()
+    }
+
+    @Unroll
+    def "Test #backend #lane #operation from #sourceKind to #targetKind #order target of #length bytes"() {
+        given:
+        BulkBitwiseI executor = BulkBitwiseFactory.create(backend, lane, BulkBitwiseFactoryTest.CONSTANTS[lane])
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length)
+        ByteBuffer source = source(raw, sourceKind)
+        ByteBuffer target = (targetKind == "direct" ? ByteBuffer.allocateDirect(length + 5) : ByteBuffer.allocate(length + 5)).order(order)
+        target.position(5)
+        when:
+        executor."$operation"(source, target)
+        then:
+        content(target, 5, length) == inPlace(raw, order, { executor."$operation"(it) })
+        content(source, 3, length) == raw
+        source.position() == source.limit()
+        target.position() == length + 5
+        where:
+        [backend, lane, operation, sourceKind, targetKind, order, length] << [BACKENDS, Lane.values(), ["AND", "OR", "XOR"],
+                                                                             ["heap", "direct", "heap readOnly", "direct readOnly"], ["heap", "direct"],
+                                                                             [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN], [0, 7, 45, 130]].combinations()
+    }
+
+    @Unroll
+    def "Test #backend #lane NOT from #sourceKind to #targetKind target"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(77)
+        ByteBuffer source = source(raw, sourceKind)
+        ByteBuffer target = targetKind == "direct" ? ByteBuffer.allocateDirect(77) : ByteBuffer.allocate(77)
+        when:
+        BulkBitwiseFactory.transferNOT(backend, lane).accept(source, target)
+        then:
+        content(target, 0, 77) == inPlace(raw, ByteOrder.BIG_ENDIAN, { BulkBitwiseFactory.NOT(BulkBitwiseFactory.Backend.SCALAR, lane).accept(it) })
+        source.position() == source.limit()
+        target.position() == 77
+        where:
+        [backend, lane, sourceKind, targetKind] << [BACKENDS, Lane.values(), ["heap", "direct readOnly"], ["heap", "direct"]].combinations()
+    }
+
+    @Unroll
+    def "Test LongBulkBitwise #operation with pattern to #order target"() {
+        given:
+        LongBulkBitwise executor = new LongBulkBitwise([0x0123456789ABCDEFL, -1L, 0x5555AAAA5555AAAAL, 7L] as long[])
+        byte[] raw = BulkBitwiseFactoryTest.sequence(93)
+        ByteBuffer target = ByteBuffer.allocate(93).order(order)
+        when:
+        executor."$operation"(source(raw, "direct readOnly"), target)
+        then:
+        target.array() == inPlace(raw, order, { executor."$operation"(it) })
+        where:
+        [operation, order] << [["AND", "OR", "XOR"], [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN]].combinations()
+    }
+
+    def "Test LongBulkBitwise NOT"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(21)
+        ByteBuffer target = ByteBuffer.allocate(21)
+        when:
+        LongBulkBitwise.NOT(ByteBuffer.wrap(raw), target)
+        then:
+        target.array() == inPlace(raw, ByteOrder.BIG_ENDIAN, { LongBulkBitwise.NOT(it) })
+    }
+
+    @Unroll
+    def "Test decorated #lane #operation (#decorator)"() {
+        given:
+        BulkBitwiseI delegate = BulkBitwiseFactory.create(BulkBitwiseFactory.Backend.SCALAR, lane, BulkBitwiseFactoryTest.CONSTANTS[lane])
+        BulkBitwiseI executor = decorators[decorator](delegate, lane)
+        byte[] raw = BulkBitwiseFactoryTest.sequence(300001)
+        ByteBuffer source = ByteBuffer.allocateDirect(300004)
+        source.position(3)
+        source.put(raw).position(3)
+        ByteBuffer target = ByteBuffer.allocateDirect(300006).order(ByteOrder.LITTLE_ENDIAN)
+        target.position(5)
+        when:
+        executor."$operation"(source, target)
+        then:
+        content(target, 5, 300001) == inPlace(raw, ByteOrder.LITTLE_ENDIAN, { delegate."$operation"(it) })
+        source.position() == 300004
+        target.position() == 300006
+        where:
+        [decorator, lane, operation] << [["parallel", "aligned", "instrumented"], Lane.values(), ["AND", "OR", "XOR"]].combinations()
+        decorators = [parallel    : { BulkBitwiseI d, Lane l -> new ParallelBulkBitwise(d, ForkJoinPool.commonPool(), 0) },
+                      aligned     : { BulkBitwiseI d, Lane l -> new AlignedBulkBitwise(d, l, 64) },
+                      instrumented: { BulkBitwiseI d, Lane l -> new InstrumentedBulkBitwise(d, new BulkBitwiseMetrics()) }]
+    }
+
+    def "Test parallel and aligned NOT"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(200003)
+        ByteBuffer parallelTarget = ByteBuffer.allocate(200003)
+        ByteBuffer alignedTarget = ByteBuffer.allocateDirect(200003)
+        byte[] expected = inPlace(raw, ByteOrder.BIG_ENDIAN, { IntBulkBitwise.NOT(it) })
+        when:
+        new ParallelBulkBitwise(new IntBulkBitwise(1), ForkJoinPool.commonPool(), 0).execute(IntBulkBitwise.&NOT, ByteBuffer.wrap(raw), parallelTarget)
+        AlignedBulkBitwise.execute(IntBulkBitwise.&NOT, source(raw, "heap"), alignedTarget, Lane.INT, 8)
+        then:
+        parallelTarget.array() == expected
+        content(alignedTarget, 0, 200003) == expected
+    }
+
+    def "Test instrumented transfer NOT is recorded"() {
+        given:
+        BulkBitwiseMetrics metrics = new BulkBitwiseMetrics()
+        when:
+        InstrumentedBulkBitwise.transferNOT(ShortBulkBitwise.&NOT, metrics).accept(ByteBuffer.allocate(10), ByteBuffer.allocate(10))
+        then:
+        metrics.statistics(BulkBitwiseMetrics.Operation.NOT).bytes == 10
+    }
+
+    @Unroll
+    def "Test #backend target smaller than source is rejected"() {
+        given:
+        ByteBuffer source = ByteBuffer.allocate(16)
+        ByteBuffer target = ByteBuffer.allocate(15)
+        when:
+        BulkBitwiseFactory.create(backend, Lane.SHORT, 3).XOR(source, target)
+        then:
+        thrown(BufferOverflowException)
+        source.position() == 0
+        target.position() == 0
+        where:
+        backend << BACKENDS
+    }
+}
@@ -0,0 +1,122 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.util.concurrent.ForkJoinPool
+import java.util.function.Consumer
+
+class ParallelBulkBitwiseTest extends Specification {
+    @Shared
+    ForkJoinPool pool = new ForkJoinPool(4)
+
+    def cleanupSpec() {
+        pool.shutdown()
+    }
+
+    static ByteBuffer sequence(int length, boolean direct, ByteOrder order) {
+        ByteBuffer out = direct ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length)
+        for (int i = 0; i < length; i++)
+            out.put(i, (byte) (i * 37 + 11))
+        return out.order(order)
+    }
+
+    static BulkBitwiseI processor(Lane lane) {
+        switch (lane) {
+            case Lane.BYTE: return new ByteBulkBitwise(0b10100101)
+            case Lane.SHORT: return new ShortBulkBitwise(0b1111000010100101)
+            default: return new IntBulkBitwise((int) 0x8F00F0A5)
+        }
+    }
+
+    static Consumer<ByteBuffer> not(Lane lane) {
+        switch (lane) {
+            case Lane.BYTE: return ByteBulkBitwise.&NOT as Consumer<ByteBuffer>
+            case Lane.SHORT: return ShortBulkBitwise.&NOT as Consumer<ByteBuffer>
+            default: return IntBulkBitwise.&NOT as Consumer<ByteBuffer>
+        }
+    }
+
+    @Unroll
+    def "Test parallel #operation of #lane length #length from #position direct #direct"() {
+        given:
+        ByteBuffer parallelData = sequence(length, direct, ByteOrder.LITTLE_ENDIAN).position(position) as ByteBuffer
+        ByteBuffer sequentialData = sequence(length, direct, ByteOrder.LITTLE_ENDIAN).position(position) as ByteBuffer
+        ParallelBulkBitwise parallel = new ParallelBulkBitwise(processor(lane), pool, 0)
+        when:
+        if (operation == 'NOT') {
+            parallel.execute(not(lane), parallelData)
+            not(lane).accept(sequentialData)
+        } else {
+            parallel."$operation"(parallelData)
+            processor(lane)."$operation"(sequentialData)
+        }
+        then:
+        parallelData.position() == length
+        parallelData.clear() == sequentialData.clear()
+        where:
+        [operation, lane, length, position, direct] << [
+                ['AND', 'OR', 'XOR', 'NOT'],
+                Lane.values(),
+                [8 * ParallelBulkBitwise.MIN_CHUNK + 5, 3 * ParallelBulkBitwise.MIN_CHUNK],
+                [0, 3],
+                [false, true]
+        ].combinations()
+    }
+
+    @Unroll
+    def "Test parallel range NOT of #lane from #from"() {
+        given:
+        int length = 8 * ParallelBulkBitwise.MIN_CHUNK + 5
+        ByteBuffer parallelData = sequence(length, false, ByteOrder.BIG_ENDIAN)
+        ByteBuffer sequentialData = sequence(length, false, ByteOrder.BIG_ENDIAN)
+        ParallelBulkBitwise parallel = new ParallelBulkBitwise(processor(lane), pool, 0)
+        when:
+        parallel.execute(BulkBitwiseFactory.rangeNOT(BulkBitwiseFactory.Backend.SCALAR, lane), parallelData, from, length - 1)
+        BulkBitwiseFactory.rangeNOT(BulkBitwiseFactory.Backend.SCALAR, lane).apply(sequentialData, from, length - 1)
+        then:
+        parallelData.position() == 0
+        parallelData == sequentialData
+        where:
+        [lane, from] << [Lane.values(), [0, 3]].combinations()
+    }
+
+    def "Test small buffer is processed sequentially"() {
+        given:
+        List<ByteBuffer> seen = []
+        ByteBuffer data = ByteBuffer.allocate(100)
+        ParallelBulkBitwise parallel = new ParallelBulkBitwise(processor(Lane.BYTE), pool, 101)
+        when:
+        parallel.execute({ ByteBuffer buffer -> seen << buffer } as Consumer<ByteBuffer>, data)
+        then:
+        seen.size() == 1
+        seen[0].is(data)
+    }
+
+    def "Test large buffer is split to chunks of multiple of 64 bytes"() {
+        given:
+        List<ByteBuffer> seen = Collections.synchronizedList([])
+        int length = 8 * ParallelBulkBitwise.MIN_CHUNK + 5
+        ByteBuffer data = ByteBuffer.allocate(length).position(3) as ByteBuffer
+        ParallelBulkBitwise parallel = new ParallelBulkBitwise(processor(Lane.BYTE), pool, 0)
+        when:
+        parallel.execute({ ByteBuffer buffer -> seen << buffer } as Consumer<ByteBuffer>, data)
+        List<ByteBuffer> sorted = seen.sort { it.position() }
+        then:
+        sorted.size() > 1
+        sorted.first().position() == 3
+        sorted.last().limit() == length
+        sorted.every { !it.is(data) }
+        (0..<sorted.size() - 1).every { sorted[it].limit() == sorted[it + 1].position() && sorted[it].remaining() % 64 == 0 }
+    }
+
+    def "Test negative threshold"() {
+        when:
+        new ParallelBulkBitwise(processor(Lane.BYTE), pool, -1)
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
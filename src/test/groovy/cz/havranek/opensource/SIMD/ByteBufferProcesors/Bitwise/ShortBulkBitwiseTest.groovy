@@ -4,6 +4,7 @@ import spock.lang.Specification
 import spock.lang.Unroll
 
 import java.nio.ByteBuffer
+import java.nio.ByteOrder
 import java.nio.charset.StandardCharsets
 
 class ShortBulkBitwiseTest extends Specification {
@@ -221,5 +222,63 @@ class ShortBulkBitwiseTest extends Specification {
         [-1, -2, -3, -4, -5]     || [((byte) ~(-1)), ((byte) ~(-2)), ((byte) ~(-3)), ((byte) ~(-4)), -5]
         [-1, -2, -3, -4, -5, -6] || [((byte) ~(-1)), ((byte) ~(-2)), ((byte) ~(-3)), ((byte) ~(-4)), ((byte) ~(-5)), ((byte) ~(-6))]
     }
-}
 
+    @Unroll
+    def "Test AND range"() {
+        given:
+        ShortBulkBitwise executor = new ShortBulkBitwise(((95 | 1 << 7) << 8) | (95 | 1 << 7))
+        def UTF8 = StandardCharsets.UTF_8
+        when:
+        byte[] raw = input.getBytes(UTF8)
+        ByteBuffer buffer = ByteBuffer.wrap(raw)
+        executor.AND(buffer, from, to)
+        then:
+        output.getBytes() == raw
+        buffer.position() == 0
+
+        where:
+        input                  | from | to || output
+        'actg'                 | 1    | 3  || 'aCTg'
+        'actg'                 | 1    | 4  || 'aCTg' // last byte of incomplete short untouched
+        "actgactgactgactgactg" | 3    | 20 || "actGACTGACTGACTGACTg"
+        "actgactgactgactgactg" | 5    | 5  || "actgactgactgactgactg"
+    }
+
+    @Unroll
+    def "Test NOT range #from - #to"() {
+        given:
+        byte[] raw = new byte[20]
+        byte[] out = new byte[20]
+        for (int i = from; i < to - (to - from) % 2; i++)
+            out[i] = (byte) ~0
+        when:
+        ShortBulkBitwise.NOT(ByteBuffer.wrap(raw), from, to)
+        then:
+        out == raw
+        where:
+        from | to
+        0    | 20
+        1    | 20
+        3    | 19
+        7    | 8
+        9    | 9
+    }
+
+    @Unroll
+    def "Test asymmetric constant in #order #kind buffer"() {
+        given:
+        ByteBuffer buffer = (kind == 'direct' ? ByteBuffer.allocateDirect(43) : ByteBuffer.allocate(43)).order(order)
+        for (int i = 0; i < 43; i++)
+            buffer.put(i, (byte) (i * 37 + 11))
+        List expected = (0..<(43 - 3) / 2).collect { (short) (buffer.getShort(3 + it * 2) ^ (short) 0xF0A5) }
+        buffer.position(3)
+        when:
+        new ShortBulkBitwise(0xF0A5).XOR(buffer)
+        then:
+        (0..<(43 - 3) / 2).collect { buffer.getShort(3 + it * 2) } == expected
+        buffer.order() == order
+        buffer.position() == 43
+        where:
+        [order, kind] << [[ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN], ['heap', 'direct']].combinations()
+    }
+}
@@ -0,0 +1,80 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+import static cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise.TernaryBulkBitwise.*
+
+class TernaryBulkBitwiseTest extends Specification {
+
+    /**
+     * bit by bit evaluation of truth table
+     */
+    static int reference(int table, int a, int b, int c) {
+        int result = 0
+        for (int bit = 0; bit < 8; bit++) {
+            int index = ((a >>> bit & 1) << 2) | ((b >>> bit & 1) << 1) | (c >>> bit & 1)
+            result |= (table >>> index & 1) << bit
+        }
+        return result
+    }
+
+    @Unroll
+    def "Test truth table #table of three buffers"() {
+        given:
+        byte[] a = BulkBitwiseFactoryTest.sequence(43)
+        byte[] b = BufferBulkBitwiseTest.sequence(43, 5)
+        byte[] c = BufferBulkBitwiseTest.sequence(43, 91)
+        byte[] expected = (0..<43).collect { reference(table, a[it] & 0xFF, b[it] & 0xFF, c[it] & 0xFF) } as byte[]
+        ByteBuffer first = ByteBuffer.wrap(a)
+        when:
+        new TernaryBulkBitwise(table).apply(first, ByteBuffer.wrap(b).order(ByteOrder.LITTLE_ENDIAN), ByteBuffer.wrap(c))
+        then:
+        a == expected
+        first.position() == 43
+        where:
+        table << (0..255)
+    }
+
+    @Unroll
+    def "Test truth table #table with #lane constant in #order buffer"() {
+        given:
+        int constant = BulkBitwiseFactoryTest.CONSTANTS[lane]
+        byte[] a = BulkBitwiseFactoryTest.sequence(37)
+        byte[] b = BufferBulkBitwiseTest.sequence(37, 5)
+        byte[] c = BulkBitwiseFactoryTest.common(new byte[37], 0, lane, order, { x, k -> k })
+        int whole = 37 - 37 % lane.bytes()
+        byte[] expected = (0..<37).collect { it < whole ? reference(table, a[it] & 0xFF, b[it] & 0xFF, c[it] & 0xFF) : a[it] } as byte[]
+        when:
+        new TernaryBulkBitwise(table).apply(ByteBuffer.wrap(a).order(order), ByteBuffer.wrap(b), lane, constant)
+        then:
+        a == expected
+        where:
+        [table, lane, order] << [[0, BLEND, MAJORITY, 0x96, 0xFF, 0x17], Lane.values(), [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN]].combinations()
+    }
+
+    def "Test named truth tables"() {
+        expect:
+        reference(ANDNOT, 0b1100, 0b1010, 0) == 0b0100
+        reference(ORNOT, 0b1100, 0b1010, 0) == 0b11111101
+        reference(NAND, 0b1100, 0b1010, 0) == 0b11110111
+        reference(NOR, 0b1100, 0b1010, 0) == 0b11110001
+        reference(XNOR, 0b1100, 0b1010, 0) == 0b11111001
+        reference(BLEND, 0b1100, 0b1010, 0b0110) == 0b1010
+        reference(MAJORITY, 0b1100, 0b1010, 0b0110) == 0b1110
+    }
+
+    def "Test invalid arguments are rejected"() {
+        when:
+        new TernaryBulkBitwise(256)
+        then:
+        thrown(IllegalArgumentException)
+        when:
+        new TernaryBulkBitwise(A).apply(ByteBuffer.allocate(8), ByteBuffer.allocate(8), ByteBuffer.allocate(7))
+        then:
+        thrown(IllegalBufferLengthException)
+    }
+}
@@ -0,0 +1,91 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.MappedByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption
+
+class UnsafeBulkBitwiseTest extends Specification {
+
+    static ByteBuffer buffer(String kind, byte[] content, ByteOrder order) {
+        ByteBuffer out
+        switch (kind) {
+            case 'heap': out = ByteBuffer.allocate(content.length); break
+            case 'direct': out = ByteBuffer.allocateDirect(content.length); break
+            default:
+                Path file = Files.createTempFile('unsafe', '.bin')
+                file.toFile().deleteOnExit()
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                out = channel.map(FileChannel.MapMode.READ_WRITE, 0, content.length)
+                channel.close()
+        }
+        out.put(content).clear()
+        return out.order(order)
+    }
+
+    static byte[] content(ByteBuffer buffer) {
+        byte[] out = new byte[buffer.capacity()]
+        buffer.duplicate().clear().get(out)
+        return out
+    }
+
+    @Unroll
+    def "Test #operation of #kind #lane #order length #length from #from is same as scalar"() {
+        given:
+        byte[] raw = BulkBitwiseFactoryTest.sequence(length + 3)
+        ByteBuffer expected = ByteBuffer.wrap(raw.clone()).order(order)
+        ByteBuffer toProcess = buffer(kind, raw, order)
+        int constant = BulkBitwiseFactoryTest.CONSTANTS[lane]
+        when:
+        if (operation == 'NOT') {
+            BulkBitwiseFactory.rangeNOT(BulkBitwiseFactory.Backend.SCALAR, lane).apply(expected, from, length)
+            UnsafeBulkBitwise.NOT(toProcess, from, length, lane)
+        } else {
+            BulkBitwiseFactory.create(BulkBitwiseFactory.Backend.SCALAR, lane, constant)."$operation"(expected, from, length)
+            new UnsafeBulkBitwise(lane, constant)."$operation"(toProcess, from, length)
+        }
+        then:
+        content(toProcess) == expected.array()
+        toProcess.position() == 0
+        where:
+        [operation, kind, lane, order, length, from] << [
+                ['AND', 'OR', 'XOR', 'NOT'],
+                ['heap', 'direct', 'mapped'],
+                Lane.values(),
+                [ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN],
+                [0, 7, 8, 17, 64, 67],
+                [0, 3]
+        ].combinations().findAll { it[5] <= it[4] }
+    }
+
+    def "Test read only direct buffer is processed by safe processor"() {
+        when:
+        new UnsafeBulkBitwise(Lane.BYTE, 1).AND(ByteBuffer.allocateDirect(16).asReadOnlyBuffer())
+        then:
+        thrown(java.nio.ReadOnlyBufferException)
+    }
+
+    def "Test range out of direct buffer"() {
+        when:
+        new UnsafeBulkBitwise(Lane.INT, 1).XOR(ByteBuffer.allocateDirect(16), 8, 17)
+        then:
+        thrown(IndexOutOfBoundsException)
+    }
+
+    def "Test relative operation moves position to limit"() {
+        given:
+        ByteBuffer toProcess = ByteBuffer.allocateDirect(32)
+        toProcess.position(5).limit(30)
+        when:
+        new UnsafeBulkBitwise(Lane.SHORT, 0xFF).OR(toProcess)
+        then:
+        toProcess.position() == 30
+        content(toProcess) == ([0] * 5 + [0, -1] * 12 + [0] * 3) as byte[]
+    }
+}
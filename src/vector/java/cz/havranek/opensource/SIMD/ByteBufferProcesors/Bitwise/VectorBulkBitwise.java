@@ -0,0 +1,360 @@
+package cz.havranek.opensource.SIMD.ByteBufferProcesors.Bitwise;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Vector API backend of bulk bitwise processors, instead of long processes whole preferred vector (256 or 512 bits on
+ * current x64 cpus) in one iteration, last incomplete vector is processed by masked operation
+ * elements of all lanes are processed as bytes with constant replicated in byte order of processed buffer
+ * bytes of incomplete element at end are untouched (as in ShortBulkBitwise and IntBulkBitwise)
+ * <p>
+ * compiled separately (src/vector/java) it requires java 16+ started with --add-modules jdk.incubator.vector
+ * it is not meant to be constructed directly, use BulkBitwiseFactory
+ */
+final public class VectorBulkBitwise implements BulkBitwiseI {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final ByteOrder NATIVE = ByteOrder.nativeOrder();
+
+    private final int laneBytes;
+    private final ByteVector BIG_ENDIAN_FILTER;
+    private final ByteVector LITTLE_ENDIAN_FILTER;
+
+    /**
+     * Construct class for bitwise operation
+     *
+     * @param lane     width of elements to process
+     * @param constant constant to use... it is highly recommended to input it in 0b101010 form
+     * @throws IllegalArgumentException if argument can't be mapped to lane
+     */
+    public VectorBulkBitwise(final Lane lane, final int constant) {
+        final long packed = lane.packedFilter(constant);
+        laneBytes = lane.bytes();
+        BIG_ENDIAN_FILTER = replicate(packed, ByteOrder.BIG_ENDIAN);
+        LITTLE_ENDIAN_FILTER = replicate(packed, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static ByteVector replicate(final long packed, final ByteOrder order) {
+        final ByteBuffer pattern = ByteBuffer.allocate(SPECIES.vectorByteSize()).order(order);
+        while (pattern.hasRemaining())
+            pattern.putLong(packed);
+        return ByteVector.fromArray(SPECIES, pattern.array(), 0);
+    }
+
+    private ByteVector filter(final ByteBuffer toProcess) {
+        return toProcess.order() == ByteOrder.BIG_ENDIAN ? BIG_ENDIAN_FILTER : LITTLE_ENDIAN_FILTER;
+    }
+
+    /**
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range
+     * @param laneBytes count of bytes of one element
+     * @return index after last whole element of range
+     */
+    private static int end(final int fromIndex, final int toIndex, final int laneBytes) {
+        return toIndex - (toIndex - fromIndex) % laneBytes;
+    }
+
+    /**
+     * Execute bitwise AND operation on All elements with constant specified in constructor from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void AND(final ByteBuffer toProcess) {
+        AND(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise AND operation on All elements with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void AND(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final ByteVector filter = filter(toProcess);
+        final int end = end(fromIndex, toIndex, laneBytes);
+        final int loopEnd = fromIndex + SPECIES.loopBound(end - fromIndex);
+        int index = fromIndex;
+
+        for (; index < loopEnd; index += SPECIES.length())
+            ByteVector.fromByteBuffer(SPECIES, toProcess, index, NATIVE).and(filter).intoByteBuffer(toProcess, index, NATIVE);
+
+        if (index < end) {
+            final VectorMask<Byte> tail = SPECIES.indexInRange(index, end);
+            ByteVector.fromByteBuffer(SPECIES, toProcess, index, NATIVE, tail).and(filter).intoByteBuffer(toProcess, index, NATIVE, tail);
+        }
+    }
+
+    /**
+     * Execute bitwise OR operation on All elements with constant specified in constructor from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void OR(final ByteBuffer toProcess) {
+        OR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise OR operation on All elements with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void OR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final ByteVector filter = filter(toProcess);
+        final int end = end(fromIndex, toIndex, laneBytes);
+        final int loopEnd = fromIndex + SPECIES.loopBound(end - fromIndex);
+        int index = fromIndex;
+
+        for (; index < loopEnd; index += SPECIES.length())
+            ByteVector.fromByteBuffer(SPECIES, toProcess, index, NATIVE).or(filter).intoByteBuffer(toProcess, index, NATIVE);
+
+        if (index < end) {
+            final VectorMask<Byte> tail = SPECIES.indexInRange(index, end);
+            ByteVector.fromByteBuffer(SPECIES, toProcess, index, NATIVE, tail).or(filter).intoByteBuffer(toProcess, index, NATIVE, tail);
+        }
+    }
+
+    /**
+     * Execute bitwise XOR operation on All elements with constant specified in constructor from current position of buffer to it's limit
+     * position is moved to limit
+     * is thread save if nothing else is modifying(reading data) of buffer
+     *
+     * @param toProcess writable non null instance
+     */
+    @Override
+    public void XOR(final ByteBuffer toProcess) {
+        XOR(toProcess, toProcess.position(), toProcess.limit());
+        toProcess.position(toProcess.limit());
+    }
+
+    /**
+     * Execute bitwise XOR operation on All elements with constant specified in constructor from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    @Override
+    public void XOR(final ByteBuffer toProcess, final int fromIndex, final int toIndex) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final ByteVector filter = filter(toProcess);
+        final int end = end(fromIndex, toIndex, laneBytes);
+        final int loopEnd = fromIndex + SPECIES.loopBound(end - fromIndex);
+        int index = fromIndex;
+
+        for (; index < loopEnd; index += SPECIES.length())
+            ByteVector.fromByteBuffer(SPECIES, toProcess, index, NATIVE).lanewise(VectorOperators.XOR, filter).intoByteBuffer(toProcess, index, NATIVE);
+
+        if (index < end) {
+            final VectorMask<Byte> tail = SPECIES.indexInRange(index, end);
+            ByteVector.fromByteBuffer(SPECIES, toProcess, index, NATIVE, tail).lanewise(VectorOperators.XOR, filter).intoByteBuffer(toProcess, index, NATIVE, tail);
+        }
+    }
+
+    /**
+     * Execute bitwise AND operation on All elements of source with constant specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void AND(final ByteBuffer source, final ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final ByteVector filter = filter(target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final int end = end(0, length, laneBytes);
+        final int loopEnd = SPECIES.loopBound(end);
+        int index = 0;
+
+        for (; index < loopEnd; index += SPECIES.length())
+            ByteVector.fromByteBuffer(SPECIES, source, sourceIndex + index, NATIVE).and(filter).intoByteBuffer(target, targetIndex + index, NATIVE);
+
+        if (index < end) {
+            final VectorMask<Byte> tail = SPECIES.indexInRange(index, end);
+            ByteVector.fromByteBuffer(SPECIES, source, sourceIndex + index, NATIVE, tail).and(filter).intoByteBuffer(target, targetIndex + index, NATIVE, tail);
+        }
+        ByteBuffTools.copy(source, sourceIndex + end, target, targetIndex + end, length - end);
+        ByteBuffTools.advance(source, target, length);
+    }
+
+    /**
+     * Execute bitwise OR operation on All elements of source with constant specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void OR(final ByteBuffer source, final ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final ByteVector filter = filter(target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final int end = end(0, length, laneBytes);
+        final int loopEnd = SPECIES.loopBound(end);
+        int index = 0;
+
+        for (; index < loopEnd; index += SPECIES.length())
+            ByteVector.fromByteBuffer(SPECIES, source, sourceIndex + index, NATIVE).or(filter).intoByteBuffer(target, targetIndex + index, NATIVE);
+
+        if (index < end) {
+            final VectorMask<Byte> tail = SPECIES.indexInRange(index, end);
+            ByteVector.fromByteBuffer(SPECIES, source, sourceIndex + index, NATIVE, tail).or(filter).intoByteBuffer(target, targetIndex + index, NATIVE, tail);
+        }
+        ByteBuffTools.copy(source, sourceIndex + end, target, targetIndex + end, length - end);
+        ByteBuffTools.advance(source, target, length);
+    }
+
+    /**
+     * Execute bitwise XOR operation on All elements of source with constant specified in constructor and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source non null instance (may be read only)
+     * @param target writable non null instance not sharing memory with source
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    @Override
+    public void XOR(final ByteBuffer source, final ByteBuffer target) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final ByteVector filter = filter(target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final int end = end(0, length, laneBytes);
+        final int loopEnd = SPECIES.loopBound(end);
+        int index = 0;
+
+        for (; index < loopEnd; index += SPECIES.length())
+            ByteVector.fromByteBuffer(SPECIES, source, sourceIndex + index, NATIVE).lanewise(VectorOperators.XOR, filter).intoByteBuffer(target, targetIndex + index, NATIVE);
+
+        if (index < end) {
+            final VectorMask<Byte> tail = SPECIES.indexInRange(index, end);
+            ByteVector.fromByteBuffer(SPECIES, source, sourceIndex + index, NATIVE, tail).lanewise(VectorOperators.XOR, filter).intoByteBuffer(target, targetIndex + index, NATIVE, tail);
+        }
+        ByteBuffTools.copy(source, sourceIndex + end, target, targetIndex + end, length - end);
+        ByteBuffTools.advance(source, target, length);
+    }
+
+    /**
+     * Execute bitwise NOT operation on All elements from fromIndex to toIndex
+     * position and limit are untouched
+     * is thread save if nothing else is modifying(reading data) of range of buffer
+     *
+     * @param toProcess writable non null instance
+     * @param fromIndex inclusive start of range
+     * @param toIndex   noninclusive end of range (at most limit)
+     * @param laneBytes count of bytes of one element
+     * @throws IndexOutOfBoundsException if range is out of buffer
+     */
+    public static void NOT(final ByteBuffer toProcess, final int fromIndex, final int toIndex, final int laneBytes) {
+        ByteBuffTools.validateRange(toProcess, fromIndex, toIndex);
+        final int end = end(fromIndex, toIndex, laneBytes);
+        final int loopEnd = fromIndex + SPECIES.loopBound(end - fromIndex);
+        int index = fromIndex;
+
+        for (; index < loopEnd; index += SPECIES.length())
+            ByteVector.fromByteBuffer(SPECIES, toProcess, index, NATIVE).not().intoByteBuffer(toProcess, index, NATIVE);
+
+        if (index < end) {
+            final VectorMask<Byte> tail = SPECIES.indexInRange(index, end);
+            ByteVector.fromByteBuffer(SPECIES, toProcess, index, NATIVE, tail).not().intoByteBuffer(toProcess, index, NATIVE, tail);
+        }
+    }
+
+    /**
+     * Execute bitwise NOT operation on All elements of source and store result to target
+     * positions of both buffers are moved by count of bytes of source
+     * is thread save if nothing else is modifying(reading data) of buffers
+     *
+     * @param source    non null instance (may be read only)
+     * @param target    writable non null instance not sharing memory with source
+     * @param laneBytes count of bytes of one element
+     * @throws BufferOverflowException if target has less bytes remaining than source
+     */
+    public static void NOT(final ByteBuffer source, final ByteBuffer target, final int laneBytes) {
+        final int length = ByteBuffTools.validateTransfer(source, target);
+        final int sourceIndex = source.position();
+        final int targetIndex = target.position();
+        final int end = end(0, length, laneBytes);
+        final int loopEnd = SPECIES.loopBound(end);
+        int index = 0;
+
+        for (; index < loopEnd; index += SPECIES.length())
+            ByteVector.fromByteBuffer(SPECIES, source, sourceIndex + index, NATIVE).not().intoByteBuffer(target, targetIndex + index, NATIVE);
+
+        if (index < end) {
+            final VectorMask<Byte> tail = SPECIES.indexInRange(index, end);
+            ByteVector.fromByteBuffer(SPECIES, source, sourceIndex + index, NATIVE, tail).not().intoByteBuffer(target, targetIndex + index, NATIVE, tail);
+        }
+        ByteBuffTools.copy(source, sourceIndex + end, target, targetIndex + end, length - end);
+        ByteBuffTools.advance(source, target, length);
+    }
+
+    /**
+     * @param lane width of elements to process
+     * @return NOT operation for elements of lane, position is moved to limit
+     */
+    public static Consumer<ByteBuffer> NOT(final Lane lane) {
+        final int laneBytes = lane.bytes();
+        return toProcess -> {
+            NOT(toProcess, toProcess.position(), toProcess.limit(), laneBytes);
+            toProcess.position(toProcess.limit());
+        };
+    }
+
+    /**
+     * @param lane width of elements to process
+     * @return NOT operation for elements of lane working on range
+     */
+    public static BulkRangeOperation rangeNOT(final Lane lane) {
+        final int laneBytes = lane.bytes();
+        return (toProcess, fromIndex, toIndex) -> NOT(toProcess, fromIndex, toIndex, laneBytes);
+    }
+
+    /**
+     * @param lane width of elements to process
+     * @return out of place NOT operation for elements of lane
+     */
+    public static BiConsumer<ByteBuffer, ByteBuffer> transferNOT(final Lane lane) {
+        final int laneBytes = lane.bytes();
+        return (source, target) -> NOT(source, target, laneBytes);
+    }
+}